@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.compilationTest;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import android.databinding.tool.GenerationOptions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the same binding compiled with and without {@link GenerationOptions#ATOMIC_DIRTY_FLAGS}
+ * and checks that both behave the same. The layout has more than 64 dirty flags so that the
+ * flags are spread over several buckets.
+ */
+public class AtomicDirtyFlagsTest extends BaseCompilationTest {
+    private static final int VARIABLE_COUNT = 70;
+
+    private static final String BINDING_CLASS = DEFAULT_APP_PACKAGE + ".databinding.FlagsBinding";
+
+    @Test
+    public void testAtomicFlagsBehaveLikeSynchronizedFlags() throws Exception {
+        HeadlessBindings synchronizedBindings = build("");
+        HeadlessBindings atomicBindings = build(
+                "\"-A" + GenerationOptions.ATOMIC_DIRTY_FLAGS + "=true\"");
+        Class<?> synchronizedClass = synchronizedBindings.loadClass(BINDING_CLASS);
+        Class<?> atomicClass = atomicBindings.loadClass(BINDING_CLASS);
+        assertEquals(long.class, synchronizedClass.getDeclaredField("mDirtyFlags").getType());
+        assertEquals(long.class, synchronizedClass.getDeclaredField("mDirtyFlags_1").getType());
+        assertEquals("java.util.concurrent.atomic.AtomicLongArray",
+                atomicClass.getDeclaredField("mDirtyFlags").getType().getName());
+
+        List<String> expected = run(synchronizedBindings);
+        assertEquals(expected, run(atomicBindings));
+    }
+
+    private HeadlessBindings build(String compilerArgs) throws Exception {
+        Map<String, String> replacements = new HashMap<String, String>();
+        replacements.put(KEY_COMPILER_ARGS, compilerArgs);
+        prepareApp(replacements);
+        FileUtils.writeStringToFile(new File(testFolder, "app/src/main/res/layout/flags.xml"),
+                createLayout());
+        CompilationResult result = runGradle("clean", "assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+        String name = compilerArgs.isEmpty() ? "synchronized" : "atomic";
+        return HeadlessBindings.compile(new File(testFolder, "app"),
+                new File(testFolder, "headless-" + name));
+    }
+
+    /**
+     * Returns a layout with a String variable bound to a TextView each, an expression reading
+     * the first and the last of them and an ObservableInt.
+     */
+    private static String createLayout() {
+        StringBuilder layout = new StringBuilder();
+        layout.append("<layout xmlns:android=\"http://schemas.android.com/apk/res/android\">\n")
+                .append("    <data>\n");
+        for (int i = 0; i < VARIABLE_COUNT; i++) {
+            layout.append("        <variable name=\"value").append(i)
+                    .append("\" type=\"String\"/>\n");
+        }
+        layout.append("        <variable name=\"count\"")
+                .append(" type=\"android.databinding.ObservableInt\"/>\n")
+                .append("    </data>\n")
+                .append("    <LinearLayout android:orientation=\"vertical\"\n")
+                .append("        android:layout_width=\"match_parent\"")
+                .append(" android:layout_height=\"match_parent\">\n");
+        for (int i = 0; i < VARIABLE_COUNT; i++) {
+            appendTextView(layout, "text" + i, "value" + i);
+        }
+        appendTextView(layout, "combined", "value0 + value" + (VARIABLE_COUNT - 1));
+        appendTextView(layout, "countView", "`` + count");
+        layout.append("    </LinearLayout>\n")
+                .append("</layout>\n");
+        return layout.toString();
+    }
+
+    private static void appendTextView(StringBuilder layout, String id, String expression) {
+        layout.append("        <TextView android:id=\"@+id/").append(id).append("\"\n")
+                .append("            android:layout_width=\"wrap_content\"")
+                .append(" android:layout_height=\"wrap_content\"\n")
+                .append("            android:contentDescription=\"@{").append(expression)
+                .append("}\"/>\n");
+    }
+
+    /**
+     * Changes variables in both buckets and the observable and returns the content descriptions
+     * of the affected Views after each step.
+     */
+    private static List<String> run(HeadlessBindings bindings) throws Exception {
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "prepareThread");
+        Object context = bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME,
+                "createContext", bindings.loadClass(DEFAULT_APP_PACKAGE + ".R"),
+                bindings.getLayoutDirectory());
+        Object inflater = bindings.invokeStatic("android.view.LayoutInflater", "from", context);
+        Object binding = bindings.invokeStatic(BINDING_CLASS, "inflate", inflater);
+        final int last = VARIABLE_COUNT - 1;
+        List<String> states = new ArrayList<String>();
+
+        for (int i = 0; i < VARIABLE_COUNT; i++) {
+            bindings.invoke(binding, "setValue" + i, "v" + i);
+        }
+        Object count = bindings.newInstance("android.databinding.ObservableInt", 1);
+        bindings.invoke(binding, "setCount", count);
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invoke(binding, "executePendingBindings");
+        assertFalse((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        assertEquals("v0", describe(bindings, binding, "text0"));
+        assertEquals("v" + last, describe(bindings, binding, "text" + last));
+        assertEquals("v0v" + last, describe(bindings, binding, "combined"));
+        assertEquals("1", describe(bindings, binding, "countView"));
+        addStates(states, bindings, binding);
+
+        // a variable in the last bucket only
+        bindings.invoke(binding, "setValue" + last, "changed");
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invoke(binding, "executePendingBindings");
+        assertFalse((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        assertEquals("changed", describe(bindings, binding, "text" + last));
+        assertEquals("v0changed", describe(bindings, binding, "combined"));
+        addStates(states, bindings, binding);
+
+        // a variable in the first bucket only
+        bindings.invoke(binding, "setValue0", "first");
+        bindings.invoke(binding, "executePendingBindings");
+        assertEquals("first", describe(bindings, binding, "text0"));
+        assertEquals("firstchanged", describe(bindings, binding, "combined"));
+        addStates(states, bindings, binding);
+
+        // observable changes go through onFieldChange and are executed in the next frame
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "attachToWindow",
+                bindings.invoke(binding, "getRoot"));
+        bindings.invoke(count, "set", 5);
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "runUntilIdle");
+        assertFalse((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        assertEquals("5", describe(bindings, binding, "countView"));
+        addStates(states, bindings, binding);
+
+        // invalidateAll sets the flags of every bucket
+        bindings.invoke(binding, "invalidateAll");
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invoke(binding, "executePendingBindings");
+        assertFalse((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        addStates(states, bindings, binding);
+        return states;
+    }
+
+    private static void addStates(List<String> states, HeadlessBindings bindings,
+            Object binding) throws Exception {
+        for (int i = 0; i < VARIABLE_COUNT; i++) {
+            states.add(describe(bindings, binding, "text" + i));
+        }
+        states.add(describe(bindings, binding, "combined"));
+        states.add(describe(bindings, binding, "countView"));
+    }
+
+    private static String describe(HeadlessBindings bindings, Object binding, String viewName)
+            throws Exception {
+        Object description = bindings.invoke(bindings.getField(binding, viewName),
+                "getContentDescription");
+        return description == null ? null : description.toString();
+    }
+}
@@ -66,6 +66,7 @@ public class BaseCompilationTest {
     public static final String KEY_IMPORT_TYPE = "IMPORTTYPE";
     public static final String KEY_INCLUDE_ID = "INCLUDEID";
     public static final String KEY_VIEW_ID = "VIEWID";
+    public static final String KEY_COMPILER_ARGS = "COMPILER_ARGS";
 
     protected final File testFolder = new File("./build/build-test");
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.compilationTest;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the cold start cost of the generated bindings: initializing the binding classes of
+ * a synthetic application and creating and binding the first instance of each, as an
+ * application does while it starts.
+ * <p>
+ * The application has {@link #LAYOUT_COUNT} layouts with an include and an id-only view, whose
+ * bindings build <code>sIncludes</code> and <code>sViewsWithIds</code> in a static initializer,
+ * and as many plain layouts with the same bindings, whose bindings declare no static tables.
+ * Both sets are run headless, alternately and in fresh ClassLoaders, so that every round pays
+ * for class initialization again. The times and their difference are written to
+ * {@link #RESULTS_FILE} to compare code generation changes. Only a generous bound is asserted,
+ * the numbers depend too much on the machine to fail on them.
+ * <p>
+ * The benchmark builds a large application, so it only runs when the
+ * <code>runBenchmarks</code> system property is set, with <code>gradlew test
+ * -PrunBenchmarks</code>.
+ */
+public class ColdStartBenchmarkTest extends BaseCompilationTest {
+    private static final int LAYOUT_COUNT = 500;
+
+    private static final int ROUNDS = 5;
+
+    private static final long MAX_ROUND_MILLIS = 60000;
+
+    private static final String BINDING_PACKAGE = DEFAULT_APP_PACKAGE + ".databinding.";
+
+    private static final File RESULTS_FILE = new File("./build/benchmarks/cold-start.txt");
+
+    @Before
+    public void assumeBenchmarksEnabled() {
+        Assume.assumeTrue("benchmarks are disabled, run with -PrunBenchmarks",
+                Boolean.getBoolean("runBenchmarks"));
+    }
+
+    @Test
+    public void testColdStart() throws Exception {
+        HeadlessBindings bindings = build();
+        assertTrue(hasStaticTables(bindings, "ColdStart0Binding"));
+        assertFalse(hasStaticTables(bindings, "ColdStartPlain0Binding"));
+
+        long tablesNanos = Long.MAX_VALUE;
+        long plainNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            tablesNanos = Math.min(tablesNanos, measure(bindings.reload(), "ColdStart", true));
+            plainNanos = Math.min(plainNanos, measure(bindings.reload(), "ColdStartPlain", false));
+        }
+        String results = "cold start of " + LAYOUT_COUNT + " bindings: with static tables "
+                + (tablesNanos / 1000) + "us, without static tables " + (plainNanos / 1000)
+                + "us, difference " + ((tablesNanos - plainNanos) / 1000) + "us";
+        FileUtils.writeStringToFile(RESULTS_FILE, results + "\n");
+        assertTrue(results, tablesNanos < MAX_ROUND_MILLIS * 1000000);
+        assertTrue(results, plainNanos < MAX_ROUND_MILLIS * 1000000);
+    }
+
+    private HeadlessBindings build() throws Exception {
+        prepareApp(null);
+        File layouts = new File(testFolder, "app/src/main/res/layout");
+        if (layouts.exists()) {
+            FileUtils.forceDelete(layouts);
+        }
+        copyResourceTo("/layout/cold_start_leaf.xml",
+                "/app/src/main/res/layout/cold_start_leaf.xml");
+        for (int i = 0; i < LAYOUT_COUNT; i++) {
+            copyResourceTo("/layout/cold_start_layout.xml",
+                    "/app/src/main/res/layout/cold_start_" + i + ".xml");
+            copyResourceTo("/layout/cold_start_plain.xml",
+                    "/app/src/main/res/layout/cold_start_plain_" + i + ".xml");
+        }
+        CompilationResult result = runGradle("clean", "assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+        return HeadlessBindings.compile(new File(testFolder, "app"),
+                new File(testFolder, "headless"));
+    }
+
+    private static boolean hasStaticTables(HeadlessBindings bindings, String bindingName)
+            throws Exception {
+        Class<?> bindingClass = bindings.loadClass(BINDING_PACKAGE + bindingName);
+        for (Field field : bindingClass.getDeclaredFields()) {
+            if (field.getName().equals("sIncludes") || field.getName().equals("sViewsWithIds")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the time to initialize, inflate and bind each binding class of a set once.
+     */
+    private static long measure(HeadlessBindings bindings, String prefix, boolean included)
+            throws Exception {
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "prepareThread");
+        Object context = bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME,
+                "createContext", bindings.loadClass(DEFAULT_APP_PACKAGE + ".R"),
+                bindings.getLayoutDirectory());
+        Object inflater = bindings.invokeStatic("android.view.LayoutInflater", "from", context);
+        Object binding = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < LAYOUT_COUNT; i++) {
+            binding = bindings.invokeStatic(BINDING_PACKAGE + prefix + i + "Binding",
+                    "inflate", inflater);
+            bindings.invoke(binding, "setTitle", "title");
+            bindings.invoke(binding, "setSubtitle", "subtitle");
+            bindings.invoke(binding, "executePendingBindings");
+        }
+        long time = System.nanoTime() - start;
+        Object nameView;
+        if (included) {
+            assertTrue(bindings.getField(binding, "label") != null);
+            nameView = bindings.getField(bindings.getField(binding, "leaf"), "nameView");
+        } else {
+            nameView = bindings.getField(binding, "nameView");
+        }
+        assertEquals("subtitle", bindings.invoke(nameView, "getContentDescription"));
+        return time;
+    }
+}
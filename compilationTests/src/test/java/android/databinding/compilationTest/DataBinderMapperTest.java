@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.compilationTest;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the DataBinderMapper generated for an application with layouts in two modules, which
+ * dispatches the layouts of each module to a nested Mapper_ class.
+ */
+public class DataBinderMapperTest extends BaseCompilationTest {
+    private static final String MODULE_PACKAGE = "com.example.module1";
+
+    private static final String APP_MAPPER =
+            "Mapper_" + DEFAULT_APP_PACKAGE.replace('.', '_');
+
+    private static final String MODULE_MAPPER = "Mapper_" + MODULE_PACKAGE.replace('.', '_');
+
+    private static final String VIEWS_SIGNATURE = "getDataBinder(android.databinding"
+            + ".DataBindingComponent bindingComponent, android.view.View[] views, int layoutId)";
+
+    @Test
+    public void testModuleMappers() throws Exception {
+        prepareApp(toMap(KEY_DEPENDENCIES, "compile project(':module1')",
+                KEY_SETTINGS_INCLUDES, "include ':app'\ninclude ':module1'"));
+        prepareModule("module1", MODULE_PACKAGE, toMap());
+        copyResourceTo("/layout/module_merge.xml",
+                "/module1/src/main/res/layout/module_merge.xml");
+        copyResourceTo("/layout/include_module_merge.xml",
+                "/module1/src/main/res/layout/module_layout.xml");
+        copyResourceTo("/layout/basic_layout.xml", "/app/src/main/res/layout/app_layout.xml");
+        copyResourceTo("/layout/basic_layout.xml",
+                "/app/src/main/res/layout-land/app_layout.xml");
+        CompilationResult result = runGradle("assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+
+        String mapper = readMapper();
+        assertTrue(mapper.contains("private static class " + APP_MAPPER));
+        assertTrue(mapper.contains("private static class " + MODULE_MAPPER));
+
+        // the mapper only dispatches to the module mappers
+        String viewDispatch = getMethod(mapper, "public android.databinding.ViewDataBinding "
+                + "getDataBinder(android.databinding.DataBindingComponent bindingComponent, "
+                + "android.view.View view, int layoutId)");
+        assertDispatch(viewDispatch, DEFAULT_APP_PACKAGE, "app_layout", APP_MAPPER, "view");
+        assertDispatch(viewDispatch, MODULE_PACKAGE, "module_layout", MODULE_MAPPER, "view");
+        assertDispatch(viewDispatch, MODULE_PACKAGE, "module_merge", MODULE_MAPPER, "view");
+        assertFalse(viewDispatch.contains("new "));
+
+        // merge layouts are still resolved from their Views through the module mapper
+        String viewsDispatch = getMethod(mapper, "android.databinding.ViewDataBinding "
+                + VIEWS_SIGNATURE);
+        assertDispatch(viewsDispatch, MODULE_PACKAGE, "module_merge", MODULE_MAPPER, "views");
+        assertFalse(viewsDispatch.contains("R.layout.module_layout"));
+        assertFalse(viewsDispatch.contains("R.layout.app_layout"));
+        assertFalse(viewsDispatch.contains(APP_MAPPER));
+
+        String moduleMapper = getMethod(mapper, "private static class " + MODULE_MAPPER);
+        String moduleViews = getMethod(moduleMapper, "static android.databinding.ViewDataBinding "
+                + VIEWS_SIGNATURE);
+        assertTrue(moduleViews.contains("case " + MODULE_PACKAGE + ".R.layout.module_merge:"));
+        assertTrue(moduleViews.contains("(bindingComponent, views);"));
+
+        // a layout with several configurations picks the binding by the tag of the root
+        String appMapper = getMethod(mapper, "private static class " + APP_MAPPER);
+        assertTrue(appMapper.contains("\"layout/app_layout_0\".equals(tag)"));
+        assertTrue(appMapper.contains("\"layout-land/app_layout_0\".equals(tag)"));
+        assertFalse(appMapper.contains(VIEWS_SIGNATURE));
+    }
+
+    private String readMapper() throws Exception {
+        Collection<File> files = FileUtils.listFiles(
+                new File(testFolder, "app/build/generated/source"),
+                new NameFileFilter("DataBinderMapper.java"), TrueFileFilter.INSTANCE);
+        assertEquals(files.toString(), 1, files.size());
+        return FileUtils.readFileToString(files.iterator().next());
+    }
+
+    private static void assertDispatch(String method, String modulePackage, String layout,
+            String mapperName, String viewsName) {
+        String label = "case " + modulePackage + ".R.layout." + layout + ":";
+        String call = "return " + mapperName + ".getDataBinder(bindingComponent, " + viewsName
+                + ", layoutId);";
+        int labelIndex = method.indexOf(label);
+        assertTrue(label + " not in " + method, labelIndex >= 0);
+        assertTrue(call + " does not follow " + label,
+                method.indexOf(call, labelIndex) > labelIndex);
+    }
+
+    /**
+     * Returns the declaration starting with signature up to its closing brace.
+     */
+    private static String getMethod(String source, String signature) {
+        int start = source.indexOf(signature);
+        assertTrue(signature + " not found", start >= 0);
+        int depth = 0;
+        for (int i = source.indexOf('{', start); i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return source.substring(start, i + 1);
+            }
+        }
+        throw new AssertionError("unbalanced braces after " + signature);
+    }
+}
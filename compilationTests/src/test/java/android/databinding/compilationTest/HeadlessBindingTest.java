@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.compilationTest;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the bindings generated for a test application on the JVM of the test with the headless
+ * runtime.
+ */
+public class HeadlessBindingTest extends BaseCompilationTest {
+    private static final String BINDING_CLASS = DEFAULT_APP_PACKAGE + ".databinding.MainBinding";
+
+    @Test
+    public void testGeneratedBindingRunsHeadless() throws Exception {
+        prepareProject();
+        copyResourceTo("/layout/headless_layout.xml", "/app/src/main/res/layout/main.xml");
+        CompilationResult result = runGradle("assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+
+        HeadlessBindings bindings = HeadlessBindings.compile(new File(testFolder, "app"),
+                new File(testFolder, "headless"));
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "prepareThread");
+        Object context = bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME,
+                "createContext", bindings.loadClass(DEFAULT_APP_PACKAGE + ".R"),
+                bindings.getLayoutDirectory());
+        Object inflater = bindings.invokeStatic("android.view.LayoutInflater", "from", context);
+        Object binding = bindings.invokeStatic(BINDING_CLASS, "inflate", inflater);
+        Object nameView = bindings.getField(binding, "nameView");
+        Object countView = bindings.getField(binding, "countView");
+
+        bindings.invoke(binding, "setName", "hello");
+        Object count = bindings.newInstance("android.databinding.ObservableInt", 0);
+        bindings.invoke(binding, "setCount", count);
+        bindings.invoke(binding, "executePendingBindings");
+        assertEquals("hello", bindings.invoke(nameView, "getContentDescription"));
+        assertEquals("0", bindings.invoke(countView, "getContentDescription"));
+        assertEquals(8 /* View.GONE */, bindings.invoke(countView, "getVisibility"));
+
+        // observable changes are executed in the next frame while the root is attached
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "attachToWindow",
+                bindings.invoke(binding, "getRoot"));
+        bindings.invoke(count, "set", 3);
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "runUntilIdle");
+        assertFalse((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        assertEquals("3", bindings.invoke(countView, "getContentDescription"));
+        assertEquals(0 /* View.VISIBLE */, bindings.invoke(countView, "getVisibility"));
+    }
+}
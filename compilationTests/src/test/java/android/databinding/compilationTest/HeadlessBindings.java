@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.compilationTest;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles the sources generated for the debug variant of a test application against the
+ * headless runtime and loads them, so that the generated bindings can run on the JVM of the
+ * test.
+ * <p>
+ * The classes are loaded in their own ClassLoader, together with the runtime, because the
+ * generated DataBinderMapper has to replace the one of the runtime. Tests therefore use them
+ * through reflection.
+ */
+public class HeadlessBindings {
+    public static final String HEADLESS_RUNTIME = "android.databinding.headless.HeadlessRuntime";
+
+    private final File mLayoutDirectory;
+
+    private final URL[] mClassPath;
+
+    private final ClassLoader mClassLoader;
+
+    private HeadlessBindings(File layoutDirectory, URL[] classPath) {
+        mLayoutDirectory = layoutDirectory;
+        mClassPath = classPath;
+        mClassLoader = new URLClassLoader(classPath,
+                ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    /**
+     * Compiles the generated sources of an application built with assembleDebug, together with
+     * the Java sources of the application, such as its BindingAdapters.
+     *
+     * @param appFolder The folder of the application module.
+     * @param outFolder The folder to write the classes into.
+     */
+    public static HeadlessBindings compile(File appFolder, File outFolder) throws IOException {
+        final File buildFolder = new File(appFolder, "build");
+        final File generated = new File(buildFolder, "generated/source");
+        assertTrue("no generated sources in " + generated, generated.isDirectory());
+        final List<File> sources = new ArrayList<File>();
+        for (File kind : generated.listFiles()) {
+            final File debug = new File(kind, "debug");
+            if (debug.isDirectory()) {
+                sources.addAll(FileUtils.listFiles(debug, new SuffixFileFilter(".java"),
+                        TrueFileFilter.INSTANCE));
+            }
+        }
+        assertTrue("no generated sources in " + generated, !sources.isEmpty());
+        final File appSources = new File(appFolder, "src/main/java");
+        if (appSources.isDirectory()) {
+            sources.addAll(FileUtils.listFiles(appSources, new SuffixFileFilter(".java"),
+                    TrueFileFilter.INSTANCE));
+        }
+
+        FileUtils.forceMkdir(outFolder);
+        final String classPath = System.getProperty("java.class.path");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("the tests must run on a JDK", compiler);
+        final DiagnosticCollector<JavaFileObject> diagnostics =
+                new DiagnosticCollector<JavaFileObject>();
+        final StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(diagnostics, null, null);
+        // the annotation processor is on the class path of the tests, it must not run again
+        final List<String> options = Arrays.asList("-d", outFolder.getAbsolutePath(),
+                "-classpath", classPath, "-proc:none", "-nowarn");
+        final boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                fileManager.getJavaFileObjectsFromFiles(sources)).call();
+        fileManager.close();
+        if (!compiled) {
+            StringBuilder errors = new StringBuilder("generated sources do not compile:");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                errors.append('\n').append(diagnostic);
+            }
+            throw new AssertionError(errors.toString());
+        }
+
+        final List<URL> urls = new ArrayList<URL>();
+        urls.add(outFolder.toURI().toURL());
+        for (String entry : classPath.split(File.pathSeparator)) {
+            urls.add(new File(entry).toURI().toURL());
+        }
+        final File layoutDirectory = new File(buildFolder,
+                "intermediates/data-binding-layout-out/debug/layout");
+        return new HeadlessBindings(layoutDirectory, urls.toArray(new URL[urls.size()]));
+    }
+
+    /**
+     * Returns bindings that load the same classes again in a new ClassLoader, so that none of
+     * them is initialized yet.
+     */
+    public HeadlessBindings reload() {
+        return new HeadlessBindings(mLayoutDirectory, mClassPath);
+    }
+
+    /**
+     * Returns the folder containing the processed layouts of the default configuration.
+     */
+    public File getLayoutDirectory() {
+        return mLayoutDirectory;
+    }
+
+    public Class<?> loadClass(String name) throws ClassNotFoundException {
+        return Class.forName(name, true, mClassLoader);
+    }
+
+    public Object newInstance(String className, Object... args) throws Exception {
+        for (Constructor<?> constructor : loadClass(className).getConstructors()) {
+            if (accepts(constructor.getParameterTypes(), args)) {
+                try {
+                    return constructor.newInstance(args);
+                } catch (InvocationTargetException e) {
+                    throw rethrow(e);
+                }
+            }
+        }
+        throw new NoSuchMethodException(className + " constructor for " + Arrays.toString(args));
+    }
+
+    public Object invokeStatic(String className, String methodName, Object... args)
+            throws Exception {
+        return invoke(loadClass(className), null, methodName, args);
+    }
+
+    public Object invoke(Object target, String methodName, Object... args) throws Exception {
+        return invoke(target.getClass(), target, methodName, args);
+    }
+
+    public Object getField(Object target, String fieldName) throws Exception {
+        return target.getClass().getField(fieldName).get(target);
+    }
+
+    private static Object invoke(Class<?> type, Object target, String methodName, Object[] args)
+            throws Exception {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName)
+                    && Modifier.isStatic(method.getModifiers()) == (target == null)
+                    && accepts(method.getParameterTypes(), args)) {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw rethrow(e);
+                }
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + methodName + " for "
+                + Arrays.toString(args));
+    }
+
+    private static boolean accepts(Class<?>[] parameterTypes, Object[] args) {
+        if (parameterTypes.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] != null && !box(parameterTypes[i]).isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == char.class) {
+            return Character.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        }
+        return Short.class;
+    }
+
+    private static Exception rethrow(InvocationTargetException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.compilationTest;
+
+import org.junit.Test;
+
+import android.databinding.tool.GenerationOptions;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs a binding compiled with {@link GenerationOptions#MEMOIZE_SETTERS} headless and counts
+ * the calls of its BindingAdapters.
+ */
+public class MemoizeSettersTest extends BaseCompilationTest {
+    private static final String BINDING_CLASS = DEFAULT_APP_PACKAGE + ".databinding.MainBinding";
+
+    private static final String ADAPTERS_CLASS = DEFAULT_APP_PACKAGE + ".MemoizeAdapters";
+
+    @Test
+    public void testMemoizedSetters() throws Exception {
+        Map<String, String> replacements = new HashMap<String, String>();
+        replacements.put(KEY_COMPILER_ARGS,
+                "\"-A" + GenerationOptions.MEMOIZE_SETTERS + "=true\"");
+        prepareApp(replacements);
+        copyResourceTo("/layout/memoized_layout.xml", "/app/src/main/res/layout/main.xml");
+        copyResourceTo("/src/MemoizeAdapters.java", "/app/src/main/java/"
+                + DEFAULT_APP_PACKAGE.replace('.', '/') + "/MemoizeAdapters.java");
+        CompilationResult result = runGradle("assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+
+        HeadlessBindings bindings = HeadlessBindings.compile(new File(testFolder, "app"),
+                new File(testFolder, "headless"));
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "prepareThread");
+        Object context = bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME,
+                "createContext", bindings.loadClass(DEFAULT_APP_PACKAGE + ".R"),
+                bindings.getLayoutDirectory());
+        Object inflater = bindings.invokeStatic("android.view.LayoutInflater", "from", context);
+        Object binding = bindings.invokeStatic(BINDING_CLASS, "inflate", inflater);
+        Object nameView = bindings.getField(binding, "nameView");
+
+        // the first executeBindings calls the setters even though null is the initial value
+        bindings.invoke(nameView, "setContentDescription", "inflated");
+        bindings.invoke(binding, "executePendingBindings");
+        assertCalls(bindings, 1, 1, 1);
+        assertEquals(null, bindings.invoke(nameView, "getContentDescription"));
+
+        bindings.invoke(binding, "setName", "hello");
+        bindings.invoke(binding, "executePendingBindings");
+        assertCalls(bindings, 2, 2, 1);
+        assertEquals("hello", bindings.invoke(nameView, "getContentDescription"));
+
+        // an equal value skips the memoized setter, not the one taking old values
+        bindings.invoke(binding, "setName", new String("hello"));
+        assertTrue((Boolean) bindings.invoke(binding, "hasPendingBindings"));
+        bindings.invoke(binding, "executePendingBindings");
+        assertCalls(bindings, 2, 3, 1);
+
+        bindings.invoke(binding, "setName", "world");
+        bindings.invoke(binding, "executePendingBindings");
+        assertCalls(bindings, 3, 4, 1);
+        assertEquals("world", bindings.invoke(nameView, "getContentDescription"));
+
+        // observables may change without changing identity, so they are never memoized
+        Object count = bindings.newInstance("android.databinding.ObservableInt", 0);
+        bindings.invoke(binding, "setCount", count);
+        bindings.invoke(binding, "executePendingBindings");
+        assertCalls(bindings, 3, 4, 2);
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "attachToWindow",
+                bindings.invoke(binding, "getRoot"));
+        bindings.invoke(count, "set", 1);
+        bindings.invokeStatic(HeadlessBindings.HEADLESS_RUNTIME, "runUntilIdle");
+        assertCalls(bindings, 3, 4, 3);
+    }
+
+    private static void assertCalls(HeadlessBindings bindings, int counted, int oldValue,
+            int observable) throws Exception {
+        Class<?> adapters = bindings.loadClass(ADAPTERS_CLASS);
+        assertEquals(counted, adapters.getField("sCountedCalls").getInt(null));
+        assertEquals(oldValue, adapters.getField("sOldValueCalls").getInt(null));
+        assertEquals(observable, adapters.getField("sObservableCalls").getInt(null));
+    }
+}
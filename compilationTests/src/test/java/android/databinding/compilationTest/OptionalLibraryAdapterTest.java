@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.compilationTest;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the multi attribute adapters of the default adapters that take Views of optional
+ * libraries, such as the RecyclerView adapter.
+ */
+public class OptionalLibraryAdapterTest extends BaseCompilationTest {
+    private static final String ITEMS_ADAPTER =
+            "android.databinding.adapters.RecyclerViewBindingAdapter.setItems(";
+
+    @Test
+    public void testAdapterOfMissingLibraryIsSkipped() throws Exception {
+        // the app does not depend on recyclerview-v7, so the View class of the adapter cannot
+        // be found while the multi attribute setters of the TextView are resolved
+        prepareProject();
+        copyResourceTo("/layout/basic_layout.xml", "/app/src/main/res/layout/main.xml");
+        CompilationResult result = runGradle("assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+        assertFalse(readBinding("MainBinding.java").contains(ITEMS_ADAPTER));
+    }
+
+    @Test
+    public void testAdapterOfPresentLibrary() throws Exception {
+        prepareApp(toMap(KEY_DEPENDENCIES, "compile 'com.android.support:recyclerview-v7:+'"));
+        copyResourceTo("/layout/recycler_items.xml",
+                "/app/src/main/res/layout/recycler_items.xml");
+        copyResourceTo("/layout/basic_layout.xml", "/app/src/main/res/layout/recycler_item.xml");
+        CompilationResult result = runGradle("assembleDebug");
+        assertEquals(result.error, 0, result.resultCode);
+        String binding = readBinding("RecyclerItemsBinding.java");
+        assertTrue(binding, binding.contains(ITEMS_ADAPTER));
+    }
+
+    private String readBinding(String fileName) throws Exception {
+        Collection<File> files = FileUtils.listFiles(
+                new File(testFolder, "app/build/generated/source"),
+                new NameFileFilter(fileName), TrueFileFilter.INSTANCE);
+        assertEquals(files.toString(), 1, files.size());
+        return FileUtils.readFileToString(files.iterator().next());
+    }
+}
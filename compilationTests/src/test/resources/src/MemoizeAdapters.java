@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.android.databinding.compilationTest.test;
+
+import android.databinding.BindingAdapter;
+import android.databinding.ObservableInt;
+import android.view.View;
+
+/**
+ * BindingAdapters that count their calls, for tests of setter memoization.
+ */
+public class MemoizeAdapters {
+    public static int sCountedCalls;
+
+    public static int sOldValueCalls;
+
+    public static int sObservableCalls;
+
+    @BindingAdapter("counted")
+    public static void setCounted(View view, String value) {
+        sCountedCalls++;
+        view.setContentDescription(value);
+    }
+
+    @BindingAdapter("oldValue")
+    public static void setOldValue(View view, String oldValue, String value) {
+        sOldValueCalls++;
+    }
+
+    @BindingAdapter("observable")
+    public static void setObservable(View view, ObservableInt value) {
+        sObservableCalls++;
+    }
+}
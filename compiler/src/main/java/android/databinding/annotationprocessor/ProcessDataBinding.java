@@ -18,6 +18,7 @@ package android.databinding.annotationprocessor;
 
 import android.databinding.BindingBuildInfo;
 import android.databinding.tool.CompilerChef;
+import android.databinding.tool.GenerationOptions;
 import android.databinding.tool.processing.Scope;
 import android.databinding.tool.reflection.ModelAnalyzer;
 import android.databinding.tool.util.L;
@@ -131,6 +132,12 @@ public class ProcessDataBinding extends AbstractProcessor {
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         ModelAnalyzer.setProcessingEnvironment(processingEnv);
+        GenerationOptions.load(processingEnv.getOptions());
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return GenerationOptions.getSupportedOptions();
     }
 
     /**
@@ -95,6 +95,26 @@ public class BindingTarget implements LocationScopeProvider {
         return mBundle.getTag();
     }
 
+    /**
+     * @return The indexes of the Views leading from the layout root to this target, or null if
+     * they are not known at compile time.
+     */
+    public int[] getChildPath() {
+        final String childPath = mBundle.getChildPath();
+        if (childPath == null) {
+            return null;
+        }
+        if (childPath.isEmpty()) {
+            return new int[0];
+        }
+        final String[] parts = childPath.split("/");
+        final int[] path = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            path[i] = Integer.parseInt(parts[i]);
+        }
+        return path;
+    }
+
     public String getOriginalTag() {
         return mBundle.getOriginalTag();
     }
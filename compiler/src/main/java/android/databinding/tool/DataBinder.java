@@ -24,6 +24,7 @@ import android.databinding.tool.util.StringUtils;
 import android.databinding.tool.writer.CallbackWrapperWriter;
 import android.databinding.tool.writer.ComponentWriter;
 import android.databinding.tool.writer.JavaFileWriter;
+import android.databinding.tool.writer.LayoutBinderWriterKt;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -105,6 +106,39 @@ public class DataBinder {
                 Scope.exit();
             }
         }
+        if (GenerationOptions.isMemoizeSetters()) {
+            reportMemoizedSetters();
+        }
+    }
+
+    /**
+     * Prints how many setter calls of each layout are skipped when their values don't change.
+     */
+    private void reportMemoizedSetters() {
+        int setters = 0;
+        int memoized = 0;
+        for (LayoutBinder layoutBinder : mLayoutBinders) {
+            int layoutSetters = 0;
+            int layoutMemoized = 0;
+            for (BindingTarget target : layoutBinder.getBindingTargets()) {
+                if (!target.isUsed()) {
+                    continue;
+                }
+                for (Binding binding : target.getBindings()) {
+                    layoutSetters++;
+                    if (LayoutBinderWriterKt.isMemoized(binding)) {
+                        layoutMemoized++;
+                    }
+                }
+            }
+            if (layoutMemoized > 0) {
+                L.i("%s.%s: %d of %d setters skip unchanged values", layoutBinder.getPackage(),
+                        layoutBinder.getImplementationName(), layoutMemoized, layoutSetters);
+            }
+            setters += layoutSetters;
+            memoized += layoutMemoized;
+        }
+        L.i("Memoized setters: %d of %d setters skip unchanged values", memoized, setters);
     }
 
     private void writeCallbackWrappers(int minSdk) {
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.tool;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opt-in code generation modes, read from the annotation processor options
+ * (<code>-Aandroid.databinding.&lt;option&gt;=true</code>).
+ */
+public class GenerationOptions {
+    /**
+     * Generate computeBindings and applyBindings so that binding expressions can be evaluated
+     * off the UI thread. Only layouts that neither observe anything nor read Views are split.
+     */
+    public static final String SPLIT_COMPUTE_APPLY = "android.databinding.splitComputeApply";
+
+    /**
+     * Keep the dirty flags in an AtomicLongArray updated with compare-and-set instead of
+     * synchronizing on the binding.
+     */
+    public static final String ATOMIC_DIRTY_FLAGS = "android.databinding.atomicDirtyFlags";
+
+    /**
+     * Find the bound Views through child indexes computed from the layout file, falling back to
+     * the tag walk when the inflated hierarchy does not match.
+     */
+    public static final String CHILD_PATHS = "android.databinding.childPaths";
+
+    /**
+     * Keep the last value applied to each binding target and skip the setter when the new
+     * value is equal to it. <code>true</code> for all setters or a comma separated list of
+     * attributes, such as <code>android:background,android:padding</code>. Setters of
+     * observable values, of ViewStubs and of adapters taking old values are never skipped.
+     */
+    public static final String MEMOIZE_SETTERS = "android.databinding.memoizeSetters";
+
+    /**
+     * Resolve color, ColorStateList and drawable resource expressions once per Context and
+     * Configuration, sharing the results between all bindings of the Context.
+     */
+    public static final String CACHE_RESOURCES = "android.databinding.cacheResources";
+
+    private static boolean sSplitComputeApply;
+
+    private static boolean sAtomicDirtyFlags;
+
+    private static boolean sChildPaths;
+
+    private static boolean sCacheResources;
+
+    private static boolean sMemoizeAllSetters;
+
+    private static Set<String> sMemoizedAttributes = new HashSet<String>();
+
+    public static Set<String> getSupportedOptions() {
+        return new HashSet<String>(Arrays.asList(SPLIT_COMPUTE_APPLY, ATOMIC_DIRTY_FLAGS,
+                CHILD_PATHS, MEMOIZE_SETTERS, CACHE_RESOURCES));
+    }
+
+    public static void load(Map<String, String> options) {
+        sSplitComputeApply = Boolean.parseBoolean(options.get(SPLIT_COMPUTE_APPLY));
+        sAtomicDirtyFlags = Boolean.parseBoolean(options.get(ATOMIC_DIRTY_FLAGS));
+        sChildPaths = Boolean.parseBoolean(options.get(CHILD_PATHS));
+        setMemoizeSetters(options.get(MEMOIZE_SETTERS));
+        sCacheResources = Boolean.parseBoolean(options.get(CACHE_RESOURCES));
+    }
+
+    public static boolean isSplitComputeApply() {
+        return sSplitComputeApply;
+    }
+
+    public static void setSplitComputeApply(boolean splitComputeApply) {
+        sSplitComputeApply = splitComputeApply;
+    }
+
+    public static boolean isAtomicDirtyFlags() {
+        return sAtomicDirtyFlags;
+    }
+
+    public static void setAtomicDirtyFlags(boolean atomicDirtyFlags) {
+        sAtomicDirtyFlags = atomicDirtyFlags;
+    }
+
+    public static boolean isChildPaths() {
+        return sChildPaths;
+    }
+
+    public static void setChildPaths(boolean childPaths) {
+        sChildPaths = childPaths;
+    }
+
+    public static boolean isCacheResources() {
+        return sCacheResources;
+    }
+
+    public static void setCacheResources(boolean cacheResources) {
+        sCacheResources = cacheResources;
+    }
+
+    /**
+     * Returns whether the setters of some attributes are skipped when their values don't
+     * change.
+     */
+    public static boolean isMemoizeSetters() {
+        return sMemoizeAllSetters || !sMemoizedAttributes.isEmpty();
+    }
+
+    /**
+     * Returns whether the setter of attribute is skipped when its value doesn't change.
+     */
+    public static boolean isMemoizedSetter(String attribute) {
+        return sMemoizeAllSetters || sMemoizedAttributes.contains(attribute);
+    }
+
+    /**
+     * Sets the value of the {@link #MEMOIZE_SETTERS} option.
+     *
+     * @param memoizeSetters <code>true</code>, a comma separated list of attributes or
+     *                       <code>null</code>.
+     */
+    public static void setMemoizeSetters(String memoizeSetters) {
+        sMemoizeAllSetters = false;
+        sMemoizedAttributes = new HashSet<String>();
+        if (memoizeSetters == null || "false".equalsIgnoreCase(memoizeSetters.trim())) {
+            return;
+        }
+        if ("true".equalsIgnoreCase(memoizeSetters.trim())) {
+            sMemoizeAllSetters = true;
+            return;
+        }
+        for (String attribute : memoizeSetters.split(",")) {
+            attribute = attribute.trim();
+            if (!attribute.isEmpty()) {
+                sMemoizedAttributes.add(attribute);
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package android.databinding.tool.expr;
 
 import android.databinding.tool.BindingTarget;
+import android.databinding.tool.GenerationOptions;
 import android.databinding.tool.reflection.ModelAnalyzer;
 import android.databinding.tool.reflection.ModelClass;
 import android.databinding.tool.writer.KCode;
@@ -171,6 +172,11 @@ public class ResourceExpr extends Expr {
                 "getRoot()";
         final String resources = viewName + ".getResources()";
         final String resourceName = mPackage + "R." + getResourceObject() + "." + mResourceId;
+        if (GenerationOptions.isCacheResources()) {
+            if ("color".equals(mResourceType)) return "getCachedColor(" + viewName + ", " + resourceName + ")";
+            if ("colorStateList".equals(mResourceType)) return "getCachedColorStateList(" + viewName + ", " + resourceName + ")";
+            if ("drawable".equals(mResourceType)) return "getCachedDrawable(" + viewName + ", " + resourceName + ")";
+        }
         if ("anim".equals(mResourceType)) return "android.view.animation.AnimationUtils.loadAnimation(" + context + ", " + resourceName + ")";
         if ("animator".equals(mResourceType)) return "android.animation.AnimatorInflater.loadAnimator(" + context + ", " + resourceName + ")";
         if ("bool".equals(mResourceType)) return resources + ".getBoolean(" + resourceName + ")";
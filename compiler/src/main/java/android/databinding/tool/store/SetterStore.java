@@ -581,6 +581,10 @@ public class SetterStore {
                 continue;
             }
             ModelClass viewClass = mClassAnalyzer.findClass(adapter.viewType, null);
+            if (viewClass == null) {
+                // adapters of optional libraries, such as RecyclerView, that are not used
+                continue;
+            }
             if (viewClass.isGeneric()) {
                 viewClass = viewClass.erasure();
             }
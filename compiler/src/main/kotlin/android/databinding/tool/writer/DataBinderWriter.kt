@@ -15,8 +15,23 @@ package android.databinding.tool.writer
 
 import android.databinding.tool.LayoutBinder
 
+/**
+ * Writes the DataBinderMapper of the app. The code that creates the bindings of each module is
+ * kept in a nested class per module package, so only the classes of the modules whose layouts
+ * are bound are loaded and verified. The mapper itself only dispatches layout ids to them, and
+ * the BR names are loaded on the first convertBrIdToString call.
+ */
 class DataBinderWriter(val pkg: String, val projectPackage: String, val className: String,
         val layoutBinders : List<LayoutBinder>, val minSdk : kotlin.Int) {
+    /**
+     * The layout binders of each layout name, grouped by the package of the module of the
+     * layout and sorted so that the output is stable.
+     */
+    val modules = layoutBinders.groupBy { it.layoutname }.values
+            .groupBy { it[0].modulePackage }.toSortedMap()
+
+    fun moduleMapperName(modulePackage : String) = "Mapper_${modulePackage.replace('.', '_')}"
+
     fun write(brWriter : BRWriter) = kcode("") {
         nl("package $pkg;")
         nl("import $projectPackage.BR;")
@@ -28,61 +43,39 @@ class DataBinderWriter(val pkg: String, val projectPackage: String, val classNam
             nl("")
             block("public android.databinding.ViewDataBinding getDataBinder(android.databinding.DataBindingComponent bindingComponent, android.view.View view, int layoutId)") {
                 block("switch(layoutId)") {
-                    layoutBinders.groupBy{it.layoutname }.forEach {
-                        val firstVal = it.value[0]
-                        tab("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:") {
-                            if (it.value.size == 1) {
-                                if (firstVal.isMerge) {
-                                    tab("return new ${firstVal.`package`}.${firstVal.implementationName}(bindingComponent, new android.view.View[]{view});")
-                                } else {
-                                    tab("return ${firstVal.`package`}.${firstVal.implementationName}.bind(view, bindingComponent);")
-                                }
-                            } else {
-                                // we should check the tag to decide which layout we need to inflate
-                                block("") {
-                                    tab("final Object tag = view.getTag();")
-                                    tab("if(tag == null) throw new java.lang.RuntimeException(\"view must have a tag\");")
-                                    it.value.forEach {
-                                        block("if (\"${it.tag}_0\".equals(tag))") {
-                                            if (it.isMerge) {
-                                                tab("return new ${it.`package`}.${it.implementationName}(bindingComponent, new android.view.View[]{view});")
-                                            } else {
-                                                tab("return new ${it.`package`}.${it.implementationName}(bindingComponent, view);")
-                                            }
-                                        }
-                                    }
-                                    tab("throw new java.lang.IllegalArgumentException(\"The tag for ${firstVal.layoutname} is invalid. Received: \" + tag);");
-                                }
-                            }
-
+                    modules.forEach {
+                        val mapperName = moduleMapperName(it.key)
+                        it.value.forEach {
+                            val firstVal = it[0]
+                            tab("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:")
                         }
+                        tab("    return $mapperName.getDataBinder(bindingComponent, view, layoutId);")
                     }
                 }
                 nl("return null;")
             }
             block("android.databinding.ViewDataBinding getDataBinder(android.databinding.DataBindingComponent bindingComponent, android.view.View[] views, int layoutId)") {
                 block("switch(layoutId)") {
-                    layoutBinders.filter{it.isMerge }.groupBy{it.layoutname }.forEach {
-                        val firstVal = it.value[0]
-                        block("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:") {
-                            if (it.value.size == 1) {
-                                tab("return new ${firstVal.`package`}.${firstVal.implementationName}(bindingComponent, views);")
-                            } else {
-                                // we should check the tag to decide which layout we need to inflate
-                                nl("final Object tag = views[0].getTag();")
-                                nl("if(tag == null) throw new java.lang.RuntimeException(\"view must have a tag\");")
-                                it.value.forEach {
-                                    block("if (\"${it.tag}_0\".equals(tag))") {
-                                        nl("return new ${it.`package`}.${it.implementationName}(bindingComponent, views);")
-                                    }
-                                }
-                            }
+                    modules.forEach {
+                        val mapperName = moduleMapperName(it.key)
+                        val mergeLayouts = it.value.filter { it.any { it.isMerge } }
+                        mergeLayouts.forEach {
+                            val firstVal = it[0]
+                            tab("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:")
+                        }
+                        if (mergeLayouts.isNotEmpty()) {
+                            tab("    return $mapperName.getDataBinder(bindingComponent, views, layoutId);")
                         }
                     }
                 }
                 nl("return null;")
             }
 
+            modules.forEach {
+                nl("")
+                nl(writeModuleMapper(moduleMapperName(it.key), it.value))
+            }
+
             block("int getLayoutId(String tag)") {
                 block("if (tag == null)") {
                     nl("return 0;");
@@ -122,4 +115,71 @@ class DataBinderWriter(val pkg: String, val projectPackage: String, val classNam
             }
         }
     }.generate()
-}
\ No newline at end of file
+
+    /**
+     * Writes the class creating the bindings of the layouts of one module.
+     */
+    fun writeModuleMapper(mapperName : String, layouts : List<List<LayoutBinder>>) = kcode("") {
+        block("private static class $mapperName") {
+            block("static android.databinding.ViewDataBinding getDataBinder(android.databinding.DataBindingComponent bindingComponent, android.view.View view, int layoutId)") {
+                block("switch(layoutId)") {
+                    layouts.forEach {
+                        val firstVal = it[0]
+                        tab("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:") {
+                            if (it.size == 1) {
+                                if (firstVal.isMerge) {
+                                    tab("return new ${firstVal.`package`}.${firstVal.implementationName}(bindingComponent, new android.view.View[]{view});")
+                                } else {
+                                    tab("return ${firstVal.`package`}.${firstVal.implementationName}.bind(view, bindingComponent);")
+                                }
+                            } else {
+                                // we should check the tag to decide which layout we need to inflate
+                                block("") {
+                                    tab("final Object tag = view.getTag();")
+                                    tab("if(tag == null) throw new java.lang.RuntimeException(\"view must have a tag\");")
+                                    it.forEach {
+                                        block("if (\"${it.tag}_0\".equals(tag))") {
+                                            if (it.isMerge) {
+                                                tab("return new ${it.`package`}.${it.implementationName}(bindingComponent, new android.view.View[]{view});")
+                                            } else {
+                                                tab("return new ${it.`package`}.${it.implementationName}(bindingComponent, view);")
+                                            }
+                                        }
+                                    }
+                                    tab("throw new java.lang.IllegalArgumentException(\"The tag for ${firstVal.layoutname} is invalid. Received: \" + tag);");
+                                }
+                            }
+
+                        }
+                    }
+                }
+                nl("return null;")
+            }
+            val mergeLayouts = layouts.map { it.filter { it.isMerge } }.filter { it.isNotEmpty() }
+            if (mergeLayouts.isNotEmpty()) {
+                block("static android.databinding.ViewDataBinding getDataBinder(android.databinding.DataBindingComponent bindingComponent, android.view.View[] views, int layoutId)") {
+                    block("switch(layoutId)") {
+                        mergeLayouts.forEach {
+                            val firstVal = it[0]
+                            block("case ${firstVal.modulePackage}.R.layout.${firstVal.layoutname}:") {
+                                if (it.size == 1) {
+                                    tab("return new ${firstVal.`package`}.${firstVal.implementationName}(bindingComponent, views);")
+                                } else {
+                                    // we should check the tag to decide which layout we need to inflate
+                                    nl("final Object tag = views[0].getTag();")
+                                    nl("if(tag == null) throw new java.lang.RuntimeException(\"view must have a tag\");")
+                                    it.forEach {
+                                        block("if (\"${it.tag}_0\".equals(tag))") {
+                                            nl("return new ${it.`package`}.${it.implementationName}(bindingComponent, views);")
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    nl("return null;")
+                }
+            }
+        }
+    }
+}
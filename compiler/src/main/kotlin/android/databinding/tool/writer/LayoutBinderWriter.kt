@@ -16,16 +16,22 @@ package android.databinding.tool.writer
 import android.databinding.tool.Binding
 import android.databinding.tool.BindingTarget
 import android.databinding.tool.CallbackWrapper
+import android.databinding.tool.GenerationOptions
 import android.databinding.tool.InverseBinding
 import android.databinding.tool.LayoutBinder
+import android.databinding.tool.MergedBinding
+import android.databinding.tool.expr.BuiltInVariableExpr
 import android.databinding.tool.expr.Expr
 import android.databinding.tool.expr.ExprModel
 import android.databinding.tool.expr.FieldAccessExpr
 import android.databinding.tool.expr.IdentifierExpr
 import android.databinding.tool.expr.LambdaExpr
 import android.databinding.tool.expr.ListenerExpr
+import android.databinding.tool.expr.MethodReferenceExpr
 import android.databinding.tool.expr.ResourceExpr
 import android.databinding.tool.expr.TernaryExpr
+import android.databinding.tool.expr.TwoWayListenerExpr
+import android.databinding.tool.expr.ViewFieldExpr
 import android.databinding.tool.expr.localizeGlobalVariables
 import android.databinding.tool.expr.shouldLocalizeInCallbacks
 import android.databinding.tool.expr.toCode
@@ -257,6 +263,40 @@ fun Binding.toAssignmentCode() : String {
     return this.toJavaCode(fieldName, "this.mBindingComponent")
 }
 
+/**
+ * Whether the setter of this binding is skipped when its values equal the last applied ones,
+ * as requested by the memoizeSetters option. Observable values may change without changing
+ * identity, so their setters are always called.
+ */
+fun Binding.isMemoized() : Boolean {
+    if (requiresOldValue() || target.resolvedType?.extendsViewStub() ?: false) {
+        return false
+    }
+    val attributes = if (this is MergedBinding) this.attributes.toList() else listOf(name)
+    return attributes.all { GenerationOptions.isMemoizedSetter(it) } &&
+            componentExpressions.none { it.isObservable }
+}
+
+/**
+ * Whether the values of this binding are kept in the oldValueName fields.
+ */
+fun Binding.keepsOldValues() = requiresOldValue() || isMemoized()
+
+/**
+ * The condition under which a memoized setter is called: before the first apply or when one
+ * of its values differs from the last applied one.
+ */
+fun Binding.changedValueCondition(appliedFieldName : String) : String =
+        "!this.$appliedFieldName || " + componentExpressions.map { expr ->
+            val value = expr.toCode().generate()
+            val old = "this.${expr.oldValueName}"
+            if (expr.resolvedType.isPrimitive) {
+                "$old != $value"
+            } else {
+                "($old == null ? $value != null : !$old.equals($value))"
+            }
+        }.joinToString(" || ")
+
 val LayoutBinder.requiredComponent by lazyProp { layoutBinder: LayoutBinder ->
     val requiredFromBindings = layoutBinder.
             bindingTargets.
@@ -327,12 +367,136 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
 
     val className = layoutBinder.implementationName
 
+    val atomicDirtyFlags = GenerationOptions.isAtomicDirtyFlags()
+
+    val hasMemoizedBindings by lazy {
+        layoutBinder.sortedTargets.filter { it.isUsed }.flatMap { it.bindings }
+                .any { it.isMemoized() }
+    }
+
+    /**
+     * Set once the memoized setters have been called, so that the first executeBindings calls
+     * them even when the values equal the defaults of the old value fields.
+     */
+    val valuesAppliedFieldName by lazy {
+        model.getUniqueFieldName("mValuesApplied", false)
+    }
+
+    /**
+     * The used targets if all of them can be found through child indexes, otherwise null.
+     * Included layouts are always found with the tag walk as they may be merge layouts.
+     */
+    val childPathTargets by lazy {
+        val targets = layoutBinder.bindingTargets.filter { it.isUsed }
+        if (!GenerationOptions.isChildPaths() || layoutBinder.isMerge || targets.any {
+            it.isBinder || it.childPath == null || (it.id == null && (it.tag == null || !it.supportsTag()))
+        }) {
+            null
+        } else {
+            targets
+        }
+    }
+
+    /**
+     * Whether all expressions can be evaluated by computeBindings off the UI thread. Reading
+     * observables registers listeners and their values may change on the UI thread, so layouts
+     * that observe anything, read Views, resources or the context, or create listeners,
+     * evaluate their expressions in executeBindings on the UI thread instead.
+     */
+    val canComputeOffThread by lazy {
+        val canCompute = model.exprMap.values.none {
+            it.isObservable || it is ViewFieldExpr || it is ResourceExpr ||
+                    it is BuiltInVariableExpr || it is ListenerExpr || it is LambdaExpr ||
+                    it is MethodReferenceExpr || it is TwoWayListenerExpr
+        }
+        if (!canCompute) {
+            L.d("%s reads observables or Views, it is not computed off the UI thread", className)
+        }
+        canCompute
+    }
+
+    val hasIncludes by lazy {
+        layoutBinder.bindingTargets.any { it.isUsed && it.isBinder }
+    }
+
+    val viewsWithIds by lazy {
+        layoutBinder.bindingTargets.filter {
+            it.isUsed && !it.isBinder && (!it.supportsTag() || (it.id != null && it.tag == null))
+        }
+    }
+
+    /**
+     * The table arguments of mapBindings. Empty tables are passed as null instead of being
+     * declared.
+     */
+    val mapBindingsTables by lazy {
+        val includes = if (hasIncludes) "sIncludes" else "null"
+        val ids = if (viewsWithIds.isEmpty()) "null" else "sViewsWithIds"
+        val childPaths = if (childPathTargets == null) "" else ", sChildPaths"
+        "$includes, $ids$childPaths"
+    }
+
+    /**
+     * Wraps updates of mDirtyFlags in synchronized(this) unless they are kept in an
+     * AtomicLongArray.
+     */
+    fun KCode.updateDirtyFlags(init : KCode.() -> Unit) {
+        if (atomicDirtyFlags) {
+            init()
+        } else {
+            block("synchronized(this)", init)
+        }
+    }
+
+    fun getDirtyFlags(index : Int) = if (atomicDirtyFlags) {
+        "${mDirtyFlags.localName}.get($index)"
+    } else {
+        mDirtyFlags.localValue(index)
+    }
+
+    fun setDirtyFlags(index : Int, value : String) = if (atomicDirtyFlags) {
+        "${mDirtyFlags.localName}.set($index, $value);"
+    } else {
+        "${mDirtyFlags.localValue(index)} = $value;"
+    }
+
+    fun orDirtyFlags(index : Int, value : String) = if (atomicDirtyFlags) {
+        "orDirtyFlags(${mDirtyFlags.localName}, $index, $value);"
+    } else {
+        "${mDirtyFlags.localValue(index)} |= $value;"
+    }
+
+    /**
+     * Copies bucket index of mDirtyFlags into tmpDirtyFlags and clears it.
+     */
+    fun KCode.takeDirtyFlags(tmpDirtyFlags : FlagSet, index : Int) {
+        if (atomicDirtyFlags) {
+            nl("${tmpDirtyFlags.localValue(index)} = ${mDirtyFlags.localName}.getAndSet($index, 0);")
+        } else {
+            nl("${tmpDirtyFlags.localValue(index)} = ${mDirtyFlags.localValue(index)};")
+            nl("${mDirtyFlags.localValue(index)} = 0;")
+        }
+    }
+
     val baseClassName = "${layoutBinder.className}"
 
     val includedBinders by lazy {
         layoutBinder.bindingTargets.filter { it.isBinder }
     }
 
+    val viewStubs by lazy {
+        layoutBinder.sortedTargets.filter {
+            it.isUsed && it.resolvedType != null && it.resolvedType.extendsViewStub()
+        }
+    }
+
+    /**
+     * Whether the layout has included bindings or ViewStubs that may inflate a binding.
+     */
+    val hasContainedBindings by lazy {
+        includedBinders.any { it.isUsed } || viewStubs.isNotEmpty()
+    }
+
     val variables by lazy {
         model.exprMap.values.filterIsInstance(IdentifierExpr::class.java).filter { it.isVariable() }
     }
@@ -373,13 +537,21 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                 }
                 nl(declareConstructor(minSdk))
                 nl(declareInvalidateAll())
+                nl(declareInvalidateViewStub())
+                nl(declareRecycleContainedBindings())
                 nl(declareHasPendingBindings())
+                nl(declareHasPendingContainedBindings())
                 nl(declareSetVariable())
+                nl(declareSetVariables())
                 nl(variableSettersAndGetters())
                 nl(onFieldChange())
                 try {
                     Scope.enter(Scope.GLOBAL)
-                    nl(executePendingBindings())
+                    if (GenerationOptions.isSplitComputeApply() && canComputeOffThread) {
+                        nl(executePendingBindingsInPhases())
+                    } else {
+                        nl(executePendingBindings())
+                    }
                 } finally {
                     Scope.exit()
                 }
@@ -424,13 +596,20 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         }
     }
     fun declareIncludeViews() = kcode("") {
-        nl("private static final android.databinding.ViewDataBinding.IncludedLayouts sIncludes;")
-        nl("private static final android.util.SparseIntArray sViewsWithIds;")
+        if (!hasIncludes && viewsWithIds.isEmpty() && childPathTargets == null) {
+            return@kcode
+        }
+        if (hasIncludes) {
+            nl("private static final android.databinding.ViewDataBinding.IncludedLayouts sIncludes;")
+        }
+        if (viewsWithIds.isNotEmpty()) {
+            nl("private static final android.util.SparseIntArray sViewsWithIds;")
+        }
+        if (childPathTargets != null) {
+            nl("private static final android.databinding.ViewDataBinding.ChildPaths sChildPaths;")
+        }
         nl("static {") {
-            val hasBinders = layoutBinder.bindingTargets.firstOrNull{ it.isUsed && it.isBinder } != null
-            if (!hasBinders) {
-                tab("sIncludes = null;")
-            } else {
+            if (hasIncludes) {
                 val numBindings = layoutBinder.bindingTargets.filter{ it.isUsed }.count()
                 tab("sIncludes = new android.databinding.ViewDataBinding.IncludedLayouts($numBindings);")
                 val includeMap = HashMap<BindingTarget, ArrayList<BindingTarget>>()
@@ -468,17 +647,20 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                     }
                 }
             }
-            val viewsWithIds = layoutBinder.bindingTargets.filter {
-                it.isUsed && !it.isBinder && (!it.supportsTag() || (it.id != null && it.tag == null))
-            }
-            if (viewsWithIds.isEmpty()) {
-                tab("sViewsWithIds = null;")
-            } else {
+            if (viewsWithIds.isNotEmpty()) {
                 tab("sViewsWithIds = new android.util.SparseIntArray();")
                 viewsWithIds.forEach {
                     tab("sViewsWithIds.put(${it.androidId}, ${indices[it]});")
                 }
             }
+            childPathTargets?.let { targets ->
+                tab("sChildPaths = new android.databinding.ViewDataBinding.ChildPaths(${maxIndex() + 1});")
+                targets.forEach {
+                    val path = it.childPath.joinToString(", ")
+                    val check = if (it.tag != null && it.supportsTag()) "\"${it.tag}\", 0" else "null, ${it.androidId}"
+                    tab("sChildPaths.setPath(${indices[it]}, new int[] {$path}, $check);")
+                }
+            }
         }
         nl("}")
     }
@@ -507,7 +689,7 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         if (layoutBinder.hasVariations()) {
             nl("")
             nl("public $className(android.databinding.DataBindingComponent bindingComponent, $parameterType root) {") {
-                tab("this(bindingComponent, $superParam, mapBindings(bindingComponent, root, $bindingCount, sIncludes, sViewsWithIds));")
+                tab("this(bindingComponent, $superParam, mapBindings(bindingComponent, root, $bindingCount, $mapBindingsTables));")
             }
             nl("}")
             nl("private $className(android.databinding.DataBindingComponent bindingComponent, $parameterType root, Object[] bindings) {") {
@@ -521,7 +703,7 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         } else {
             nl("public $baseClassName(android.databinding.DataBindingComponent bindingComponent, $parameterType root) {") {
                 tab("super(bindingComponent, $superParam, ${model.observables.size});")
-                tab("final Object[] bindings = mapBindings(bindingComponent, root, $bindingCount, sIncludes, sViewsWithIds);")
+                tab("final Object[] bindings = mapBindings(bindingComponent, root, $bindingCount, $mapBindingsTables);")
             }
         }
         if (layoutBinder.requiredComponent != null) {
@@ -532,7 +714,9 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
             if (!layoutBinder.hasVariations() || it.id == null) {
                 tab("this.${it.fieldName} = ${fieldConversion(it)};")
             }
-            if (!it.isBinder) {
+            if (it.isBinder) {
+                tab("setContainedBinding(this.${it.fieldName});")
+            } else {
                 if (it.resolvedType != null && it.resolvedType.extendsViewStub()) {
                     tab("this.${it.fieldName}.setContainingBinding(this);")
                 }
@@ -645,9 +829,9 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         block("public void invalidateAll()") {
             val fs = FlagSet(layoutBinder.model.invalidateAnyBitSet,
                     layoutBinder.model.flagBucketCount);
-            block("synchronized(this)") {
+            updateDirtyFlags {
                 for (i in (0..(mDirtyFlags.buckets.size - 1))) {
-                    tab("${mDirtyFlags.localValue(i)} = ${fs.localValue(i)};")
+                    tab(setDirtyFlags(i, fs.localValue(i)))
                 }
             }
             includedBinders.filter{it.isUsed }.forEach { binder ->
@@ -657,30 +841,112 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         }
     }
 
+    /**
+     * The flags of the variables and observables that the expressions bound on a ViewStub
+     * depend on. Setting them re-evaluates those expressions without invalidating the rest of
+     * the layout.
+     */
+    fun viewStubInvalidateFlags(viewStub : BindingTarget) : FlagSet {
+        val bits = BitSet()
+        viewStub.bindings.forEach { bits.or(it.expr.invalidFlags) }
+        bits.clear(model.invalidateAnyFlagIndex)
+        return FlagSet(bits, model.flagBucketCount)
+    }
+
+    fun declareInvalidateViewStub() = kcode("") {
+        if (viewStubs.isNotEmpty()) {
+            nl("@Override")
+            block("protected void invalidateViewStub(android.databinding.ViewStubProxy viewStub)") {
+                viewStubs.map { Pair(it, viewStubInvalidateFlags(it)) }
+                        .filter { !it.second.isEmpty }
+                        .forEachIndexed { i, pair ->
+                    val (viewStub, flagSet) = pair
+                    val condition = "if (viewStub == this.${viewStub.fieldName})"
+                    block(if (i == 0) condition else "else $condition") {
+                        updateDirtyFlags {
+                            for (index in 0..(flagSet.buckets.size - 1)) {
+                                if (flagSet.buckets[index] != 0L) {
+                                    nl(orDirtyFlags(index, flagSet.localValue(index)))
+                                }
+                            }
+                        }
+                    }
+                }
+                nl("requestRebind();")
+            }
+        }
+    }
+
+    fun declareRecycleContainedBindings() = kcode("") {
+        if (includedBinders.isNotEmpty() || viewStubs.isNotEmpty()) {
+            nl("@Override")
+            block("protected void recycleContainedBindings()") {
+                includedBinders.forEach { binder ->
+                    nl("${binder.fieldName}.recycle();")
+                }
+                viewStubs.forEach {
+                    block("if (${it.fieldName}.getBinding() != null)") {
+                        nl("${it.fieldName}.getBinding().recycle();")
+                    }
+                }
+            }
+        }
+    }
+
     fun declareHasPendingBindings()  = kcode("") {
         nl("@Override")
         nl("public boolean hasPendingBindings() {") {
-            if (mDirtyFlags.buckets.size > 0) {
-                tab("synchronized(this) {") {
-                    val flagCheck = 0.rangeTo(mDirtyFlags.buckets.size - 1).map {
-                            "${mDirtyFlags.localValue(it)} != 0"
-                    }.joinToString(" || ")
-                    tab("if ($flagCheck) {") {
-                        tab("return true;")
+            tab(returnIfDirty())
+            if (hasContainedBindings) {
+                // contained bindings mark this binding when they become dirty
+                tab("return hasPendingChildren();")
+            } else {
+                tab("return false;")
+            }
+        }
+        nl("}")
+    }
+
+    /**
+     * Returns true from the generated method when any dirty flag of this binding is set.
+     */
+    fun returnIfDirty() = kcode("") {
+        if (mDirtyFlags.buckets.size > 0) {
+            val flagCheck = 0.rangeTo(mDirtyFlags.buckets.size - 1).map {
+                    "${getDirtyFlags(it)} != 0"
+            }.joinToString(" || ")
+            if (atomicDirtyFlags) {
+                block("if ($flagCheck)") {
+                    nl("return true;")
+                }
+            } else {
+                block("synchronized(this)") {
+                    block("if ($flagCheck)") {
+                        nl("return true;")
                     }
-                    tab("}")
                 }
-                tab("}")
             }
-            includedBinders.filter{it.isUsed }.forEach { binder ->
-                tab("if (${binder.fieldName}.hasPendingBindings()) {") {
-                    tab("return true;")
+        }
+    }
+
+    fun declareHasPendingContainedBindings() = kcode("") {
+        if (hasContainedBindings) {
+            nl("@Override")
+            block("protected boolean hasPendingContainedBindings()") {
+                includedBinders.filter { it.isUsed }.forEach { binder ->
+                    block("if (${binder.fieldName}.hasPendingBindings())") {
+                        nl("return true;")
+                    }
                 }
-                tab("}")
+                viewStubs.forEach {
+                    val binding = "${it.fieldName}.getBinding()"
+                    block("if ($binding != null && $binding.hasPendingBindings())") {
+                        nl("return true;")
+                    }
+                }
+                nl("return false;")
             }
-            tab("return false;")
         }
-        nl("}")
     }
 
     fun declareSetVariable() = kcode("") {
@@ -707,6 +973,63 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
         nl("}")
     }
 
+    /**
+     * Sets several variables with one update of mDirtyFlags, one property change notification
+     * and one rebind request. Registrations are done before taking the lock, like in the
+     * setters, as observables notify while holding their own lock.
+     */
+    fun declareSetVariables() = kcode("") {
+        val setVariables = usedVariables.filter { it.userDefinedType != null }
+        if (!setVariables.isEmpty()) {
+            val bucketCount = mDirtyFlags.buckets.size
+            nl("@Override")
+            block("public boolean setVariables(int[] variableIds, Object[] values)") {
+                nl("checkVariables(variableIds, values);")
+                for (i in 0..(bucketCount - 1)) {
+                    nl("long variableDirtyFlags${getWordSuffix(i)} = 0;")
+                }
+                nl("boolean allVariables = true;")
+                block("for (int i = 0; i < variableIds.length; i++)") {
+                    block("switch (variableIds[i])") {
+                        setVariables.forEach {
+                            val type = it.resolvedType.toJavaCode()
+                            nl("case ${it.name.br()} :") {
+                                if (it.isObservable) {
+                                    tab("updateRegistration(${it.id}, ($type) values[i]);")
+                                }
+                                tab("this.${it.fieldName} = ($type) values[i];")
+                                val flagSet = it.invalidateFlagSet
+                                mDirtyFlags.mapOr(flagSet) { suffix, index ->
+                                    tab("variableDirtyFlags$suffix |= ${flagSet.localValue(index)};")
+                                }
+                                tab("break;")
+                            }
+                        }
+                        variables.filter { !setVariables.contains(it) && it.isDeclared }.forEach {
+                            nl("case ${it.name.br()} :") {
+                                tab("break;")
+                            }
+                        }
+                        nl("default:") {
+                            tab("allVariables = false;")
+                        }
+                    }
+                }
+                updateDirtyFlags {
+                    for (i in 0..(bucketCount - 1)) {
+                        nl(orDirtyFlags(i, "variableDirtyFlags${getWordSuffix(i)}"))
+                    }
+                }
+                // TODO: Remove this condition after releasing version 1.1 of SDK
+                if (ModelAnalyzer.getInstance().findClass("android.databinding.ViewDataBinding", null).isObservable) {
+                    nl("notifyChange();")
+                }
+                nl("super.requestRebind();")
+                nl("return allVariables;")
+            }
+        }
+    }
+
     fun variableSettersAndGetters() = kcode("") {
         variables.filterNot{ usedVariables.contains(it) }.forEach {
             nl("public void ${it.setterName}(${it.resolvedType.toJavaCode()} ${it.readableName}) {") {
@@ -728,9 +1051,9 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                     nl("this.${it.fieldName} = ${it.readableName};")
                     // set dirty flags!
                     val flagSet = it.invalidateFlagSet
-                    block("synchronized(this)") {
+                    updateDirtyFlags {
                         mDirtyFlags.mapOr(flagSet) { suffix, index ->
-                            nl("${mDirtyFlags.localName}$suffix |= ${flagSet.localValue(index)};")
+                            nl(orDirtyFlags(index, flagSet.localValue(index)))
                         }
                     }
                     // TODO: Remove this condition after releasing version 1.1 of SDK
@@ -774,11 +1097,11 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                                 // we are not yet able to merge them. This is why we merge their
                                 // flags below.
                                 block("case ${it.key}:") {
-                                    block("synchronized(this)") {
+                                    updateDirtyFlags {
                                         val flagSet = it.value.foldRight(FlagSet()) { l, r -> l.invalidateFlagSet.or(r) }
 
                                         mDirtyFlags.mapOr(flagSet) { suffix, index ->
-                                            tab("${mDirtyFlags.localValue(index)} |= ${flagSet.localValue(index)};")
+                                            tab(orDirtyFlags(index, flagSet.localValue(index)))
                                         }
                                     }
                                     nl("return true;")
@@ -787,9 +1110,9 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                             }
                     block("case ${"".br()}:") {
                         val flagSet = it.invalidateFlagSet
-                        block("synchronized(this)") {
+                        updateDirtyFlags {
                             mDirtyFlags.mapOr(flagSet) { suffix, index ->
-                                tab("${mDirtyFlags.localName}$suffix |= ${flagSet.localValue(index)};")
+                                tab(orDirtyFlags(index, flagSet.localValue(index)))
                             }
                         }
                         nl("return true;")
@@ -827,13 +1150,16 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
     fun declareBoundValues() = kcode("// values") {
         layoutBinder.sortedTargets.filter { it.isUsed }
                 .flatMap { it.bindings }
-                .filter { it.requiresOldValue() }
+                .filter { it.keepsOldValues() }
                 .flatMap{ it.componentExpressions.toList() }
                 .groupBy { it }
                 .forEach {
                     val expr = it.key
                     nl("private ${expr.resolvedType.toJavaCode()} ${expr.oldValueName};")
                 }
+        if (hasMemoizedBindings) {
+            nl("private boolean $valuesAppliedFieldName;")
+        }
     }
 
     fun declareListeners() = kcode("// listeners") {
@@ -869,12 +1195,12 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
                             nl(inverseBinding.callbackExprModel.localizeGlobalVariables(valueExpr))
                             nl(inverseBinding.executionPath.toCode())
                         } else {
-                            block("synchronized(this)") {
+                            updateDirtyFlags {
                                 val flagSet = inverseBinding.chainedExpressions.fold(FlagSet(), { initial, expr ->
                                     initial.or(FlagSet(expr.id))
                                 })
                                 mDirtyFlags.mapOr(flagSet) { suffix, index ->
-                                    tab("${mDirtyFlags.localValue(index)} |= ${flagSet.binaryCode(index)};")
+                                    tab(orDirtyFlags(index, flagSet.binaryCode(index)))
                                 }
                             }
                             nl("requestRebind();")
@@ -886,6 +1212,12 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
     }
     fun declareDirtyFlags() = kcode("// dirty flag") {
         model.ext.localizedFlags.forEach { flag ->
+            if (atomicDirtyFlags && flag === mDirtyFlags) {
+                val initialValues = flag.buckets.map { longToBinary(it) }.joinToString(", ")
+                nl("private final java.util.concurrent.atomic.AtomicLongArray ${flag.localName} =")
+                app(" ", "new java.util.concurrent.atomic.AtomicLongArray(new long[] {$initialValues});")
+                return@forEach
+            }
             flag.notEmpty { suffix, value ->
                 nl("private")
                 app(" ", if(flag.isDynamic) null else "static final");
@@ -912,89 +1244,196 @@ class LayoutBinderWriter(val layoutBinder : LayoutBinder) {
             for (i in (0..mDirtyFlags.buckets.size - 1)) {
                 nl("${tmpDirtyFlags.type} ${tmpDirtyFlags.localValue(i)} = 0;")
             }
-            block("synchronized(this)") {
+            updateDirtyFlags {
                 for (i in (0..mDirtyFlags.buckets.size - 1)) {
-                    nl("${tmpDirtyFlags.localValue(i)} = ${mDirtyFlags.localValue(i)};")
-                    nl("${mDirtyFlags.localValue(i)} = 0;")
+                    takeDirtyFlags(tmpDirtyFlags, i)
                 }
             }
             model.pendingExpressions.filter { it.needsLocalField }.forEach {
                 nl("${it.resolvedType.toJavaCode()} ${it.executePendingLocalName} = ${if (it.isVariable()) it.fieldName else it.defaultValue};")
             }
-            L.d("writing executePendingBindings for %s", className)
-            do {
-                val batch = ExprModel.filterShouldRead(model.pendingExpressions)
-                val justRead = arrayListOf<Expr>()
-                L.d("batch: %s", batch)
-                while (!batch.none()) {
-                    val readNow = batch.filter { it.shouldReadNow(justRead) }
-                    if (readNow.isEmpty()) {
-                        throw IllegalStateException("do not know what I can read. bailing out ${batch.joinToString("\n")}")
-                    }
-                    L.d("new read now. batch size: %d, readNow size: %d", batch.size, readNow.size)
-                    nl(readWithDependants(readNow, justRead, batch, tmpDirtyFlags))
-                    batch.removeAll(justRead)
+            nl(readPendingExpressions(tmpDirtyFlags))
+            nl(applyPendingBindings(tmpDirtyFlags))
+        }
+    }
+
+    /**
+     * Same as executePendingBindings but split in a computeBindings method that takes the dirty
+     * flags and evaluates the expressions into a Snapshot and an applyBindings method that calls
+     * the setters with the values of the Snapshot. executeBindings runs both phases on the
+     * calling thread. restoreBindings puts back the dirty flags of a dropped Snapshot.
+     */
+    fun executePendingBindingsInPhases() = kcode("") {
+        val tmpDirtyFlags = FlagSet(mDirtyFlags.buckets)
+        tmpDirtyFlags.localName = "dirtyFlags";
+        val snapshot = model.ext.getUniqueName("snapshot", Scope.EXECUTE_PENDING_METHOD, false)
+        val bindingSnapshot = model.ext.getUniqueName("bindingSnapshot",
+                Scope.EXECUTE_PENDING_METHOD, false)
+        val localExpressions = model.pendingExpressions.filter { it.needsLocalField }
+        nl("@Override")
+        block("protected void executeBindings()") {
+            nl("final android.databinding.ViewDataBinding.BindingSnapshot $snapshot = computeBindings();")
+            nl("consumeSnapshot($snapshot);")
+            nl("applyBindings($snapshot);")
+        }
+        nl("@Override")
+        block("protected boolean hasBindingSnapshots()") {
+            nl("return true;")
+        }
+        nl("@Override")
+        block("protected boolean hasPendingOwnBindings()") {
+            nl(returnIfDirty())
+            nl("return false;")
+        }
+        nl("@Override")
+        block("protected android.databinding.ViewDataBinding.BindingSnapshot computeBindings()") {
+            nl("final Snapshot $snapshot = new Snapshot();")
+            nl("startSnapshot($snapshot);")
+            for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                nl("${tmpDirtyFlags.type} ${tmpDirtyFlags.localValue(i)} = 0;")
+            }
+            updateDirtyFlags {
+                for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                    takeDirtyFlags(tmpDirtyFlags, i)
                 }
-                nl("// batch finished")
-            } while (model.markBitsRead())
-            // verify everything is read.
+            }
+            localExpressions.forEach {
+                nl("${it.resolvedType.toJavaCode()} ${it.executePendingLocalName} = ${if (it.isVariable()) it.fieldName else it.defaultValue};")
+            }
+            nl(readPendingExpressions(tmpDirtyFlags))
+            for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                nl("$snapshot.${tmpDirtyFlags.localValue(i)} = ${tmpDirtyFlags.localValue(i)};")
+            }
+            localExpressions.forEach {
+                nl("$snapshot.${it.executePendingLocalName} = ${it.executePendingLocalName};")
+            }
+            nl("return $snapshot;")
+        }
+        nl("@Override")
+        block("protected void applyBindings(android.databinding.ViewDataBinding.BindingSnapshot $bindingSnapshot)") {
+            nl("final Snapshot $snapshot = (Snapshot) $bindingSnapshot;")
+            for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                nl("${tmpDirtyFlags.type} ${tmpDirtyFlags.localValue(i)} = $snapshot.${tmpDirtyFlags.localValue(i)};")
+            }
+            localExpressions.forEach {
+                nl("${it.resolvedType.toJavaCode()} ${it.executePendingLocalName} = $snapshot.${it.executePendingLocalName};")
+            }
+            nl(applyPendingBindings(tmpDirtyFlags))
+        }
+        nl("@Override")
+        block("protected void restoreBindings(android.databinding.ViewDataBinding.BindingSnapshot $bindingSnapshot)") {
+            nl("final Snapshot $snapshot = (Snapshot) $bindingSnapshot;")
+            updateDirtyFlags {
+                for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                    nl(orDirtyFlags(i, "$snapshot.${tmpDirtyFlags.localValue(i)}"))
+                }
+            }
+        }
+        block("private static class Snapshot extends android.databinding.ViewDataBinding.BindingSnapshot") {
+            for (i in (0..mDirtyFlags.buckets.size - 1)) {
+                nl("${tmpDirtyFlags.type} ${tmpDirtyFlags.localValue(i)};")
+            }
+            localExpressions.forEach {
+                nl("${it.resolvedType.toJavaCode()} ${it.executePendingLocalName};")
+            }
+        }
+    }
+
+    /**
+     * Evaluates the dirty expressions into their local variables, setting the flags of the
+     * conditionals in tmpDirtyFlags.
+     */
+    fun readPendingExpressions(tmpDirtyFlags : FlagSet) = kcode("") {
+        L.d("writing executePendingBindings for %s", className)
+        do {
             val batch = ExprModel.filterShouldRead(model.pendingExpressions)
-            if (batch.isNotEmpty()) {
-                L.e("could not generate code for %s. This might be caused by circular dependencies."
-                        + "Please report on b.android.com. %d %s %s", layoutBinder.layoutname,
-                        batch.size, batch[0], batch[0].toCode().generate())
-            }
-            //
-            layoutBinder.sortedTargets.filter { it.isUsed }
-                    .flatMap { it.bindings }
-                    .groupBy {
-                        "${tmpDirtyFlags.mapOr(it.expr.dirtyFlagSet) { suffix, index ->
-                            "(${tmpDirtyFlags.localValue(index)} & ${it.expr.dirtyFlagSet.localValue(index)}) != 0"
-                        }.joinToString(" || ") }"
-                    }.forEach {
-                block("if (${it.key})") {
-                    it.value.groupBy { Math.max(1, it.minApi) }.forEach {
-                        val setterValues = kcode("") {
-                            it.value.forEach { binding ->
+            val justRead = arrayListOf<Expr>()
+            L.d("batch: %s", batch)
+            while (!batch.none()) {
+                val readNow = batch.filter { it.shouldReadNow(justRead) }
+                if (readNow.isEmpty()) {
+                    throw IllegalStateException("do not know what I can read. bailing out ${batch.joinToString("\n")}")
+                }
+                L.d("new read now. batch size: %d, readNow size: %d", batch.size, readNow.size)
+                nl(readWithDependants(readNow, justRead, batch, tmpDirtyFlags))
+                batch.removeAll(justRead)
+            }
+            nl("// batch finished")
+        } while (model.markBitsRead())
+        // verify everything is read.
+        val batch = ExprModel.filterShouldRead(model.pendingExpressions)
+        if (batch.isNotEmpty()) {
+            L.e("could not generate code for %s. This might be caused by circular dependencies."
+                    + "Please report on b.android.com. %d %s %s", layoutBinder.layoutname,
+                    batch.size, batch[0], batch[0].toCode().generate())
+        }
+    }
+
+    /**
+     * Calls the setters of the bindings whose expressions are dirty in tmpDirtyFlags, keeps the
+     * old values and executes the included bindings.
+     */
+    fun applyPendingBindings(tmpDirtyFlags : FlagSet) = kcode("") {
+        layoutBinder.sortedTargets.filter { it.isUsed }
+                .flatMap { it.bindings }
+                .groupBy {
+                    "${tmpDirtyFlags.mapOr(it.expr.dirtyFlagSet) { suffix, index ->
+                        "(${tmpDirtyFlags.localValue(index)} & ${it.expr.dirtyFlagSet.localValue(index)}) != 0"
+                    }.joinToString(" || ") }"
+                }.forEach {
+            block("if (${it.key})") {
+                it.value.groupBy { Math.max(1, it.minApi) }.forEach {
+                    val setterValues = kcode("") {
+                        it.value.forEach { binding ->
+                            if (binding.isMemoized()) {
+                                block("if (${binding.changedValueCondition(valuesAppliedFieldName)})") {
+                                    nl(binding.toAssignmentCode()).app(";")
+                                }
+                            } else {
                                 nl(binding.toAssignmentCode()).app(";")
                             }
                         }
-                        nl("// api target ${it.key}")
-                        if (it.key > 1) {
-                            block("if(getBuildSdkInt() >= ${it.key})") {
-                                nl(setterValues)
-                            }
-                        } else {
+                    }
+                    nl("// api target ${it.key}")
+                    if (it.key > 1) {
+                        block("if(getBuildSdkInt() >= ${it.key})") {
                             nl(setterValues)
                         }
+                    } else {
+                        nl(setterValues)
                     }
                 }
             }
+        }
 
 
-            layoutBinder.sortedTargets.filter { it.isUsed }
-                    .flatMap { it.bindings }
-                    .filter { it.requiresOldValue() }
-                    .groupBy {"${tmpDirtyFlags.mapOr(it.expr.dirtyFlagSet) { suffix, index ->
-                        "(${tmpDirtyFlags.localValue(index)} & ${it.expr.dirtyFlagSet.localValue(index)}) != 0"
-                    }.joinToString(" || ")
-                    }"}.forEach {
-                block("if (${it.key})") {
-                    it.value.groupBy { it.expr }.map { it.value.first() }.forEach {
-                        it.componentExpressions.forEach { expr ->
-                            nl("this.${expr.oldValueName} = ${expr.toCode().generate()};")
-                        }
+        layoutBinder.sortedTargets.filter { it.isUsed }
+                .flatMap { it.bindings }
+                .filter { it.keepsOldValues() }
+                .groupBy {"${tmpDirtyFlags.mapOr(it.expr.dirtyFlagSet) { suffix, index ->
+                    "(${tmpDirtyFlags.localValue(index)} & ${it.expr.dirtyFlagSet.localValue(index)}) != 0"
+                }.joinToString(" || ")
+                }"}.forEach {
+            block("if (${it.key})") {
+                it.value.groupBy { it.expr }.map { it.value.first() }.forEach {
+                    it.componentExpressions.forEach { expr ->
+                        nl("this.${expr.oldValueName} = ${expr.toCode().generate()};")
                     }
                 }
             }
-            includedBinders.filter{it.isUsed }.forEach { binder ->
-                nl("${binder.fieldName}.executePendingBindings();")
-            }
-            layoutBinder.sortedTargets.filter{
-                it.isUsed && it.resolvedType != null && it.resolvedType.extendsViewStub()
-            }.forEach {
-                block("if (${it.fieldName}.getBinding() != null)") {
-                    nl("${it.fieldName}.getBinding().executePendingBindings();")
+        }
+        if (hasMemoizedBindings) {
+            nl("this.$valuesAppliedFieldName = true;")
+        }
+        if (hasContainedBindings) {
+            block("if (takePendingChildren())") {
+                includedBinders.filter{it.isUsed }.forEach { binder ->
+                    nl("${binder.fieldName}.executePendingBindings();")
+                }
+                viewStubs.forEach {
+                    block("if (${it.fieldName}.getBinding() != null)") {
+                        nl("${it.fieldName}.getBinding().executePendingBindings();")
+                    }
                 }
             }
         }
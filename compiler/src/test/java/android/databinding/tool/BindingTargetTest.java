@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.tool;
+
+import android.databinding.tool.store.ResourceBundle;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class BindingTargetTest {
+    @Test
+    public void testUnknownChildPath() {
+        assertNull(createTarget(null).getChildPath());
+    }
+
+    @Test
+    public void testRootChildPath() {
+        assertArrayEquals(new int[0], createTarget("").getChildPath());
+    }
+
+    @Test
+    public void testNestedChildPath() {
+        assertArrayEquals(new int[] {0, 12, 3}, createTarget("0/12/3").getChildPath());
+    }
+
+    private static BindingTarget createTarget(String childPath) {
+        ResourceBundle.BindingTargetBundle bundle = new ResourceBundle.BindingTargetBundle(
+                "@+id/text", "TextView", true, "binding_1", null, null);
+        bundle.setChildPath(childPath);
+        return new BindingTarget(bundle);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.tool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationOptionsTest {
+    @After
+    public void tearDown() {
+        GenerationOptions.load(Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testDefaults() {
+        GenerationOptions.load(Collections.<String, String>emptyMap());
+        assertFalse(GenerationOptions.isSplitComputeApply());
+        assertFalse(GenerationOptions.isAtomicDirtyFlags());
+        assertFalse(GenerationOptions.isChildPaths());
+        assertFalse(GenerationOptions.isMemoizeSetters());
+        assertFalse(GenerationOptions.isMemoizedSetter("android:background"));
+        assertFalse(GenerationOptions.isCacheResources());
+    }
+
+    @Test
+    public void testSplitComputeApply() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.SPLIT_COMPUTE_APPLY, "true");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isSplitComputeApply());
+        assertTrue(GenerationOptions.getSupportedOptions()
+                .contains(GenerationOptions.SPLIT_COMPUTE_APPLY));
+    }
+
+    @Test
+    public void testAtomicDirtyFlags() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.ATOMIC_DIRTY_FLAGS, "true");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isAtomicDirtyFlags());
+        assertFalse(GenerationOptions.isSplitComputeApply());
+    }
+
+    @Test
+    public void testChildPaths() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.CHILD_PATHS, "true");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isChildPaths());
+    }
+
+    @Test
+    public void testMemoizeAllSetters() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.MEMOIZE_SETTERS, "true");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isMemoizeSetters());
+        assertTrue(GenerationOptions.isMemoizedSetter("android:background"));
+        assertTrue(GenerationOptions.isMemoizedSetter("bind:imageUrl"));
+    }
+
+    @Test
+    public void testMemoizeSettersOfAttributes() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.MEMOIZE_SETTERS, "android:background, android:padding");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isMemoizeSetters());
+        assertTrue(GenerationOptions.isMemoizedSetter("android:background"));
+        assertTrue(GenerationOptions.isMemoizedSetter("android:padding"));
+        assertFalse(GenerationOptions.isMemoizedSetter("android:text"));
+    }
+
+    @Test
+    public void testCacheResources() {
+        Map<String, String> options = new HashMap<String, String>();
+        options.put(GenerationOptions.CACHE_RESOURCES, "true");
+        GenerationOptions.load(options);
+        assertTrue(GenerationOptions.isCacheResources());
+        assertTrue(GenerationOptions.getSupportedOptions()
+                .contains(GenerationOptions.CACHE_RESOURCES));
+    }
+}
@@ -240,6 +240,9 @@ public class LayoutFileParser {
                             new Location(parent));
             nodeTagMap.put(parent, tag);
             bindingTargetBundle.setIncludedLayout(includedLayoutName);
+            if (!isMerge) {
+                bindingTargetBundle.setChildPath(getChildPath(rootView, parent));
+            }
 
             for (XMLParser.AttributeContext attr : XmlEditor.expressionAttributes(parent)) {
                 String value = escapeQuotes(attr.attrValue.getText(), true);
@@ -269,8 +272,53 @@ public class LayoutFileParser {
         for (XMLParser.ElementContext elm : otherElementsWithIds) {
             final String id = attributeMap(elm).get("android:id");
             final String className = getViewName(elm);
-            bundle.createBindingTarget(id, className, true, null, null, new Location(elm));
+            final ResourceBundle.BindingTargetBundle bindingTargetBundle =
+                    bundle.createBindingTarget(id, className, true, null, null,
+                            new Location(elm));
+            if (!isMerge) {
+                bindingTargetBundle.setChildPath(getChildPath(rootView, elm));
+            }
+        }
+    }
+
+    /**
+     * Returns the indexes of the Views leading from rootView to elm, separated by '/', or null
+     * if the index of a View on the way depends on an element that does not inflate to exactly
+     * one View.
+     */
+    private static String getChildPath(XMLParser.ElementContext rootView,
+            XMLParser.ElementContext elm) {
+        if (!inflatesToOneView(elm)) {
+            return null;
         }
+        String path = "";
+        XMLParser.ElementContext child = elm;
+        while (child != rootView) {
+            // account for XMLParser.ContentContext
+            final XMLParser.ElementContext parent =
+                    (XMLParser.ElementContext) child.getParent().getParent();
+            int index = 0;
+            for (XMLParser.ElementContext sibling : XmlEditor.elements(parent)) {
+                if (sibling == child) {
+                    break;
+                }
+                if (!inflatesToOneView(sibling)) {
+                    return null;
+                }
+                index++;
+            }
+            path = path.isEmpty() ? String.valueOf(index) : index + "/" + path;
+            child = parent;
+        }
+        return path;
+    }
+
+    private static boolean inflatesToOneView(XMLParser.ElementContext elm) {
+        final String name = elm.elmName.getText();
+        // include may be a merge, fragment adds its View later and requestFocus and tag do
+        // not create a View.
+        return !"include".equals(name) && !"fragment".equals(name) &&
+                !"requestFocus".equals(name) && !"tag".equals(name);
     }
 
     private String getViewName(XMLParser.ElementContext elm) {
@@ -761,6 +761,9 @@ public class ResourceBundle implements Serializable {
         public String mIncludedLayout;
         @XmlElement(name="location")
         public Location mLocation;
+        // child indexes from the layout root separated by '/', or null if they may change
+        @XmlAttribute(name="childPath")
+        public String mChildPath;
         private String mInterfaceType;
 
         // For XML serialization
@@ -817,6 +820,14 @@ public class ResourceBundle implements Serializable {
             return mOriginalTag;
         }
 
+        public String getChildPath() {
+            return mChildPath;
+        }
+
+        public void setChildPath(String childPath) {
+            mChildPath = childPath;
+        }
+
         public String getFullClassName() {
             if (mFullClassName == null) {
                 if (isBinder()) {
@@ -69,6 +69,13 @@ public class L {
         }
     }
 
+    /**
+     * Prints a note that is shown whether or not debug logs are enabled.
+     */
+    public static void i(String msg, Object... args) {
+        printMessage(null, Diagnostic.Kind.NOTE, String.format(msg, args));
+    }
+
     public static void w(String msg, Object... args) {
         printMessage(null, Kind.WARNING, String.format(msg, args));
     }
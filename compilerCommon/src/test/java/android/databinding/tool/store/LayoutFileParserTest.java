@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.tool.store;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.databinding.tool.LayoutXmlProcessor;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutFileParserTest {
+    private static final LayoutXmlProcessor.OriginalFileLookup SAME_FILE =
+            new LayoutXmlProcessor.OriginalFileLookup() {
+                @Override
+                public File getOriginalFileFor(File file) {
+                    return file;
+                }
+            };
+
+    private File mFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        mFolder = File.createTempFile("res", "");
+        assertTrue(mFolder.delete());
+        assertTrue(new File(mFolder, "layout").mkdirs());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(mFolder);
+    }
+
+    @Test
+    public void testChildPaths() throws Exception {
+        ResourceBundle.LayoutFileBundle bundle = parse(
+                "<layout xmlns:android=\"http://schemas.android.com/apk/res/android\">\n"
+                + "    <data><variable name=\"name\" type=\"String\"/></data>\n"
+                + "    <LinearLayout android:id=\"@+id/root\">\n"
+                + "        <TextView android:id=\"@+id/first\" android:text=\"@{name}\"/>\n"
+                + "        <FrameLayout android:id=\"@+id/frame\">\n"
+                + "            <View/>\n"
+                + "            <TextView android:text=\"@{name}\"/>\n"
+                + "        </FrameLayout>\n"
+                + "        <TextView android:id=\"@+id/last\"/>\n"
+                + "    </LinearLayout>\n"
+                + "</layout>");
+        assertEquals("", findTarget(bundle, "@+id/root").getChildPath());
+        assertEquals("0", findTarget(bundle, "@+id/first").getChildPath());
+        assertEquals("1", findTarget(bundle, "@+id/frame").getChildPath());
+        assertEquals("1/1", findTarget(bundle, "binding_2").getChildPath());
+        assertEquals("2", findTarget(bundle, "@+id/last").getChildPath());
+    }
+
+    @Test
+    public void testNoChildPathAfterElementsWithoutOneView() throws Exception {
+        ResourceBundle.LayoutFileBundle bundle = parse(
+                "<layout xmlns:android=\"http://schemas.android.com/apk/res/android\">\n"
+                + "    <data><variable name=\"name\" type=\"String\"/></data>\n"
+                + "    <LinearLayout>\n"
+                + "        <TextView android:id=\"@+id/first\" android:text=\"@{name}\">\n"
+                + "            <requestFocus/>\n"
+                + "        </TextView>\n"
+                + "        <include android:id=\"@+id/included\" layout=\"@layout/other\"/>\n"
+                + "        <TextView android:id=\"@+id/afterInclude\"/>\n"
+                + "        <FrameLayout>\n"
+                + "            <TextView android:id=\"@+id/nested\"/>\n"
+                + "        </FrameLayout>\n"
+                + "    </LinearLayout>\n"
+                + "</layout>");
+        assertEquals("0", findTarget(bundle, "@+id/first").getChildPath());
+        assertNull(findTarget(bundle, "@+id/included").getChildPath());
+        assertNull(findTarget(bundle, "@+id/afterInclude").getChildPath());
+        assertNull(findTarget(bundle, "@+id/nested").getChildPath());
+    }
+
+    @Test
+    public void testNoChildPathInMerge() throws Exception {
+        ResourceBundle.LayoutFileBundle bundle = parse(
+                "<layout xmlns:android=\"http://schemas.android.com/apk/res/android\">\n"
+                + "    <data><variable name=\"name\" type=\"String\"/></data>\n"
+                + "    <merge>\n"
+                + "        <TextView android:id=\"@+id/first\" android:text=\"@{name}\"/>\n"
+                + "        <TextView android:id=\"@+id/second\"/>\n"
+                + "    </merge>\n"
+                + "</layout>");
+        assertNull(findTarget(bundle, "@+id/first").getChildPath());
+        assertNull(findTarget(bundle, "@+id/second").getChildPath());
+    }
+
+    private ResourceBundle.LayoutFileBundle parse(String layout) throws Exception {
+        File input = new File(mFolder, "layout/main.xml");
+        FileUtils.writeStringToFile(input, layout);
+        File output = new File(mFolder, "main-out.xml");
+        ResourceBundle.LayoutFileBundle bundle = new LayoutFileParser().parseXml(input, output,
+                "com.example", SAME_FILE);
+        assertNotNull(bundle);
+        return bundle;
+    }
+
+    private static ResourceBundle.BindingTargetBundle findTarget(
+            ResourceBundle.LayoutFileBundle bundle, String idOrTag) {
+        for (ResourceBundle.BindingTargetBundle target : bundle.getBindingTargetBundles()) {
+            if (idOrTag.equals(target.getId()) || idOrTag.equals(target.getTag())) {
+                return target;
+            }
+        }
+        throw new AssertionError("no binding target " + idOrTag);
+    }
+}
@@ -65,4 +65,26 @@ public class AbsSpinnerBindingAdapter {
             view.setAdapter(null);
         }
     }
+
+    /**
+     * Shows entries with a data bound layout. The variable with the BR id entryVariable is set
+     * to the entry.
+     */
+    @BindingAdapter({"android:entries", "android:entryLayout", "android:entryVariable"})
+    public static <T> void setEntries(AbsSpinner view, List<T> entries, int entryLayout,
+            int entryVariable) {
+        if (entries != null) {
+            SpinnerAdapter oldAdapter = view.getAdapter();
+            if (oldAdapter instanceof ObservableListAdapter
+                    && ((ObservableListAdapter) oldAdapter).getResourceId() == entryLayout
+                    && ((ObservableListAdapter) oldAdapter).getVariableId() == entryVariable) {
+                ((ObservableListAdapter) oldAdapter).setList(entries);
+            } else {
+                view.setAdapter(new ObservableListAdapter<T>(view.getContext(), entries,
+                        entryLayout, entryLayout, 0, entryVariable));
+            }
+        } else {
+            view.setAdapter(null);
+        }
+    }
 }
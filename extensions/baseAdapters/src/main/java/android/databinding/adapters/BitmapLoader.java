@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.adapters;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The request and cache logic of {@link ImageViewLoader}. It does not reference any Android
+ * class so that it can be tested on the JVM.
+ * <p>
+ * Images are decoded by the executor and delivered on the thread that calls
+ * {@link #load(Object, String, int, int, Object, Object)}, which must always be the same
+ * thread. Decoded images are kept in a least recently used cache limited by their size in
+ * bytes, with one image per uri remembering the size it was decoded for. Each view has at most
+ * one current request: loading a different image into the view cancels the request in flight
+ * and loading the same image again only decodes it again when it must be shown larger than it
+ * was decoded for, for instance when the view was bound before its final layout.
+ *
+ * @param <V> The type of the views the images are loaded into.
+ * @param <B> The type of the decoded images.
+ * @param <D> The type of the placeholder and error images.
+ */
+abstract class BitmapLoader<V, B, D> {
+    private final Executor mExecutor;
+
+    private final int mMaxCacheBytes;
+
+    /**
+     * The decoded images by uri in access order. Only used on the loading thread.
+     */
+    private final LinkedHashMap<String, Cached<B>> mCache =
+            new LinkedHashMap<String, Cached<B>>(16, 0.75f, true);
+
+    private int mCacheBytes;
+
+    BitmapLoader(Executor executor, int maxCacheBytes) {
+        mExecutor = executor;
+        mMaxCacheBytes = maxCacheBytes;
+    }
+
+    abstract Request<V, B, D> getRequest(V view);
+
+    abstract void setRequest(V view, Request<V, B, D> request);
+
+    /**
+     * Decodes the image at uri, subsampled for the given size. Called on the executor.
+     *
+     * @param width The width the image is shown at or 0 if it is not known.
+     * @param height The height the image is shown at or 0 if it is not known.
+     */
+    abstract B decode(String uri, int width, int height) throws Exception;
+
+    /**
+     * Returns the size of image in bytes.
+     */
+    abstract int sizeOf(B image);
+
+    /**
+     * Runs runnable on the loading thread.
+     */
+    abstract void post(Runnable runnable);
+
+    abstract void setImage(V view, B image);
+
+    /**
+     * Shows the placeholder or error image, which may be null.
+     */
+    abstract void setPlaceholder(V view, D placeholder);
+
+    /**
+     * Loads the image at uri into view.
+     *
+     * @param view The view to show the image in.
+     * @param uri The image to load or null to only show the placeholder.
+     * @param width The width the image is shown at or 0 if it is not known.
+     * @param height The height the image is shown at or 0 if it is not known.
+     * @param placeholder Shown while the image is decoded.
+     * @param error Shown if the image cannot be decoded.
+     */
+    final void load(V view, String uri, int width, int height, D placeholder, D error) {
+        final Request<V, B, D> current = getRequest(view);
+        if (current != null) {
+            if (current.mUri.equals(uri)
+                    && covers(current.mWidth, current.mHeight, width, height)) {
+                current.mError = error;
+                return;
+            }
+            current.cancel();
+        }
+        if (uri == null) {
+            setRequest(view, null);
+            setPlaceholder(view, placeholder);
+            return;
+        }
+        final Request<V, B, D> request = new Request<V, B, D>(this, view, uri, width, height,
+                error);
+        setRequest(view, request);
+        final B image = getCached(uri, width, height);
+        if (image != null) {
+            request.mIsShown = true;
+            setImage(view, image);
+        } else {
+            if (current == null || !current.mUri.equals(uri) || !current.mIsShown) {
+                // a smaller decode of the same image stays until the larger one replaces it
+                setPlaceholder(view, placeholder);
+            }
+            mExecutor.execute(request);
+        }
+    }
+
+    /**
+     * Prepares view to load uri once the size it is shown at is known. The request of another
+     * image is cancelled and the placeholder is shown instead, while a request of the same
+     * image is kept.
+     */
+    final void waitForSize(V view, String uri, D placeholder) {
+        final Request<V, B, D> current = getRequest(view);
+        if (current != null) {
+            if (current.mUri.equals(uri)) {
+                return;
+            }
+            current.cancel();
+            setRequest(view, null);
+        }
+        setPlaceholder(view, placeholder);
+    }
+
+    /**
+     * Returns whether an image decoded for the size width x height can be shown at the size
+     * requestedWidth x requestedHeight. A size of 0 is not known and decodes the full image.
+     */
+    static boolean covers(int width, int height, int requestedWidth, int requestedHeight) {
+        return covers(width, requestedWidth) && covers(height, requestedHeight);
+    }
+
+    private static boolean covers(int size, int requestedSize) {
+        return size <= 0 || (requestedSize > 0 && requestedSize <= size);
+    }
+
+    /**
+     * Removes all images from the cache.
+     */
+    final void clearCache() {
+        mCache.clear();
+        mCacheBytes = 0;
+    }
+
+    final int getCacheBytes() {
+        return mCacheBytes;
+    }
+
+    /**
+     * Returns the cached image of uri if it was decoded at least as large as width x height.
+     */
+    final B getCached(String uri, int width, int height) {
+        final Cached<B> cached = mCache.get(uri);
+        if (cached == null || !covers(cached.mWidth, cached.mHeight, width, height)) {
+            return null;
+        }
+        return cached.mImage;
+    }
+
+    private void putCached(String uri, int width, int height, B image) {
+        final Cached<B> old = mCache.get(uri);
+        if (old != null && !covers(width, height, old.mWidth, old.mHeight)) {
+            // keep the larger image
+            return;
+        }
+        final int size = sizeOf(image);
+        if (size > mMaxCacheBytes) {
+            return;
+        }
+        if (old != null) {
+            mCacheBytes -= old.mBytes;
+        }
+        mCache.put(uri, new Cached<B>(image, width, height, size));
+        mCacheBytes += size;
+        final Iterator<Map.Entry<String, Cached<B>>> entries = mCache.entrySet().iterator();
+        while (mCacheBytes > mMaxCacheBytes && entries.hasNext()) {
+            mCacheBytes -= entries.next().getValue().mBytes;
+            entries.remove();
+        }
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps the decoded image at least as
+     * large as the requested size.
+     *
+     * @param width The width of the encoded image.
+     * @param height The height of the encoded image.
+     * @param requestedWidth The width the image is shown at or 0 if it is not known.
+     * @param requestedHeight The height the image is shown at or 0 if it is not known.
+     */
+    static int calculateSampleSize(int width, int height, int requestedWidth,
+            int requestedHeight) {
+        if (requestedWidth <= 0 && requestedHeight <= 0) {
+            return 1;
+        }
+        int sampleSize = 1;
+        while ((requestedWidth <= 0 || width / (sampleSize * 2) >= requestedWidth)
+                && (requestedHeight <= 0 || height / (sampleSize * 2) >= requestedHeight)) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * A decoded image and the size it was decoded for.
+     */
+    private static final class Cached<B> {
+        final B mImage;
+        final int mWidth;
+        final int mHeight;
+        final int mBytes;
+
+        Cached(B image, int width, int height, int bytes) {
+            mImage = image;
+            mWidth = width;
+            mHeight = height;
+            mBytes = bytes;
+        }
+    }
+
+    /**
+     * Decodes one image on the executor and then delivers it on the loading thread.
+     */
+    static final class Request<V, B, D> implements Runnable {
+        private final BitmapLoader<V, B, D> mLoader;
+        private final V mView;
+        final String mUri;
+        final int mWidth;
+        final int mHeight;
+        D mError;
+        /**
+         * Whether the image of this request is shown. Only used on the loading thread.
+         */
+        boolean mIsShown;
+        private volatile boolean mCancelled;
+        private boolean mDecoded;
+        private B mImage;
+
+        Request(BitmapLoader<V, B, D> loader, V view, String uri, int width, int height,
+                D error) {
+            mLoader = loader;
+            mView = view;
+            mUri = uri;
+            mWidth = width;
+            mHeight = height;
+            mError = error;
+        }
+
+        void cancel() {
+            mCancelled = true;
+        }
+
+        boolean isCancelled() {
+            return mCancelled;
+        }
+
+        @Override
+        public void run() {
+            if (!mDecoded) {
+                if (mCancelled) {
+                    return;
+                }
+                try {
+                    mImage = mLoader.decode(mUri, mWidth, mHeight);
+                } catch (Exception e) {
+                    mImage = null;
+                }
+                mDecoded = true;
+                mLoader.post(this);
+            } else {
+                deliver();
+            }
+        }
+
+        private void deliver() {
+            if (mImage != null) {
+                // cached even when cancelled, the view may be bound to it again soon
+                mLoader.putCached(mUri, mWidth, mHeight, mImage);
+            }
+            if (mCancelled || mLoader.getRequest(mView) != this) {
+                return;
+            }
+            if (mImage == null) {
+                mLoader.setPlaceholder(mView, mError);
+            } else {
+                mIsShown = true;
+                mLoader.setImage(mView, mImage);
+            }
+        }
+    }
+}
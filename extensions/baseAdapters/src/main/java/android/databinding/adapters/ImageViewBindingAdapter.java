@@ -45,4 +45,24 @@ public class ImageViewBindingAdapter {
     public static void setImageDrawable(ImageView view, Drawable drawable) {
         view.setImageDrawable(drawable);
     }
+
+    /**
+     * Like android:src, but decodes the image on a background thread at the size of the view
+     * and caches it in memory. The placeholder is shown while the image is loading and the
+     * error image if it cannot be decoded. Binding the view to another image cancels the
+     * loading of the previous one.
+     */
+    @BindingAdapter(value = {"android:srcAsync", "android:placeholder", "android:error"},
+            requireAll = false)
+    public static void loadImageUri(ImageView view, String imageUri, Drawable placeholder,
+            Drawable error) {
+        ImageViewLoader.getInstance(view.getContext()).load(view, imageUri, placeholder, error);
+    }
+
+    @BindingAdapter(value = {"android:srcAsync", "android:placeholder", "android:error"},
+            requireAll = false)
+    public static void loadImageUri(ImageView view, Uri imageUri, Drawable placeholder,
+            Drawable error) {
+        loadImageUri(view, imageUri == null ? null : imageUri.toString(), placeholder, error);
+    }
 }
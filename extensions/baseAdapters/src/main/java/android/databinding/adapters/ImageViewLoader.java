@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.adapters;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.DisplayMetrics;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+import com.android.databinding.library.baseAdapters.R;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes images for {@link ImageViewBindingAdapter} on background threads, at the size of the
+ * ImageView, and keeps them in a memory cache of an eighth of the heap.
+ */
+final class ImageViewLoader extends BitmapLoader<ImageView, Bitmap, Drawable> {
+    private static final int THREAD_COUNT = 2;
+
+    private static final Executor DECODE_EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT,
+            new ThreadFactory() {
+                private final AtomicInteger mCount = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "ImageViewLoader #" + mCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private static ImageViewLoader sInstance;
+
+    private final ContentResolver mContentResolver;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private ImageViewLoader(Context context) {
+        super(DECODE_EXECUTOR, (int) Math.min(Runtime.getRuntime().maxMemory() / 8,
+                Integer.MAX_VALUE));
+        mContentResolver = context.getApplicationContext().getContentResolver();
+    }
+
+    /**
+     * Returns the loader of the application. Must be called on the main thread.
+     */
+    static ImageViewLoader getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ImageViewLoader(context);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Loads the image at uri into view at the size view is laid out at. Before the first
+     * layout, the size of its layout parameters is used when they have one. Otherwise the
+     * image is only decoded once the view is laid out, as list items are bound before that.
+     */
+    void load(ImageView view, String uri, Drawable placeholder, Drawable error) {
+        final SizeListener waiting = ListenerUtil.trackListener(view, null,
+                R.id.imageSizeListener);
+        if (waiting != null) {
+            waiting.cancel();
+        }
+        int width = view.getWidth();
+        int height = view.getHeight();
+        if (width <= 0 || height <= 0) {
+            final ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params != null && params.width > 0 && params.height > 0) {
+                width = params.width;
+                height = params.height;
+            } else if (uri != null) {
+                waitForSize(view, uri, placeholder);
+                final SizeListener listener = new SizeListener(view, uri, placeholder, error);
+                ListenerUtil.trackListener(view, listener, R.id.imageSizeListener);
+                view.getViewTreeObserver().addOnPreDrawListener(listener);
+                return;
+            }
+        }
+        load(view, uri, width, height, placeholder, error);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Request<ImageView, Bitmap, Drawable> getRequest(ImageView view) {
+        return (Request<ImageView, Bitmap, Drawable>) ListenerUtil.getListener(view,
+                R.id.imageRequest);
+    }
+
+    @Override
+    void setRequest(ImageView view, Request<ImageView, Bitmap, Drawable> request) {
+        ListenerUtil.trackListener(view, request, R.id.imageRequest);
+    }
+
+    @Override
+    Bitmap decode(String uri, int width, int height) throws IOException {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeStream(uri, options);
+        options.inSampleSize = calculateSampleSize(options.outWidth, options.outHeight, width,
+                height);
+        options.inJustDecodeBounds = false;
+        final Bitmap bitmap = decodeStream(uri, options);
+        if (bitmap == null) {
+            throw new IOException("Cannot decode " + uri);
+        }
+        return bitmap;
+    }
+
+    private Bitmap decodeStream(String uri, BitmapFactory.Options options) throws IOException {
+        final Uri parsed = Uri.parse(uri);
+        // like ImageView.setImageURI, uris without a scheme are file paths
+        final InputStream in = parsed.getScheme() == null ? new FileInputStream(uri)
+                : mContentResolver.openInputStream(parsed);
+        if (in == null) {
+            throw new FileNotFoundException(uri);
+        }
+        try {
+            return BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    int sizeOf(Bitmap image) {
+        return image.getRowBytes() * image.getHeight();
+    }
+
+    @Override
+    void post(Runnable runnable) {
+        mHandler.post(runnable);
+    }
+
+    @Override
+    void setImage(ImageView view, Bitmap image) {
+        view.setImageBitmap(image);
+    }
+
+    @Override
+    void setPlaceholder(ImageView view, Drawable placeholder) {
+        view.setImageDrawable(placeholder);
+    }
+
+    /**
+     * Loads an image once its ImageView is about to be drawn for the first time, when it has
+     * been laid out.
+     */
+    private final class SizeListener implements ViewTreeObserver.OnPreDrawListener {
+        private final ImageView mView;
+        private final String mUri;
+        private final Drawable mPlaceholder;
+        private final Drawable mError;
+        private boolean mCancelled;
+
+        SizeListener(ImageView view, String uri, Drawable placeholder, Drawable error) {
+            mView = view;
+            mUri = uri;
+            mPlaceholder = placeholder;
+            mError = error;
+        }
+
+        void cancel() {
+            mCancelled = true;
+            removeListener();
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            removeListener();
+            if (mCancelled) {
+                return true;
+            }
+            ListenerUtil.trackListener(mView, null, R.id.imageSizeListener);
+            int width = mView.getWidth();
+            int height = mView.getHeight();
+            if (width <= 0 || height <= 0) {
+                // not laid out, for instance because it is gone
+                final DisplayMetrics metrics = mView.getResources().getDisplayMetrics();
+                width = metrics.widthPixels;
+                height = metrics.heightPixels;
+            }
+            load(mView, mUri, width, height, mPlaceholder, mError);
+            return true;
+        }
+
+        private void removeListener() {
+            // the observer of a View changes when it is attached
+            final ViewTreeObserver observer = mView.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(this);
+            }
+        }
+    }
+}
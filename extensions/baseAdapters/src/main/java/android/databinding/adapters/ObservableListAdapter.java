@@ -16,36 +16,73 @@
 package android.databinding.adapters;
 
 import android.content.Context;
+import android.databinding.DataBindingUtil;
 import android.databinding.ObservableList;
 import android.databinding.ObservableList.OnListChangedCallback;
+import android.databinding.ViewDataBinding;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
 import android.widget.TextView;
+import com.android.databinding.library.baseAdapters.R;
 
 import java.util.List;
 
 class ObservableListAdapter<T> extends BaseAdapter {
+    /**
+     * Before Ice Cream Sandwich, View keeps keyed tags in a static map that would leak an item
+     * view through a holder referencing it, so the holder keeps no Views there.
+     */
+    private static final boolean CACHE_VIEWS =
+            VERSION.SDK_INT >= VERSION_CODES.ICE_CREAM_SANDWICH;
+
     private List<T> mList;
     private ObservableList.OnListChangedCallback mListChangedCallback;
     private final Context mContext;
     private final int mDropDownResourceId;
     private final int mResourceId;
     private final int mTextViewResourceId;
+    private final int mVariableId;
     private final LayoutInflater mLayoutInflater;
 
+    /**
+     * Incremented whenever the data set changes, so that views still showing the same item at
+     * the same version are not bound again.
+     */
+    private int mVersion;
+
     public ObservableListAdapter(Context context, List<T> list, int resourceId,
             int dropDownResourceId, int textViewResourceId) {
+        this(context, list, resourceId, dropDownResourceId, textViewResourceId, 0);
+    }
+
+    /**
+     * @param variableId The BR id of the variable that is set to the item when the layouts are
+     *                   data bound layouts or 0 to set the text of a TextView to the item.
+     */
+    public ObservableListAdapter(Context context, List<T> list, int resourceId,
+            int dropDownResourceId, int textViewResourceId, int variableId) {
         mContext = context;
         mResourceId = resourceId;
         mDropDownResourceId = dropDownResourceId;
         mTextViewResourceId = textViewResourceId;
+        mVariableId = variableId;
         mLayoutInflater = (resourceId == 0) ? null :
                 (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
         setList(list);
     }
 
+    public int getResourceId() {
+        return mResourceId;
+    }
+
+    public int getVariableId() {
+        return mVariableId;
+    }
+
     public void setList(List<T> list) {
         if (mList == list) {
             return;
@@ -92,6 +129,12 @@ class ObservableListAdapter<T> extends BaseAdapter {
         notifyDataSetChanged();
     }
 
+    @Override
+    public void notifyDataSetChanged() {
+        mVersion++;
+        super.notifyDataSetChanged();
+    }
+
     @Override
     public int getCount() {
         return mList.size();
@@ -119,23 +162,81 @@ class ObservableListAdapter<T> extends BaseAdapter {
 
     public View getViewForResource(int resourceId, int position, View convertView,
             ViewGroup parent) {
+        final boolean isBound = mVariableId != 0 && resourceId != 0;
         if (convertView == null) {
             if (resourceId == 0) {
                 convertView = new TextView(mContext);
+            } else if (isBound) {
+                ViewDataBinding binding = DataBindingUtil.inflate(mLayoutInflater, resourceId,
+                        parent, false);
+                if (binding == null) {
+                    throw notBoundLayout(resourceId);
+                }
+                convertView = binding.getRoot();
             } else {
                 convertView = mLayoutInflater.inflate(resourceId, parent, false);
             }
         }
-        TextView text = (TextView) (mTextViewResourceId == 0 ? convertView :
-                convertView.findViewById(mTextViewResourceId));
+        ViewHolder holder = (ViewHolder) convertView.getTag(R.id.observableListAdapterHolder);
+        if (holder == null) {
+            holder = new ViewHolder();
+            convertView.setTag(R.id.observableListAdapterHolder, holder);
+        }
         T item = mList.get(position);
-        CharSequence value;
-        if (item instanceof CharSequence) {
-            value = (CharSequence) item;
+        if (holder.version == mVersion && holder.item == item) {
+            // still shows the same item and the data set did not change since
+            return convertView;
+        }
+        if (isBound) {
+            ViewDataBinding binding = holder.binding;
+            if (binding == null) {
+                binding = DataBindingUtil.getBinding(convertView);
+                if (binding == null) {
+                    throw notBoundLayout(resourceId);
+                }
+                if (CACHE_VIEWS) {
+                    holder.binding = binding;
+                }
+            }
+            binding.setVariable(mVariableId, item);
+            binding.executePendingBindings();
         } else {
-            value = String.valueOf(item);
+            TextView text = holder.text;
+            if (text == null) {
+                text = (TextView) (mTextViewResourceId == 0 ? convertView :
+                        convertView.findViewById(mTextViewResourceId));
+                if (CACHE_VIEWS) {
+                    holder.text = text;
+                }
+            }
+            CharSequence value;
+            if (item instanceof CharSequence) {
+                value = (CharSequence) item;
+            } else {
+                value = String.valueOf(item);
+            }
+            text.setText(value);
         }
-        text.setText(value);
+        holder.item = item;
+        holder.version = mVersion;
         return convertView;
     }
+
+    private IllegalArgumentException notBoundLayout(int resourceId) {
+        return new IllegalArgumentException("Layout "
+                + mContext.getResources().getResourceName(resourceId)
+                + " is not a data binding layout, cannot set variable " + mVariableId
+                + " to the items");
+    }
+
+    /**
+     * Kept as a tag of an item view. Caches the item the view shows and, from Ice Cream
+     * Sandwich on, its TextView or binding.
+     */
+    private static class ViewHolder {
+        TextView text;
+        ViewDataBinding binding;
+        Object item;
+        int version = -1;
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.adapters;
+
+import android.databinding.DataBindingUtil;
+import android.databinding.ObservableList;
+import android.databinding.ObservableList.OnListChangedCallback;
+import android.databinding.ViewDataBinding;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * A RecyclerView adapter that shows a List with one data bound layout per item. Changes of an
+ * {@link ObservableList} are forwarded as the matching fine-grained notifications, so that
+ * inserting an item only binds and lays out the inserted row.
+ * <p>
+ * The list is observed only while the adapter is attached to a RecyclerView.
+ *
+ * @param <T> The type of the items.
+ */
+public class ObservableListRecyclerAdapter<T>
+        extends RecyclerView.Adapter<ObservableListRecyclerAdapter.BindingHolder> {
+    /**
+     * Provides stable ids for the items of an {@link ObservableListRecyclerAdapter}.
+     */
+    public interface ItemIds<T> {
+        long getItemId(int position, T item);
+    }
+
+    private final int mItemLayout;
+    private final int mVariableId;
+    private final ItemIds<? super T> mItemIds;
+    private final ListChangedCallback mListChangedCallback = new ListChangedCallback();
+    private List<T> mItems;
+    private int mAttachedCount;
+
+    /**
+     * @param items The items to show or null to show no items.
+     * @param itemLayout The layout inflated for each item.
+     * @param variableId The BR id of the variable of itemLayout that is set to the item.
+     * @param itemIds Provides stable ids for the items or null if they have no stable ids.
+     */
+    public ObservableListRecyclerAdapter(List<T> items, int itemLayout, int variableId,
+            ItemIds<? super T> itemIds) {
+        mItemLayout = itemLayout;
+        mVariableId = variableId;
+        mItemIds = itemIds;
+        mItems = items;
+        setHasStableIds(itemIds != null);
+    }
+
+    public int getItemLayout() {
+        return mItemLayout;
+    }
+
+    public int getVariableId() {
+        return mVariableId;
+    }
+
+    public ItemIds<? super T> getItemIds() {
+        return mItemIds;
+    }
+
+    public List<T> getItems() {
+        return mItems;
+    }
+
+    /**
+     * Replaces the items shown by the adapter.
+     *
+     * @param items The items to show or null to show no items.
+     */
+    public void setItems(List<T> items) {
+        if (mItems == items) {
+            return;
+        }
+        if (mAttachedCount > 0) {
+            removeCallback(mItems);
+            addCallback(items);
+        }
+        mItems = items;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItems == null ? 0 : mItems.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (mItemIds == null) {
+            return RecyclerView.NO_ID;
+        }
+        return mItemIds.getItemId(position, mItems.get(position));
+    }
+
+    @Override
+    public BindingHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        final ViewDataBinding binding = DataBindingUtil.inflate(
+                LayoutInflater.from(parent.getContext()), mItemLayout, parent, false);
+        return new BindingHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(BindingHolder holder, int position) {
+        final ViewDataBinding binding = holder.getBinding();
+        binding.setVariable(mVariableId, mItems.get(position));
+        // the row is measured right after this, with the values of the new item
+        binding.executePendingBindings();
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        if (mAttachedCount++ == 0) {
+            addCallback(mItems);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        if (--mAttachedCount == 0) {
+            removeCallback(mItems);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addCallback(List<T> items) {
+        if (items instanceof ObservableList) {
+            ((ObservableList<T>) items).addOnListChangedCallback(mListChangedCallback);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeCallback(List<T> items) {
+        if (items instanceof ObservableList) {
+            ((ObservableList<T>) items).removeOnListChangedCallback(mListChangedCallback);
+        }
+    }
+
+    /**
+     * Holds the binding of one item layout.
+     */
+    public static class BindingHolder extends RecyclerView.ViewHolder {
+        private final ViewDataBinding mBinding;
+
+        public BindingHolder(ViewDataBinding binding) {
+            super(binding.getRoot());
+            mBinding = binding;
+        }
+
+        public ViewDataBinding getBinding() {
+            return mBinding;
+        }
+    }
+
+    private class ListChangedCallback extends OnListChangedCallback<ObservableList<T>> {
+        @Override
+        public void onChanged(ObservableList<T> sender) {
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList<T> sender, int positionStart,
+                int itemCount) {
+            notifyItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(ObservableList<T> sender, int positionStart,
+                int itemCount) {
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(ObservableList<T> sender, int fromPosition, int toPosition,
+                int itemCount) {
+            // RecyclerView only moves single items, move the range one item at a time
+            if (fromPosition < toPosition) {
+                for (int i = 0; i < itemCount; i++) {
+                    notifyItemMoved(fromPosition, toPosition + itemCount - 1);
+                }
+            } else {
+                for (int i = 0; i < itemCount; i++) {
+                    notifyItemMoved(fromPosition + i, toPosition + i);
+                }
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(ObservableList<T> sender, int positionStart,
+                int itemCount) {
+            notifyItemRangeRemoved(positionStart, itemCount);
+        }
+    }
+}
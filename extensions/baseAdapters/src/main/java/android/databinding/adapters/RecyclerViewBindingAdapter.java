@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.adapters;
+
+import android.databinding.BindingAdapter;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.List;
+
+public class RecyclerViewBindingAdapter {
+    /**
+     * Shows items in a RecyclerView with an {@link ObservableListRecyclerAdapter}. The adapter
+     * is reused while the layout, variable and item ids stay the same.
+     *
+     * @param items The items to show.
+     * @param itemLayout The layout inflated for each item.
+     * @param itemVariable The BR id of the variable of itemLayout that is set to the item.
+     * @param itemIds Provides stable ids for the items, optional.
+     */
+    @BindingAdapter(value = {"android:items", "android:itemLayout", "android:itemVariable",
+            "android:itemIds"}, requireAll = false)
+    public static <T> void setItems(RecyclerView view, List<T> items, int itemLayout,
+            int itemVariable, ObservableListRecyclerAdapter.ItemIds<? super T> itemIds) {
+        if (itemLayout == 0 || itemVariable == 0) {
+            throw new IllegalArgumentException(
+                    "android:items requires android:itemLayout and android:itemVariable");
+        }
+        final RecyclerView.Adapter oldAdapter = view.getAdapter();
+        if (oldAdapter instanceof ObservableListRecyclerAdapter) {
+            @SuppressWarnings("unchecked")
+            final ObservableListRecyclerAdapter<T> adapter =
+                    (ObservableListRecyclerAdapter<T>) oldAdapter;
+            if (adapter.getItemLayout() == itemLayout
+                    && adapter.getVariableId() == itemVariable
+                    && adapter.getItemIds() == itemIds) {
+                adapter.setItems(items);
+                return;
+            }
+        }
+        view.setAdapter(new ObservableListRecyclerAdapter<T>(items, itemLayout, itemVariable,
+                itemIds));
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.adapters;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BitmapLoaderTest {
+    private TaskList mDecodes;
+    private TestLoader mLoader;
+
+    @Before
+    public void setUp() {
+        mDecodes = new TaskList();
+        mLoader = new TestLoader(mDecodes, 10);
+    }
+
+    @Test
+    public void testDecodesOnExecutor() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        assertEquals("placeholder", view.image);
+        assertEquals(1, mDecodes.size());
+        assertEquals(0, mLoader.decoded.size());
+
+        mDecodes.runAll();
+        assertEquals(1, mLoader.decoded.size());
+        assertEquals("placeholder", view.image);
+
+        mLoader.posted.runAll();
+        assertEquals("image abc", view.image);
+        assertEquals(9, mLoader.getCacheBytes());
+    }
+
+    @Test
+    public void testCachedImageIsSetImmediately() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+
+        TestView other = new TestView();
+        mLoader.load(other, "abc", 0, 0, "placeholder", "error");
+        assertEquals("image abc", other.image);
+        assertEquals(0, mDecodes.size());
+    }
+
+    @Test
+    public void testSmallerSizeUsesCachedImage() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 20, 20, null, null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+
+        TestView other = new TestView();
+        mLoader.load(other, "abc", 10, 10, null, null);
+        assertEquals(0, mDecodes.size());
+        assertEquals("image abc", other.image);
+    }
+
+    @Test
+    public void testSmallerSizeKeepsPendingDecode() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 20, 20, "placeholder", null);
+        BitmapLoader.Request<TestView, String, String> first = view.request;
+        // laid out smaller than the size guessed before layout
+        mLoader.load(view, "abc", 10, 10, "placeholder", null);
+        assertSame(first, view.request);
+        assertFalse(first.isCancelled());
+        assertEquals(1, mDecodes.size());
+    }
+
+    @Test
+    public void testLargerSizeDecodesAgain() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 10, 10, "placeholder", null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+
+        mLoader.load(view, "abc", 20, 20, "placeholder", null);
+        assertEquals(1, mDecodes.size());
+        // the smaller image is shown until the larger one is decoded
+        assertEquals("image abc", view.image);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        assertEquals(Integer.valueOf(20), mLoader.decodedWidths.get(1));
+        assertEquals("image abc", mLoader.getCached("abc", 20, 20));
+        assertEquals(9, mLoader.getCacheBytes());
+    }
+
+    @Test
+    public void testCacheKeepsLargerImage() {
+        TestView large = new TestView();
+        mLoader.load(large, "abc", 20, 20, null, null);
+        TestView small = new TestView();
+        mLoader.load(small, "abc", 10, 10, null, null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        assertEquals("image abc", mLoader.getCached("abc", 20, 20));
+        assertNull(mLoader.getCached("abc", 30, 30));
+        assertEquals(9, mLoader.getCacheBytes());
+    }
+
+    @Test
+    public void testWaitForSizeCancelsOtherImage() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 10, 10, "placeholder", null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        BitmapLoader.Request<TestView, String, String> first = view.request;
+
+        // a recycled row bound to another image before its layout
+        mLoader.waitForSize(view, "def", "placeholder 2");
+        assertTrue(first.isCancelled());
+        assertNull(view.request);
+        assertEquals("placeholder 2", view.image);
+
+        mLoader.load(view, "def", 10, 10, "placeholder 2", null);
+        assertEquals(1, mDecodes.size());
+    }
+
+    @Test
+    public void testWaitForSizeKeepsSameImage() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 10, 10, "placeholder", null);
+        BitmapLoader.Request<TestView, String, String> first = view.request;
+
+        mLoader.waitForSize(view, "abc", "placeholder 2");
+        assertSame(first, view.request);
+        assertFalse(first.isCancelled());
+        assertEquals("placeholder", view.image);
+    }
+
+    @Test
+    public void testCovers() {
+        assertTrue(BitmapLoader.covers(0, 0, 100, 100));
+        assertTrue(BitmapLoader.covers(0, 0, 0, 0));
+        assertTrue(BitmapLoader.covers(20, 20, 10, 20));
+        assertFalse(BitmapLoader.covers(20, 20, 10, 30));
+        assertFalse(BitmapLoader.covers(20, 20, 0, 0));
+        assertTrue(BitmapLoader.covers(20, 0, 10, 500));
+    }
+
+    @Test
+    public void testSameImageIsNotReloaded() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        assertEquals(1, mDecodes.size());
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        assertEquals(0, mDecodes.size());
+        assertEquals("image abc", view.image);
+    }
+
+    @Test
+    public void testRebindCancelsPendingDecode() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        BitmapLoader.Request<TestView, String, String> first = view.request;
+        mLoader.load(view, "def", 0, 0, "placeholder", "error");
+        assertTrue(first.isCancelled());
+
+        mDecodes.runAll();
+        assertEquals(1, mLoader.decoded.size());
+        assertEquals("def", mLoader.decoded.get(0));
+        mLoader.posted.runAll();
+        assertEquals("image def", view.image);
+    }
+
+    @Test
+    public void testRebindDropsDecodedImage() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        mDecodes.runAll();
+        mLoader.load(view, "def", 0, 0, "placeholder", "error");
+        mLoader.posted.runAll();
+        assertEquals("placeholder", view.image);
+        // the image is kept for the next time it is bound
+        assertEquals("image abc", mLoader.getCached("abc", 0, 0));
+
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        assertEquals("image def", view.image);
+    }
+
+    @Test
+    public void testNullCancels() {
+        TestView view = new TestView();
+        mLoader.load(view, "abc", 0, 0, "placeholder", "error");
+        mLoader.load(view, null, 0, 0, "empty", "error");
+        assertEquals("empty", view.image);
+        assertNull(view.request);
+        mDecodes.runAll();
+        assertEquals(0, mLoader.decoded.size());
+        assertEquals(0, mLoader.posted.size());
+    }
+
+    @Test
+    public void testError() {
+        TestView view = new TestView();
+        mLoader.load(view, "fail", 0, 0, "placeholder", "error");
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        assertEquals("error", view.image);
+        assertEquals(0, mLoader.getCacheBytes());
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed() {
+        // images are 7 bytes each and the cache holds 16 bytes
+        mLoader = new TestLoader(mDecodes, 16);
+        load("a");
+        load("b");
+        assertEquals(14, mLoader.getCacheBytes());
+        // use a so that b is evicted
+        assertEquals("image a", mLoader.getCached("a", 0, 0));
+        load("c");
+        assertEquals(14, mLoader.getCacheBytes());
+        assertEquals("image a", mLoader.getCached("a", 0, 0));
+        assertNull(mLoader.getCached("b", 0, 0));
+        assertEquals("image c", mLoader.getCached("c", 0, 0));
+
+        mLoader.clearCache();
+        assertEquals(0, mLoader.getCacheBytes());
+        assertNull(mLoader.getCached("a", 0, 0));
+    }
+
+    @Test
+    public void testImagesLargerThanCacheAreNotCached() {
+        TestView view = new TestView();
+        mLoader.load(view, "too large", 0, 0, null, null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+        assertEquals("image too large", view.image);
+        assertEquals(0, mLoader.getCacheBytes());
+    }
+
+    @Test
+    public void testCalculateSampleSize() {
+        assertEquals(1, BitmapLoader.calculateSampleSize(1000, 1000, 0, 0));
+        assertEquals(1, BitmapLoader.calculateSampleSize(1000, 1000, 1000, 1000));
+        assertEquals(1, BitmapLoader.calculateSampleSize(1000, 1000, 501, 100));
+        assertEquals(2, BitmapLoader.calculateSampleSize(1000, 1000, 500, 500));
+        assertEquals(4, BitmapLoader.calculateSampleSize(1000, 1000, 200, 200));
+        assertEquals(8, BitmapLoader.calculateSampleSize(1000, 500, 100, 0));
+        assertEquals(1, BitmapLoader.calculateSampleSize(100, 100, 200, 200));
+    }
+
+    private void load(String uri) {
+        mLoader.load(new TestView(), uri, 0, 0, null, null);
+        mDecodes.runAll();
+        mLoader.posted.runAll();
+    }
+
+    private static class TestView {
+        BitmapLoader.Request<TestView, String, String> request;
+        String image;
+    }
+
+    private static class TaskList extends ArrayList<Runnable> implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            add(command);
+        }
+
+        void runAll() {
+            while (!isEmpty()) {
+                remove(0).run();
+            }
+        }
+    }
+
+    private static class TestLoader extends BitmapLoader<TestView, String, String> {
+        final List<String> decoded = new ArrayList<String>();
+        final List<Integer> decodedWidths = new ArrayList<Integer>();
+        final TaskList posted = new TaskList();
+
+        TestLoader(Executor executor, int maxCacheBytes) {
+            super(executor, maxCacheBytes);
+        }
+
+        @Override
+        Request<TestView, String, String> getRequest(TestView view) {
+            return view.request;
+        }
+
+        @Override
+        void setRequest(TestView view, Request<TestView, String, String> request) {
+            view.request = request;
+        }
+
+        @Override
+        String decode(String uri, int width, int height) throws Exception {
+            decoded.add(uri);
+            decodedWidths.add(width);
+            if ("fail".equals(uri)) {
+                throw new Exception("cannot decode " + uri);
+            }
+            return "image " + uri;
+        }
+
+        @Override
+        int sizeOf(String image) {
+            return image.length();
+        }
+
+        @Override
+        void post(Runnable runnable) {
+            posted.add(runnable);
+        }
+
+        @Override
+        void setImage(TestView view, String image) {
+            view.image = image;
+        }
+
+        @Override
+        void setPlaceholder(TestView view, String placeholder) {
+            view.image = placeholder;
+        }
+    }
+}
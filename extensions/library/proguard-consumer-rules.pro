@@ -0,0 +1,4 @@
+# ViewDataBinding updates this field through an AtomicIntegerFieldUpdater, which looks it up by name.
+-keepclassmembers class android.databinding.ViewDataBinding {
+    volatile int mPendingRebind;
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2015 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import android.databinding.ObservableParcelTest.MyParcelable;
+import android.os.Parcel;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the bulk encoding of ObservableArrayList with copying it into a plain list and
+ * writing it with {@link Parcel#writeList(List)}, which is what saving instance state had to do
+ * before the observable collections were Parcelable.
+ */
+public class ObservableCollectionParcelBenchmark extends AndroidTestCase {
+    private static final String TAG = "ObservableParcelBench";
+    private static final int SIZE = 10000;
+    private static final int ITERATIONS = 20;
+
+    public void testIntList() {
+        ObservableArrayList<Integer> list = new ObservableArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+        compare("int", list);
+    }
+
+    public void testStringList() {
+        ObservableArrayList<String> list = new ObservableArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            list.add("item " + i);
+        }
+        compare("String", list);
+    }
+
+    public void testParcelableList() {
+        ObservableArrayList<MyParcelable> list = new ObservableArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            list.add(new MyParcelable(i, "item " + i));
+        }
+        compare("Parcelable", list);
+    }
+
+    private void compare(String name, ObservableArrayList<?> list) {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        int bulkSize = 0;
+        int genericSize = 0;
+        long bulkNanos = 0;
+        long genericNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            Parcel parcel = Parcel.obtain();
+            long start = System.nanoTime();
+            parcel.writeParcelable(list, 0);
+            bulkSize = parcel.dataSize();
+            parcel.setDataPosition(0);
+            ObservableArrayList read = parcel.readParcelable(classLoader);
+            bulkNanos += System.nanoTime() - start;
+            parcel.recycle();
+            assertEquals(list, read);
+
+            parcel = Parcel.obtain();
+            start = System.nanoTime();
+            parcel.writeList(new ArrayList<Object>(list));
+            genericSize = parcel.dataSize();
+            parcel.setDataPosition(0);
+            ArrayList<Object> readList = new ArrayList<Object>();
+            parcel.readList(readList, classLoader);
+            genericNanos += System.nanoTime() - start;
+            parcel.recycle();
+            assertEquals(list, readList);
+        }
+        Log.i(TAG, name + " list of " + SIZE + ": bulk " + bulkSize + " bytes, "
+                + (bulkNanos / ITERATIONS / 1000) + "us; writeList " + genericSize + " bytes, "
+                + (genericNanos / ITERATIONS / 1000) + "us");
+        assertTrue(bulkSize <= genericSize);
+    }
+}
@@ -91,6 +91,64 @@ public class ObservableParcelTest extends AndroidTestCase {
         assertEquals(Short.MIN_VALUE, read.get());
     }
 
+    public void testParcelIntList() {
+        ObservableArrayList<Integer> list = new ObservableArrayList<>();
+        list.add(Integer.MIN_VALUE);
+        list.add(0);
+        list.add(Integer.MAX_VALUE);
+        ObservableArrayList read = parcelAndUnparcel(list, ObservableArrayList.class);
+        assertEquals(list, read);
+    }
+
+    public void testParcelStringList() {
+        ObservableArrayList<String> list = new ObservableArrayList<>();
+        list.add("foo");
+        list.add(null);
+        list.add("bar");
+        ObservableArrayList read = parcelAndUnparcel(list, ObservableArrayList.class);
+        assertEquals(list, read);
+    }
+
+    public void testParcelParcelableList() {
+        ObservableArrayList<MyParcelable> list = new ObservableArrayList<>();
+        list.add(new MyParcelable(1, "foo"));
+        list.add(new MyParcelable(2, "bar"));
+        ObservableArrayList read = parcelAndUnparcel(list, ObservableArrayList.class);
+        assertEquals(list, read);
+    }
+
+    public void testParcelMixedList() {
+        ObservableArrayList<Object> list = new ObservableArrayList<>();
+        list.add(1);
+        list.add("foo");
+        list.add(null);
+        list.add(2L);
+        ObservableArrayList read = parcelAndUnparcel(list, ObservableArrayList.class);
+        assertEquals(list, read);
+    }
+
+    public void testParcelEmptyList() {
+        ObservableArrayList<Object> list = new ObservableArrayList<>();
+        ObservableArrayList read = parcelAndUnparcel(list, ObservableArrayList.class);
+        assertTrue(read.isEmpty());
+    }
+
+    public void testParcelMap() {
+        ObservableArrayMap<String, Double> map = new ObservableArrayMap<>();
+        map.put("foo", 1.5);
+        map.put("bar", -2.5);
+        ObservableArrayMap read = parcelAndUnparcel(map, ObservableArrayMap.class);
+        assertEquals(map, read);
+    }
+
+    public void testParcelMixedMap() {
+        ObservableArrayMap<Object, Object> map = new ObservableArrayMap<>();
+        map.put(1, "foo");
+        map.put("bar", new MyParcelable(3, "baz"));
+        ObservableArrayMap read = parcelAndUnparcel(map, ObservableArrayMap.class);
+        assertEquals(map, read);
+    }
+
     public void testSerializeInt() throws IOException, ClassNotFoundException {
         ObservableInt observableInt = new ObservableInt();
         observableInt.set(Integer.MAX_VALUE - 1);
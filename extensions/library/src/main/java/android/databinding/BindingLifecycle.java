@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+/**
+ * The lifecycle of the screen that owns a binding, set with
+ * {@link ViewDataBinding#setLifecycle(BindingLifecycle)}. A binding stops observing its
+ * observables while its lifecycle is not started. It only needs to know whether the owner is
+ * at least started, so it can be implemented on top of any lifecycle, or driven directly with
+ * {@link BindingLifecycleRegistry}.
+ */
+public interface BindingLifecycle {
+    /**
+     * Returns whether the owner is started, as after Activity#onStart() and before
+     * Activity#onStop().
+     *
+     * @return whether the owner is started.
+     */
+    boolean isStarted();
+
+    /**
+     * Adds an observer that is called every time the owner is started or stopped.
+     *
+     * @param observer The observer to add.
+     */
+    void addObserver(Observer observer);
+
+    /**
+     * Removes an observer added with {@link #addObserver(Observer)}.
+     *
+     * @param observer The observer to remove.
+     */
+    void removeObserver(Observer observer);
+
+    /**
+     * Receives the changes of a {@link BindingLifecycle}.
+     */
+    interface Observer {
+        /**
+         * Called when the owner is started or stopped.
+         *
+         * @param lifecycle The lifecycle that changed.
+         * @param started Whether the owner is now started.
+         */
+        void onStartedChanged(BindingLifecycle lifecycle, boolean started);
+    }
+}
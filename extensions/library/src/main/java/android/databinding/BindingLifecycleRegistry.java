@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+/**
+ * A {@link BindingLifecycle} whose state is set by its owner, for instance from the onStart()
+ * and onStop() methods of an Activity or a Fragment.
+ */
+public class BindingLifecycleRegistry implements BindingLifecycle {
+    private static final CallbackRegistry.NotifierCallback<Observer, BindingLifecycle, Void>
+            NOTIFIER_CALLBACK = new CallbackRegistry.NotifierCallback<Observer, BindingLifecycle,
+            Void>() {
+        @Override
+        public void onNotifyCallback(Observer callback, BindingLifecycle sender, int arg,
+                Void notUsed) {
+            callback.onStartedChanged(sender, arg != 0);
+        }
+    };
+
+    private final CallbackRegistry<Observer, BindingLifecycle, Void> mObservers =
+            new CallbackRegistry<Observer, BindingLifecycle, Void>(NOTIFIER_CALLBACK);
+
+    private boolean mIsStarted;
+
+    /**
+     * Creates a lifecycle that is not started.
+     */
+    public BindingLifecycleRegistry() {
+    }
+
+    /**
+     * Creates a lifecycle in the given state.
+     *
+     * @param started Whether the owner is started.
+     */
+    public BindingLifecycleRegistry(boolean started) {
+        mIsStarted = started;
+    }
+
+    /**
+     * Sets whether the owner is started and notifies the observers if it changed.
+     *
+     * @param started Whether the owner is started.
+     */
+    public void setStarted(boolean started) {
+        if (mIsStarted != started) {
+            mIsStarted = started;
+            mObservers.notifyCallbacks(this, started ? 1 : 0, null);
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return mIsStarted;
+    }
+
+    @Override
+    public void addObserver(Observer observer) {
+        mObservers.add(observer);
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        mObservers.remove(observer);
+    }
+}
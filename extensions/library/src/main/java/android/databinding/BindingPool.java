@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps recycled bindings by layout id so that they can be reused instead of inflating a new
+ * layout, for instance by several adapters showing the same item layout. A pool must only be
+ * used from the UI thread.
+ * <pre>
+ * ItemBinding binding = pool.acquire(inflater, R.layout.item, parent);
+ * binding.rebind(BR.item, item);
+ * ...
+ * pool.release(R.layout.item, binding);
+ * </pre>
+ */
+public class BindingPool {
+    private static final int DEFAULT_MAX_SIZE = 5;
+
+    private final SparseArray<ArrayList<ViewDataBinding>> mBindings =
+            new SparseArray<ArrayList<ViewDataBinding>>();
+
+    private final SparseIntArray mMaxSizes = new SparseIntArray();
+
+    /**
+     * Sets the maximum number of recycled bindings kept for a layout. The default is 5.
+     *
+     * @param layoutId The layout resource ID.
+     * @param maxSize The maximum number of recycled bindings to keep for layoutId.
+     */
+    public void setMaxSize(int layoutId, int maxSize) {
+        mMaxSizes.put(layoutId, maxSize);
+        final ArrayList<ViewDataBinding> bindings = mBindings.get(layoutId);
+        if (bindings != null) {
+            while (bindings.size() > maxSize) {
+                bindings.remove(bindings.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns a recycled binding for the layout or inflates a new one if there is none. The
+     * root View of the binding is not attached to parent.
+     *
+     * @param inflater The LayoutInflater used when a new layout must be inflated.
+     * @param layoutId The layout resource ID.
+     * @param parent Optional view used to create the LayoutParams of a newly inflated root.
+     * @return A recycled binding or a newly inflated binding for layoutId.
+     */
+    public <T extends ViewDataBinding> T acquire(LayoutInflater inflater, int layoutId,
+            @Nullable ViewGroup parent) {
+        final ArrayList<ViewDataBinding> bindings = mBindings.get(layoutId);
+        if (bindings != null && !bindings.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            final T binding = (T) bindings.remove(bindings.size() - 1);
+            return binding;
+        }
+        return DataBindingUtil.inflate(inflater, layoutId, parent, false);
+    }
+
+    /**
+     * Recycles binding and keeps it for a later {@link #acquire(LayoutInflater, int, ViewGroup)}
+     * unless the pool for its layout is full. The root View must have been removed from its
+     * parent.
+     *
+     * @param layoutId The layout resource ID that binding was inflated from.
+     * @param binding The binding that is no longer used.
+     * @return <code>true</code> if binding was kept in the pool.
+     */
+    public boolean release(int layoutId, ViewDataBinding binding) {
+        binding.recycle();
+        ArrayList<ViewDataBinding> bindings = mBindings.get(layoutId);
+        if (bindings == null) {
+            bindings = new ArrayList<ViewDataBinding>();
+            mBindings.put(layoutId, bindings);
+        }
+        if (bindings.size() >= mMaxSizes.get(layoutId, DEFAULT_MAX_SIZE)) {
+            return false;
+        }
+        bindings.add(binding);
+        return true;
+    }
+
+    /**
+     * Removes all recycled bindings.
+     */
+    public void clear() {
+        mBindings.clear();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how much work the bindings of each layout do at runtime, to find the layouts that
+ * cost frames in production. Profiling is off until {@link #start()} is called. While it is
+ * off, each instrumented call in {@link ViewDataBinding} costs one volatile read.
+ * <p>
+ * For each binding class the profiler records:
+ * <ul>
+ *     <li>the number of times executeBindings ran and their total and maximum duration,</li>
+ *     <li>the time spent in {@link OnRebindCallback}s,</li>
+ *     <li>the number of rebind requests,</li>
+ *     <li>the field change notifications received and how many of them dirtied the binding,</li>
+ *     <li>the number of times an observed object was replaced.</li>
+ * </ul>
+ * Counters are striped by thread so recording does not contend between threads.
+ * <pre>
+ * BindingProfiler.start();
+ * ...
+ * Log.i(TAG, BindingProfiler.getActive().dumpText());
+ * BindingProfiler.stop();
+ * </pre>
+ */
+public final class BindingProfiler {
+    /**
+     * The profiler that records or null when profiling is off.
+     */
+    static volatile BindingProfiler sActive;
+
+    private final ConcurrentHashMap<Class<?>, Stats> mStats =
+            new ConcurrentHashMap<Class<?>, Stats>();
+
+    BindingProfiler() {
+    }
+
+    /**
+     * Starts recording into a new profiler.
+     *
+     * @return The profiler that is now recording.
+     */
+    public static BindingProfiler start() {
+        final BindingProfiler profiler = new BindingProfiler();
+        sActive = profiler;
+        return profiler;
+    }
+
+    /**
+     * Stops recording. The profiler returned by {@link #start()} keeps its data.
+     */
+    public static void stop() {
+        sActive = null;
+    }
+
+    /**
+     * Returns the profiler that is recording.
+     *
+     * @return The profiler that is recording or <code>null</code> when profiling is off.
+     */
+    public static BindingProfiler getActive() {
+        return sActive;
+    }
+
+    /**
+     * Clears the recorded data.
+     */
+    public void reset() {
+        for (Stats stats : mStats.values()) {
+            stats.reset();
+        }
+    }
+
+    Stats getStats(Class<?> bindingClass) {
+        Stats stats = mStats.get(bindingClass);
+        if (stats == null) {
+            final Stats created = new Stats(bindingClass);
+            stats = mStats.putIfAbsent(bindingClass, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the recorded data as one line per binding class, the most expensive first.
+     *
+     * @return The recorded data as text.
+     */
+    public String dumpText() {
+        final StringBuilder sb = new StringBuilder();
+        for (Stats stats : getSortedStats()) {
+            sb.append(stats.mBindingClass.getName())
+                    .append(": rebinds=").append(stats.mRebinds.get())
+                    .append(" executeTotalUs=").append(stats.mExecuteNanos.get() / 1000)
+                    .append(" executeMaxUs=").append(stats.mMaxExecuteNanos.get() / 1000)
+                    .append(" callbackUs=").append(stats.mCallbackNanos.get() / 1000)
+                    .append(" rebindRequests=").append(stats.mRebindRequests.get())
+                    .append(" fieldChanges=").append(stats.mFieldChanges.get())
+                    .append(" dirtyingFieldChanges=").append(stats.mDirtyingFieldChanges.get())
+                    .append(" registrationChanges=").append(stats.mRegistrationChanges.get())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the recorded data as a JSON array with one object per binding class, the most
+     * expensive first. Durations are in microseconds.
+     *
+     * @return The recorded data as JSON.
+     */
+    public String dumpJson() {
+        final StringBuilder sb = new StringBuilder("[");
+        boolean first = true;
+        for (Stats stats : getSortedStats()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"binding\":\"").append(stats.mBindingClass.getName())
+                    .append("\",\"rebinds\":").append(stats.mRebinds.get())
+                    .append(",\"executeTotalUs\":").append(stats.mExecuteNanos.get() / 1000)
+                    .append(",\"executeMaxUs\":").append(stats.mMaxExecuteNanos.get() / 1000)
+                    .append(",\"callbackUs\":").append(stats.mCallbackNanos.get() / 1000)
+                    .append(",\"rebindRequests\":").append(stats.mRebindRequests.get())
+                    .append(",\"fieldChanges\":").append(stats.mFieldChanges.get())
+                    .append(",\"dirtyingFieldChanges\":")
+                    .append(stats.mDirtyingFieldChanges.get())
+                    .append(",\"registrationChanges\":")
+                    .append(stats.mRegistrationChanges.get())
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private ArrayList<Stats> getSortedStats() {
+        final ArrayList<Stats> sorted = new ArrayList<Stats>(mStats.values());
+        Collections.sort(sorted, new Comparator<Stats>() {
+            @Override
+            public int compare(Stats lhs, Stats rhs) {
+                final long lhsNanos = lhs.mExecuteNanos.get();
+                final long rhsNanos = rhs.mExecuteNanos.get();
+                return lhsNanos < rhsNanos ? 1 : (lhsNanos == rhsNanos ? 0 : -1);
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * The counters of one binding class.
+     */
+    static final class Stats {
+        final Class<?> mBindingClass;
+        final StripedCounter mRebinds = new StripedCounter();
+        final StripedCounter mExecuteNanos = new StripedCounter();
+        final AtomicLong mMaxExecuteNanos = new AtomicLong();
+        final StripedCounter mCallbackNanos = new StripedCounter();
+        final StripedCounter mRebindRequests = new StripedCounter();
+        final StripedCounter mFieldChanges = new StripedCounter();
+        final StripedCounter mDirtyingFieldChanges = new StripedCounter();
+        final StripedCounter mRegistrationChanges = new StripedCounter();
+
+        Stats(Class<?> bindingClass) {
+            mBindingClass = bindingClass;
+        }
+
+        void recordExecute(long nanos) {
+            mRebinds.increment();
+            mExecuteNanos.add(nanos);
+            long max;
+            do {
+                max = mMaxExecuteNanos.get();
+            } while (nanos > max && !mMaxExecuteNanos.compareAndSet(max, nanos));
+        }
+
+        void recordFieldChange(boolean dirtied) {
+            mFieldChanges.increment();
+            if (dirtied) {
+                mDirtyingFieldChanges.increment();
+            }
+        }
+
+        void reset() {
+            mRebinds.reset();
+            mExecuteNanos.reset();
+            mMaxExecuteNanos.set(0);
+            mCallbackNanos.reset();
+            mRebindRequests.reset();
+            mFieldChanges.reset();
+            mDirtyingFieldChanges.reset();
+            mRegistrationChanges.reset();
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package android.databinding;
 
 import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.Nullable;
 import android.view.InflateException;
 import android.view.LayoutInflater;
@@ -24,6 +26,9 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
 /**
  * Utility class to create {@link ViewDataBinding} from layouts.
  */
@@ -121,6 +126,60 @@ public class DataBindingUtil {
         }
     }
 
+    /**
+     * Inflates a binding layout and creates its binding on executor, then passes the binding to
+     * listener on the calling thread. This uses the DataBindingComponent set in
+     * {@link #setDefaultComponent(DataBindingComponent)}.
+     *
+     * @param inflater The LayoutInflater used to inflate the binding layout.
+     * @param layoutId The layout resource ID of the layout to inflate. It must not be a merge
+     *                 layout.
+     * @param parent Optional view that provides a set of LayoutParams values for root of the
+     *               inflated hierarchy. The hierarchy is not attached to it.
+     * @param executor The Executor that inflates the layout and creates the binding.
+     * @param listener Called on the calling thread with the newly-created binding or
+     *                 <code>null</code> if the layoutId wasn't for a binding layout.
+     * @see #inflateAsync(LayoutInflater, int, ViewGroup, Executor, OnInflateFinishedListener,
+     * DataBindingComponent)
+     */
+    public static <T extends ViewDataBinding> void inflateAsync(LayoutInflater inflater,
+            int layoutId, @Nullable ViewGroup parent, Executor executor,
+            OnInflateFinishedListener<T> listener) {
+        inflateAsync(inflater, layoutId, parent, executor, listener, sDefaultComponent);
+    }
+
+    /**
+     * Inflates a binding layout and creates its binding on executor, then passes the binding to
+     * listener on the calling thread, which must be a Looper thread.
+     * <p>
+     * The bindings created on executor, including the bindings of included layouts, do not
+     * request frames until they reach the calling thread. Their pending rebinds are then
+     * scheduled before listener is called, containing bindings before the bindings they include.
+     * ViewStubs are left uninflated, so their bindings are created on the calling thread when
+     * they are inflated. The layout must only contain Views that can be inflated without a
+     * Looper.
+     *
+     * @param inflater The LayoutInflater used to inflate the binding layout.
+     * @param layoutId The layout resource ID of the layout to inflate. It must not be a merge
+     *                 layout.
+     * @param parent Optional view that provides a set of LayoutParams values for root of the
+     *               inflated hierarchy. The hierarchy is not attached to it.
+     * @param executor The Executor that inflates the layout and creates the binding.
+     * @param listener Called on the calling thread with the newly-created binding or
+     *                 <code>null</code> if the layoutId wasn't for a binding layout.
+     * @param bindingComponent The DataBindingComponent to use in the binding.
+     * @throws IllegalStateException When called from a thread without a Looper.
+     */
+    public static <T extends ViewDataBinding> void inflateAsync(LayoutInflater inflater,
+            int layoutId, @Nullable ViewGroup parent, Executor executor,
+            OnInflateFinishedListener<T> listener, DataBindingComponent bindingComponent) {
+        if (Looper.myLooper() == null) {
+            throw new IllegalStateException("inflateAsync must be called from a Looper thread");
+        }
+        executor.execute(new InflateTask<T>(inflater, layoutId, parent, listener,
+                bindingComponent));
+    }
+
     /**
      * Returns the binding for the given layout root or creates a binding if one
      * does not exist. This uses the DataBindingComponent set in
@@ -305,4 +364,65 @@ public class DataBindingUtil {
             return bind(component, children, layoutId);
         }
     }
+
+    /**
+     * Receives the binding created by
+     * {@link #inflateAsync(LayoutInflater, int, ViewGroup, Executor, OnInflateFinishedListener)}.
+     */
+    public interface OnInflateFinishedListener<T extends ViewDataBinding> {
+        /**
+         * Called on the thread that started the inflation.
+         *
+         * @param binding The newly-created binding or <code>null</code> if the layout wasn't a
+         *                binding layout.
+         */
+        void onInflateFinished(T binding);
+    }
+
+    /**
+     * Inflates on the Executor and then delivers the binding on the thread of mHandler.
+     */
+    private static class InflateTask<T extends ViewDataBinding> implements Runnable {
+        private final LayoutInflater mInflater;
+        private final int mLayoutId;
+        private final ViewGroup mParent;
+        private final OnInflateFinishedListener<T> mListener;
+        private final DataBindingComponent mBindingComponent;
+        private final Handler mHandler = new Handler();
+        private boolean mIsInflated;
+        private T mBinding;
+        private ArrayList<ViewDataBinding> mCreatedBindings;
+        private RuntimeException mError;
+
+        InflateTask(LayoutInflater inflater, int layoutId, ViewGroup parent,
+                OnInflateFinishedListener<T> listener, DataBindingComponent bindingComponent) {
+            mInflater = inflater;
+            mLayoutId = layoutId;
+            mParent = parent;
+            mListener = listener;
+            mBindingComponent = bindingComponent;
+        }
+
+        @Override
+        public void run() {
+            if (mIsInflated) {
+                if (mError != null) {
+                    throw mError;
+                }
+                ViewDataBinding.attachDeferredBindings(mCreatedBindings);
+                mListener.onInflateFinished(mBinding);
+                return;
+            }
+            ViewDataBinding.startDeferredBindings();
+            try {
+                mBinding = inflate(mInflater, mLayoutId, mParent, false, mBindingComponent);
+            } catch (RuntimeException e) {
+                mError = e;
+            } finally {
+                mCreatedBindings = ViewDataBinding.endDeferredBindings();
+            }
+            mIsInflated = true;
+            mHandler.post(this);
+        }
+    }
 }
@@ -15,15 +15,35 @@
  */
 package android.databinding;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 
 /**
  * An {@link ObservableList} implementation using ArrayList as an implementation.
+ * <p>
+ * This class is parcelable but callbacks are ignored when the list is parcelled. When all
+ * elements share a type (a boxed primitive, String or a single Parcelable class), they are
+ * written in bulk rather than one by one. Elements that cannot be written to a Parcel cause
+ * a RuntimeException, just as with {@link Parcel#writeValue(Object)}.
  */
-public class ObservableArrayList<T> extends ArrayList<T> implements ObservableList<T> {
+public class ObservableArrayList<T> extends ArrayList<T> implements ObservableList<T>,
+        Parcelable {
     private transient ListChangeRegistry mListeners = new ListChangeRegistry();
 
+    public ObservableArrayList() {
+    }
+
+    /**
+     * Creates an ObservableArrayList containing the elements of values. No callbacks are
+     * notified.
+     */
+    private ObservableArrayList(Collection<? extends T> values) {
+        super(values);
+    }
+
     @Override
     public void addOnListChangedCallback(OnListChangedCallback listener) {
         if (mListeners == null) {
@@ -124,4 +144,30 @@ public class ObservableArrayList<T> extends ArrayList<T> implements ObservableLi
             mListeners.notifyRemoved(this, start, count);
         }
     }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        ObservableCollectionParcels.writeValues(dest, this);
+    }
+
+    public static final Parcelable.Creator<ObservableArrayList> CREATOR
+            = new Parcelable.Creator<ObservableArrayList>() {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ObservableArrayList createFromParcel(Parcel source) {
+            return new ObservableArrayList(ObservableCollectionParcels.readValues(source,
+                    getClass().getClassLoader()));
+        }
+
+        @Override
+        public ObservableArrayList[] newArray(int size) {
+            return new ObservableArrayList[size];
+        }
+    };
 }
@@ -15,11 +15,21 @@
  */
 package android.databinding;
 
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.v4.util.ArrayMap;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
-public class ObservableArrayMap<K, V> extends ArrayMap<K, V> implements ObservableMap<K, V> {
+/**
+ * An {@link ObservableMap} implementation using ArrayMap as an implementation.
+ * <p>
+ * This class is parcelable but callbacks are ignored when the map is parcelled. Keys and
+ * values are written as two bulk tables, so String keys are written as a single String list.
+ */
+public class ObservableArrayMap<K, V> extends ArrayMap<K, V> implements ObservableMap<K, V>,
+        Parcelable {
 
     private transient MapChangeRegistry mListeners;
 
@@ -104,4 +114,53 @@ public class ObservableArrayMap<K, V> extends ArrayMap<K, V> implements Observab
             mListeners.notifyCallbacks(this, 0, key);
         }
     }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        final int size = size();
+        ArrayList<Object> keys = new ArrayList<Object>(size);
+        ArrayList<Object> values = new ArrayList<Object>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(keyAt(i));
+            values.add(valueAt(i));
+        }
+        ObservableCollectionParcels.writeValues(dest, keys);
+        ObservableCollectionParcels.writeValues(dest, values);
+    }
+
+    /**
+     * Adds all keys and values without notifying callbacks.
+     */
+    private void putAllSilently(ArrayList<K> keys, ArrayList<V> values) {
+        final int size = keys.size();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            super.put(keys.get(i), values.get(i));
+        }
+    }
+
+    public static final Parcelable.Creator<ObservableArrayMap> CREATOR
+            = new Parcelable.Creator<ObservableArrayMap>() {
+
+        @Override
+        public ObservableArrayMap createFromParcel(Parcel source) {
+            final ClassLoader classLoader = getClass().getClassLoader();
+            ArrayList<Object> keys = ObservableCollectionParcels.readValues(source, classLoader);
+            ArrayList<Object> values = ObservableCollectionParcels.readValues(source,
+                    classLoader);
+            ObservableArrayMap<Object, Object> map = new ObservableArrayMap<Object, Object>();
+            map.putAllSilently(keys, values);
+            return map;
+        }
+
+        @Override
+        public ObservableArrayMap[] newArray(int size) {
+            return new ObservableArrayMap[size];
+        }
+    };
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2015 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.databinding;
+
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes and reads the contents of {@link ObservableArrayList} and {@link ObservableArrayMap}.
+ * <p>
+ * The elements are inspected before writing and, when they all share a type, they are written
+ * with one bulk Parcel call (a primitive array, a String list or a typed Parcelable list)
+ * instead of tagging each element with {@link Parcel#writeValue(Object)}. Mixed contents fall
+ * back to writeValue.
+ */
+final class ObservableCollectionParcels {
+    private static final int EMPTY = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int FLOAT = 3;
+    private static final int DOUBLE = 4;
+    private static final int BOOLEAN = 5;
+    private static final int BYTE = 6;
+    private static final int CHAR = 7;
+    private static final int STRING = 8;
+    private static final int PARCELABLE = 9;
+    private static final int VALUE = 10;
+
+    private ObservableCollectionParcels() {
+    }
+
+    /**
+     * Writes values to dest using the most compact encoding that fits all of them.
+     *
+     * @param dest The Parcel to write to.
+     * @param values The values to write.
+     */
+    public static void writeValues(Parcel dest, List<?> values) {
+        final int type = getType(values);
+        final int size = values.size();
+        dest.writeInt(type);
+        switch (type) {
+            case EMPTY:
+                break;
+            case INT: {
+                int[] array = new int[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Integer) values.get(i);
+                }
+                dest.writeIntArray(array);
+                break;
+            }
+            case LONG: {
+                long[] array = new long[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Long) values.get(i);
+                }
+                dest.writeLongArray(array);
+                break;
+            }
+            case FLOAT: {
+                float[] array = new float[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Float) values.get(i);
+                }
+                dest.writeFloatArray(array);
+                break;
+            }
+            case DOUBLE: {
+                double[] array = new double[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Double) values.get(i);
+                }
+                dest.writeDoubleArray(array);
+                break;
+            }
+            case BOOLEAN: {
+                boolean[] array = new boolean[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Boolean) values.get(i);
+                }
+                dest.writeBooleanArray(array);
+                break;
+            }
+            case BYTE: {
+                byte[] array = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Byte) values.get(i);
+                }
+                dest.writeByteArray(array);
+                break;
+            }
+            case CHAR: {
+                char[] array = new char[size];
+                for (int i = 0; i < size; i++) {
+                    array[i] = (Character) values.get(i);
+                }
+                dest.writeCharArray(array);
+                break;
+            }
+            case STRING: {
+                @SuppressWarnings("unchecked")
+                final List<String> strings = (List<String>) values;
+                dest.writeStringList(strings);
+                break;
+            }
+            case PARCELABLE: {
+                dest.writeString(values.get(0).getClass().getName());
+                @SuppressWarnings("unchecked")
+                final List<Parcelable> parcelables = (List<Parcelable>) values;
+                dest.writeTypedList(parcelables);
+                break;
+            }
+            default:
+                dest.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    dest.writeValue(values.get(i));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Reads values written by {@link #writeValues(Parcel, List)}.
+     *
+     * @param source The Parcel to read from.
+     * @param loader The ClassLoader used to find Parcelable classes.
+     * @return A new list containing the values in their original order.
+     */
+    public static ArrayList<Object> readValues(Parcel source, ClassLoader loader) {
+        final int type = source.readInt();
+        switch (type) {
+            case EMPTY:
+                return new ArrayList<Object>();
+            case INT: {
+                int[] array = source.createIntArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (int value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case LONG: {
+                long[] array = source.createLongArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (long value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case FLOAT: {
+                float[] array = source.createFloatArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (float value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case DOUBLE: {
+                double[] array = source.createDoubleArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (double value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case BOOLEAN: {
+                boolean[] array = source.createBooleanArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (boolean value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case BYTE: {
+                byte[] array = source.createByteArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (byte value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case CHAR: {
+                char[] array = source.createCharArray();
+                ArrayList<Object> values = new ArrayList<Object>(array.length);
+                for (char value : array) {
+                    values.add(value);
+                }
+                return values;
+            }
+            case STRING:
+                return new ArrayList<Object>(source.createStringArrayList());
+            case PARCELABLE:
+                Parcelable.Creator<?> creator = getCreator(source.readString(), loader);
+                return new ArrayList<Object>(source.createTypedArrayList(creator));
+            case VALUE: {
+                final int size = source.readInt();
+                ArrayList<Object> values = new ArrayList<Object>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(source.readValue(loader));
+                }
+                return values;
+            }
+            default:
+                throw new BadParcelableException("Unknown observable collection encoding "
+                        + type);
+        }
+    }
+
+    private static int getType(List<?> values) {
+        final int size = values.size();
+        if (size == 0) {
+            return EMPTY;
+        }
+        final Object first = values.get(0);
+        // null is accepted as a String so that lists of Strings may contain nulls.
+        final int type = getElementType(first);
+        if (type == VALUE) {
+            return VALUE;
+        }
+        final Class<?> firstClass = first == null ? null : first.getClass();
+        for (int i = 1; i < size; i++) {
+            final Object value = values.get(i);
+            if (type == STRING) {
+                if (value != null && !(value instanceof String)) {
+                    return VALUE;
+                }
+            } else if (value == null || value.getClass() != firstClass) {
+                return VALUE;
+            }
+        }
+        return type;
+    }
+
+    private static int getElementType(Object value) {
+        if (value == null || value instanceof String) {
+            return STRING;
+        } else if (value instanceof Integer) {
+            return INT;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Byte) {
+            return BYTE;
+        } else if (value instanceof Character) {
+            return CHAR;
+        } else if (value instanceof Parcelable) {
+            return PARCELABLE;
+        }
+        return VALUE;
+    }
+
+    private static Parcelable.Creator<?> getCreator(String className, ClassLoader loader) {
+        try {
+            Class<?> parcelableClass = Class.forName(className, true, loader);
+            return (Parcelable.Creator<?>) parcelableClass.getField("CREATOR").get(null);
+        } catch (ClassNotFoundException e) {
+            throw new BadParcelableException(e);
+        } catch (NoSuchFieldException e) {
+            throw new BadParcelableException(e);
+        } catch (IllegalAccessException e) {
+            throw new BadParcelableException(e);
+        }
+    }
+}
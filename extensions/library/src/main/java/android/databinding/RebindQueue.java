@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+/**
+ * The ordering and time budget logic of {@link RebindScheduler}. It does not reference any
+ * Android class so that it can be tested on the JVM.
+ * <p>
+ * Items are linked into an intrusive queue through {@link #getNext(Object)} and
+ * {@link #setNext(Object, Object)}. {@link #executeFrame()} runs the queued items ordered by
+ * priority and then by depth, so that containing bindings run before the bindings they
+ * include. When a frame budget is set, items that do not fit in the budget are carried over to
+ * the next frame.
+ *
+ * @param <T> The type of the queued items.
+ */
+abstract class RebindQueue<T> {
+    /**
+     * Attached and shown roots.
+     */
+    static final int PRIORITY_VISIBLE = 0;
+
+    /**
+     * Attached roots that are not shown.
+     */
+    static final int PRIORITY_HIDDEN = 1;
+
+    /**
+     * Roots that are not attached to a window.
+     */
+    static final int PRIORITY_DETACHED = 2;
+
+    /**
+     * Source of time used to measure the frame budget.
+     */
+    interface Clock {
+        long nanoTime();
+    }
+
+    static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Clock mClock;
+
+    /**
+     * The first item waiting for the next frame. Guarded by this.
+     */
+    private T mHead;
+
+    /**
+     * The last item waiting for the next frame. Guarded by this.
+     */
+    private T mTail;
+
+    /**
+     * Whether a frame has been requested. Guarded by this.
+     */
+    private boolean mIsPosted;
+
+    /**
+     * The maximum time to spend in one frame or 0 to execute all items in the same frame.
+     */
+    private volatile long mFrameBudgetNanos;
+
+    /**
+     * Reused between frames to hold the items being executed. Only used in executeFrame.
+     */
+    private Object[] mExecuting = new Object[16];
+
+    /**
+     * The sort keys of mExecuting. Only used in executeFrame.
+     */
+    private long[] mKeys = new long[16];
+
+    int mLastFrameRequestCount;
+
+    int mLastFrameExecuteCount;
+
+    int mLastFrameDeferredCount;
+
+    RebindQueue(Clock clock) {
+        mClock = clock;
+    }
+
+    abstract T getNext(T item);
+
+    abstract void setNext(T item, T next);
+
+    /**
+     * Returns the number of containing items above item.
+     */
+    abstract int getDepth(T item);
+
+    /**
+     * Returns one of {@link #PRIORITY_VISIBLE}, {@link #PRIORITY_HIDDEN} or
+     * {@link #PRIORITY_DETACHED}. Only called when a frame budget is set.
+     */
+    abstract int getPriority(T item);
+
+    abstract boolean hasPendingBindings(T item);
+
+    abstract void execute(T item);
+
+    /**
+     * Requests that {@link #executeFrame()} is called on the next frame.
+     */
+    abstract void postFrame();
+
+    /**
+     * Sets the maximum time spent executing items in one frame. At least one item is executed
+     * in every frame. 0 disables the budget and the priority ordering.
+     */
+    void setFrameBudgetNanos(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+
+    long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /**
+     * Adds item to the queue for the next frame. This may be called from any thread.
+     */
+    final void enqueue(T item) {
+        synchronized (this) {
+            setNext(item, null);
+            if (mTail == null) {
+                mHead = item;
+            } else {
+                setNext(mTail, item);
+            }
+            mTail = item;
+            if (mIsPosted) {
+                return;
+            }
+            mIsPosted = true;
+        }
+        postFrame();
+    }
+
+    /**
+     * Executes the queued items. Must be called on the thread the items belong to.
+     */
+    @SuppressWarnings("unchecked")
+    final void executeFrame() {
+        final long budget = mFrameBudgetNanos;
+        final long start = budget > 0 ? mClock.nanoTime() : 0;
+        int count = 0;
+        synchronized (this) {
+            mIsPosted = false;
+            T item = mHead;
+            mHead = null;
+            mTail = null;
+            while (item != null) {
+                if (count == mExecuting.length) {
+                    grow(count * 2);
+                }
+                mExecuting[count++] = item;
+                final T next = getNext(item);
+                setNext(item, null);
+                item = next;
+            }
+        }
+        final Object[] executing = mExecuting;
+        final long[] keys = mKeys;
+        for (int i = 0; i < count; i++) {
+            final T item = (T) executing[i];
+            long key = getDepth(item);
+            if (budget > 0) {
+                key |= ((long) getPriority(item)) << 32;
+            }
+            // insertion sort, stable and cheap as requests mostly arrive in order
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                executing[j + 1] = executing[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            executing[j + 1] = item;
+        }
+        int executed = 0;
+        int index = 0;
+        for (; index < count; index++) {
+            if (budget > 0 && index > 0 && mClock.nanoTime() - start >= budget) {
+                break;
+            }
+            final T item = (T) executing[index];
+            executing[index] = null;
+            if (hasPendingBindings(item)) {
+                executed++;
+            }
+            execute(item);
+        }
+        final int deferred = count - index;
+        if (deferred > 0) {
+            carryOver(executing, index, count);
+        }
+        mLastFrameRequestCount = count;
+        mLastFrameExecuteCount = executed;
+        mLastFrameDeferredCount = deferred;
+    }
+
+    /**
+     * Puts the items that did not fit in the frame budget back at the front of the queue and
+     * requests another frame.
+     */
+    @SuppressWarnings("unchecked")
+    private void carryOver(Object[] executing, int start, int end) {
+        boolean post;
+        synchronized (this) {
+            T first = (T) executing[start];
+            T last = first;
+            executing[start] = null;
+            for (int i = start + 1; i < end; i++) {
+                final T item = (T) executing[i];
+                executing[i] = null;
+                setNext(last, item);
+                last = item;
+            }
+            setNext(last, mHead);
+            if (mHead == null) {
+                mTail = last;
+            }
+            mHead = first;
+            post = !mIsPosted;
+            mIsPosted = true;
+        }
+        if (post) {
+            postFrame();
+        }
+    }
+
+    private void grow(int size) {
+        Object[] executing = new Object[size];
+        System.arraycopy(mExecuting, 0, executing, 0, mExecuting.length);
+        mExecuting = executing;
+        mKeys = new long[size];
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Collects the rebind requests of all {@link ViewDataBinding}s created on a Looper thread and
+ * executes them from a single frame callback.
+ * <p>
+ * Dirty bindings are linked into an intrusive queue through
+ * {@link ViewDataBinding#mNextPendingRebind}, so enqueueing does not allocate. When the frame
+ * callback runs, bindings are executed in tree order: a binding is executed before the
+ * bindings of the layouts it includes. Executing a parent also executes its dirty included
+ * bindings, so those are skipped when their turn comes instead of being executed twice.
+ * <p>
+ * A frame budget may be set with {@link #setFrameBudgetNanos(long)}. Bindings are then
+ * executed with visible roots first and detached roots last, and the bindings that do not fit
+ * in the budget are executed in the following frames. Explicit calls to
+ * {@link ViewDataBinding#executePendingBindings()} are not affected by the budget.
+ */
+public final class RebindScheduler extends RebindQueue<ViewDataBinding> {
+    private static final ThreadLocal<RebindScheduler> sSchedulers =
+            new ThreadLocal<RebindScheduler>() {
+                @Override
+                protected RebindScheduler initialValue() {
+                    return new RebindScheduler();
+                }
+            };
+
+    // null api < 16
+    private final Choreographer mChoreographer;
+
+    // null api < 16
+    private final Choreographer.FrameCallback mFrameCallback;
+
+    // Posts frames when api < 16 and computed snapshots back to the UI thread.
+    private final Handler mUIThreadHandler;
+
+    private final Runnable mRebindRunnable = new Runnable() {
+        @Override
+        public void run() {
+            executeFrame();
+        }
+    };
+
+    private RebindScheduler() {
+        super(SYSTEM_CLOCK);
+        if (ViewDataBinding.USE_CHOREOGRAPHER) {
+            mChoreographer = Choreographer.getInstance();
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    mRebindRunnable.run();
+                }
+            };
+        } else {
+            mChoreographer = null;
+            mFrameCallback = null;
+        }
+        mUIThreadHandler = new Handler(Looper.myLooper());
+    }
+
+    /**
+     * Returns the scheduler for the calling Looper thread.
+     *
+     * @return the scheduler for the calling Looper thread.
+     */
+    public static RebindScheduler getInstance() {
+        return sSchedulers.get();
+    }
+
+    /**
+     * Sets the maximum time spent executing pending bindings in one frame. When set, bindings
+     * with attached and shown roots are executed first and bindings with detached roots last.
+     * Bindings that do not fit in the budget are executed in the next frame. At least one
+     * binding is executed in every frame.
+     *
+     * @param frameBudgetNanos The budget in nanoseconds or 0 to execute all pending bindings
+     *                         in the same frame, which is the default.
+     */
+    @Override
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        super.setFrameBudgetNanos(frameBudgetNanos);
+    }
+
+    /**
+     * Returns the frame budget set in {@link #setFrameBudgetNanos(long)}.
+     *
+     * @return the frame budget in nanoseconds or 0 if there is no budget.
+     */
+    @Override
+    public long getFrameBudgetNanos() {
+        return super.getFrameBudgetNanos();
+    }
+
+    /**
+     * Returns the number of bindings that were waiting for the most recent frame.
+     *
+     * @return the number of bindings that were waiting for the most recent frame.
+     */
+    public int getLastFrameRequestCount() {
+        return mLastFrameRequestCount;
+    }
+
+    /**
+     * Returns the number of bindings that still had pending bindings when their turn came in
+     * the most recent frame. Included bindings that were already executed by their parent are
+     * not counted.
+     *
+     * @return the number of bindings executed in the most recent frame.
+     */
+    public int getLastFrameExecuteCount() {
+        return mLastFrameExecuteCount;
+    }
+
+    /**
+     * Returns the number of bindings that did not fit in the frame budget of the most recent
+     * frame and were moved to the next frame.
+     *
+     * @return the number of bindings deferred to the next frame.
+     */
+    public int getLastFrameDeferredCount() {
+        return mLastFrameDeferredCount;
+    }
+
+    @Override
+    ViewDataBinding getNext(ViewDataBinding binding) {
+        return binding.mNextPendingRebind;
+    }
+
+    @Override
+    void setNext(ViewDataBinding binding, ViewDataBinding next) {
+        binding.mNextPendingRebind = next;
+    }
+
+    @Override
+    int getDepth(ViewDataBinding binding) {
+        return binding.getDepth();
+    }
+
+    @Override
+    int getPriority(ViewDataBinding binding) {
+        final View root = binding.getRoot();
+        if (root.getWindowToken() == null) {
+            return PRIORITY_DETACHED;
+        } else if (root.isShown()) {
+            return PRIORITY_VISIBLE;
+        } else {
+            return PRIORITY_HIDDEN;
+        }
+    }
+
+    @Override
+    boolean hasPendingBindings(ViewDataBinding binding) {
+        return binding.hasPendingBindings();
+    }
+
+    @Override
+    void execute(ViewDataBinding binding) {
+        binding.rebind();
+    }
+
+    /**
+     * Runs runnable on the thread of this scheduler.
+     */
+    void post(Runnable runnable) {
+        mUIThreadHandler.post(runnable);
+    }
+
+    @Override
+    void postFrame() {
+        if (mChoreographer != null) {
+            mChoreographer.postFrameCallback(mFrameCallback);
+        } else {
+            mUIThreadHandler.post(mRebindRunnable);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.Build.VERSION;
+import android.os.Build.VERSION_CODES;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+
+import java.util.WeakHashMap;
+
+/**
+ * The color, ColorStateList and Drawable resources resolved by the expressions of the
+ * bindings of one Context, keyed by resource id. A Context has its own theme, so Views of
+ * different Contexts never share values. The cached values are dropped when the Configuration
+ * of the Resources changes. Drawables are cached as their ConstantState, so every lookup
+ * returns a new Drawable sharing the loaded state, created with the theme of the Context.
+ * <p>
+ * Snapshots may be computed on a background thread, so all methods are synchronized.
+ */
+final class ResourceCache {
+    private static final WeakHashMap<Context, ResourceCache> sCaches =
+            new WeakHashMap<Context, ResourceCache>();
+
+    private final SparseIntArray mColors = new SparseIntArray();
+
+    private final SparseArray<ColorStateList> mColorStateLists =
+            new SparseArray<ColorStateList>();
+
+    private final SparseArray<Drawable.ConstantState> mDrawables =
+            new SparseArray<Drawable.ConstantState>();
+
+    /**
+     * A copy of the Configuration the cached values were resolved with.
+     */
+    private Configuration mConfiguration;
+
+    /**
+     * Returns the cache shared by the bindings of context.
+     */
+    public static ResourceCache get(Context context) {
+        synchronized (sCaches) {
+            ResourceCache cache = sCaches.get(context);
+            if (cache == null) {
+                cache = new ResourceCache();
+                sCaches.put(context, cache);
+            }
+            return cache;
+        }
+    }
+
+    public synchronized int getColor(View view, int resourceId) {
+        validate(view.getResources());
+        final int index = mColors.indexOfKey(resourceId);
+        if (index >= 0) {
+            return mColors.valueAt(index);
+        }
+        final int color = ViewDataBinding.getColorFromResource(view, resourceId);
+        mColors.put(resourceId, color);
+        return color;
+    }
+
+    public synchronized ColorStateList getColorStateList(View view, int resourceId) {
+        validate(view.getResources());
+        ColorStateList colorStateList = mColorStateLists.get(resourceId);
+        if (colorStateList == null) {
+            colorStateList = ViewDataBinding.getColorStateListFromResource(view, resourceId);
+            mColorStateLists.put(resourceId, colorStateList);
+        }
+        return colorStateList;
+    }
+
+    public synchronized Drawable getDrawable(View view, int resourceId) {
+        final Resources resources = view.getResources();
+        validate(resources);
+        final Drawable.ConstantState state = mDrawables.get(resourceId);
+        if (state != null) {
+            if (VERSION.SDK_INT >= VERSION_CODES.LOLLIPOP) {
+                return state.newDrawable(resources, view.getContext().getTheme());
+            }
+            return state.newDrawable(resources);
+        }
+        final Drawable drawable = ViewDataBinding.getDrawableFromResource(view, resourceId);
+        if (drawable != null) {
+            final Drawable.ConstantState loadedState = drawable.getConstantState();
+            if (loadedState != null) {
+                mDrawables.put(resourceId, loadedState);
+            }
+        }
+        return drawable;
+    }
+
+    private void validate(Resources resources) {
+        final Configuration configuration = resources.getConfiguration();
+        if (mConfiguration == null) {
+            mConfiguration = new Configuration(configuration);
+        } else if (!mConfiguration.equals(configuration)) {
+            mColors.clear();
+            mColorStateLists.clear();
+            mDrawables.clear();
+            mConfiguration = new Configuration(configuration);
+        }
+    }
+}
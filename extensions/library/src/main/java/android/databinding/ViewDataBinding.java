@@ -22,7 +22,6 @@ import android.databinding.CallbackRegistry.NotifierCallback;
 import android.graphics.drawable.Drawable;
 import android.os.Build.VERSION;
 import android.os.Build.VERSION_CODES;
-import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
 import android.util.LongSparseArray;
@@ -30,7 +29,6 @@ import android.util.SparseArray;
 import android.util.SparseBooleanArray;
 import android.util.SparseIntArray;
 import android.util.SparseLongArray;
-import android.view.Choreographer;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.View.OnAttachStateChangeListener;
@@ -38,9 +36,16 @@ import android.view.ViewGroup;
 
 import com.android.databinding.library.R;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Base class for generated data binding classes. If possible, the generated binding should
@@ -74,15 +79,15 @@ public abstract class ViewDataBinding extends BaseObservable {
     // ICS (v 14) fixes a leak when using setTag(int, Object)
     private static final boolean USE_TAG_ID = DataBinderMapper.TARGET_MIN_SDK >= 14;
 
-    private static final boolean USE_CHOREOGRAPHER = SDK_INT >= 16;
+    static final boolean USE_CHOREOGRAPHER = SDK_INT >= 16;
 
     /**
      * Method object extracted out to attach a listener to a bound Observable object.
      */
     private static final CreateWeakListener CREATE_PROPERTY_LISTENER = new CreateWeakListener() {
         @Override
-        public WeakListener create(ViewDataBinding viewDataBinding, int localFieldId) {
-            return new WeakPropertyListener(viewDataBinding, localFieldId).getListener();
+        public WeakListener create() {
+            return new WeakPropertyListener(this).getListener();
         }
     };
 
@@ -91,8 +96,8 @@ public abstract class ViewDataBinding extends BaseObservable {
      */
     private static final CreateWeakListener CREATE_LIST_LISTENER = new CreateWeakListener() {
         @Override
-        public WeakListener create(ViewDataBinding viewDataBinding, int localFieldId) {
-            return new WeakListListener(viewDataBinding, localFieldId).getListener();
+        public WeakListener create() {
+            return new WeakListListener(this).getListener();
         }
     };
 
@@ -101,8 +106,8 @@ public abstract class ViewDataBinding extends BaseObservable {
      */
     private static final CreateWeakListener CREATE_MAP_LISTENER = new CreateWeakListener() {
         @Override
-        public WeakListener create(ViewDataBinding viewDataBinding, int localFieldId) {
-            return new WeakMapListener(viewDataBinding, localFieldId).getListener();
+        public WeakListener create() {
+            return new WeakMapListener(this).getListener();
         }
     };
 
@@ -127,56 +132,127 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     };
 
-    private static final OnAttachStateChangeListener ROOT_REATTACHED_LISTENER;
+    /**
+     * Receives the BindingReferences of collected bindings that still have listeners registered
+     * on an observable so that they can be unregistered.
+     */
+    private static final ReferenceQueue<ViewDataBinding> sReferenceQueue =
+            new ReferenceQueue<ViewDataBinding>();
+
+    /**
+     * The maximum number of released WeakListeners of each kind kept for reuse.
+     */
+    private static volatile int sListenerPoolSize;
+
+    private static final AtomicInteger sCreatedListenerCount = new AtomicInteger();
+
+    private static final AtomicInteger sReusedListenerCount = new AtomicInteger();
+
+    /**
+     * Added to a root the first time a rebind finds it detached and kept from then on. Rebinds
+     * are suspended while the root is detached and the changes are bound once on attach.
+     */
+    private static final OnAttachStateChangeListener ROOT_ATTACH_STATE_LISTENER;
 
     static {
         if (VERSION.SDK_INT < VERSION_CODES.KITKAT) {
-            ROOT_REATTACHED_LISTENER = null;
+            ROOT_ATTACH_STATE_LISTENER = null;
         } else {
-            ROOT_REATTACHED_LISTENER = new OnAttachStateChangeListener() {
+            ROOT_ATTACH_STATE_LISTENER = new OnAttachStateChangeListener() {
                 @TargetApi(VERSION_CODES.KITKAT)
                 @Override
                 public void onViewAttachedToWindow(View v) {
-                    // execute the pending bindings.
                     final ViewDataBinding binding = getBinding(v);
-                    binding.mRebindRunnable.run();
-                    v.removeOnAttachStateChangeListener(this);
+                    if (binding != null) {
+                        binding.mIsDetached = false;
+                        // execute the changes received while detached.
+                        if (binding.hasPendingBindings()) {
+                            binding.rebind();
+                        }
+                    }
                 }
 
                 @Override
                 public void onViewDetachedFromWindow(View v) {
+                    final ViewDataBinding binding = getBinding(v);
+                    if (binding != null) {
+                        binding.mIsDetached = true;
+                    }
                 }
             };
         }
     }
 
     /**
-     * Runnable executed on animation heartbeat to rebind the dirty Views.
+     * Rebinds the dirty Views. Called by {@link RebindScheduler} on animation heartbeat.
      */
-    private final Runnable mRebindRunnable = new Runnable() {
-        @Override
-        public void run() {
-            synchronized (this) {
-                mPendingRebind = false;
-            }
-            if (VERSION.SDK_INT >= VERSION_CODES.KITKAT) {
-                // Nested so that we don't get a lint warning in IntelliJ
-                if (!mRoot.isAttachedToWindow()) {
-                    // Don't execute the pending bindings until the View
-                    // is attached again.
-                    mRoot.removeOnAttachStateChangeListener(ROOT_REATTACHED_LISTENER);
-                    mRoot.addOnAttachStateChangeListener(ROOT_REATTACHED_LISTENER);
-                    return;
+    void rebind() {
+        mPendingRebind = 0;
+        if (isPaused()) {
+            // resume() requests the rebind.
+            return;
+        }
+        if (VERSION.SDK_INT >= VERSION_CODES.KITKAT) {
+            // Nested so that we don't get a lint warning in IntelliJ
+            if (!mRoot.isAttachedToWindow()) {
+                // Don't execute the pending bindings until the View
+                // is attached again.
+                mIsDetached = true;
+                if (!mIsListeningForAttach) {
+                    mIsListeningForAttach = true;
+                    mRoot.addOnAttachStateChangeListener(ROOT_ATTACH_STATE_LISTENER);
                 }
+                return;
             }
+        }
+        if (sComputeExecutor != null && hasBindingSnapshots()) {
+            computePendingBindings();
+        } else {
             executePendingBindings();
         }
-    };
+    }
+
+    /**
+     * The Executor that evaluates the expressions of bindings generated with separate compute
+     * and apply phases or <code>null</code> to evaluate them on the UI thread.
+     */
+    private static volatile Executor sComputeExecutor;
+
+    private static final AtomicIntegerFieldUpdater<ViewDataBinding> PENDING_REBIND_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ViewDataBinding.class, "mPendingRebind");
 
     /**
-     * Flag indicates that there are pending bindings that need to be reevaluated.
+     * Flag indicates that there are pending bindings that need to be reevaluated. 1 when set.
+     * Updated through PENDING_REBIND_UPDATER so that bindings don't each need an AtomicBoolean.
      */
-    private boolean mPendingRebind = false;
+    private volatile int mPendingRebind;
+
+    /**
+     * Set by {@link #pause()} and cleared by {@link #resume()}.
+     */
+    private volatile boolean mIsPaused;
+
+    /**
+     * Whether the root was detached from its window the last time it was checked. Only tracked
+     * once ROOT_ATTACH_STATE_LISTENER has been added to the root.
+     */
+    private volatile boolean mIsDetached;
+
+    /**
+     * Whether ROOT_ATTACH_STATE_LISTENER has been added to the root. Only used on the UI thread.
+     */
+    private boolean mIsListeningForAttach;
+
+    /**
+     * Observes the lifecycle set in {@link #setLifecycle(BindingLifecycle)} and holds it.
+     * <code>null</code> until a lifecycle is set.
+     */
+    private LifecycleObserver mLifecycleObserver;
+
+    /**
+     * Whether the listeners are removed from the observables because the lifecycle is stopped.
+     */
+    private volatile boolean mIsObservationStopped;
 
     /**
      * Indicates that a onPreBind has stopped the executePendingBindings call.
@@ -184,9 +260,15 @@ public abstract class ViewDataBinding extends BaseObservable {
     private boolean mRebindHalted = false;
 
     /**
-     * The observed expressions.
+     * The number of observable expressions.
      */
-    private WeakListener[] mLocalFieldObservers;
+    private final int mLocalFieldCount;
+
+    /**
+     * The weak reference to this binding shared by all of its listeners. It holds the observed
+     * expressions and is <code>null</code> until the first observable is registered.
+     */
+    private BindingReference mReference;
 
     /**
      * The root View that this Binding is associated with.
@@ -203,13 +285,48 @@ public abstract class ViewDataBinding extends BaseObservable {
      */
     private boolean mIsExecutingPendingBindings;
 
-    // null api < 16
-    private Choreographer mChoreographer;
+    /**
+     * Incremented every time a snapshot is applied. A snapshot started before another snapshot
+     * was applied is stale. Guarded by this.
+     */
+    private int mSnapshotGeneration;
+
+    /**
+     * Whether a snapshot is being computed on the compute Executor. Only used on the UI thread.
+     */
+    private boolean mIsComputing;
+
+    /**
+     * The scheduler of the thread this binding was created on. It posts a single frame callback
+     * for all bindings with pending rebinds. It is <code>null</code> for a binding created by
+     * {@link DataBindingUtil#inflateAsync} until the binding is handed to its Looper thread.
+     */
+    private RebindScheduler mScheduler;
+
+    /**
+     * Collects the bindings created on a background thread by
+     * {@link DataBindingUtil#inflateAsync}, in creation order. <code>null</code> on other threads.
+     */
+    private static final ThreadLocal<ArrayList<ViewDataBinding>> sDeferredBindings =
+            new ThreadLocal<ArrayList<ViewDataBinding>>();
+
+    /**
+     * The next binding in the {@link RebindScheduler} queue. Guarded by mScheduler.
+     */
+    ViewDataBinding mNextPendingRebind;
 
-    private final Choreographer.FrameCallback mFrameCallback;
+    /**
+     * The binding of the layout that includes this one or <code>null</code> if this binding
+     * is not included.
+     */
+    ViewDataBinding mContainingBinding;
 
-    // null api >= 16
-    private Handler mUIThreadHandler;
+    /**
+     * Set when the binding of an included layout or of an inflated ViewStub, at any depth,
+     * requests a rebind. Cleared when this binding executes its contained bindings or when
+     * {@link #hasPendingChildren()} finds that they have executed by themselves.
+     */
+    private volatile boolean mHasPendingChildren;
 
     /**
      * The DataBindingComponent used by this data binding. This is used for BindingAdapters
@@ -225,22 +342,54 @@ public abstract class ViewDataBinding extends BaseObservable {
      */
     protected ViewDataBinding(DataBindingComponent bindingComponent, View root, int localFieldCount) {
         mBindingComponent = bindingComponent;
-        mLocalFieldObservers = new WeakListener[localFieldCount];
+        mLocalFieldCount = localFieldCount;
         this.mRoot = root;
-        if (Looper.myLooper() == null) {
+        final ArrayList<ViewDataBinding> deferredBindings = sDeferredBindings.get();
+        if (deferredBindings != null) {
+            // created by inflateAsync, the scheduler is set when it reaches the Looper thread
+            deferredBindings.add(this);
+        } else if (Looper.myLooper() == null) {
             throw new IllegalStateException("DataBinding must be created in view's UI Thread");
-        }
-        if (USE_CHOREOGRAPHER) {
-            mChoreographer = Choreographer.getInstance();
-            mFrameCallback = new Choreographer.FrameCallback() {
-                @Override
-                public void doFrame(long frameTimeNanos) {
-                    mRebindRunnable.run();
-                }
-            };
         } else {
-            mFrameCallback = null;
-            mUIThreadHandler = new Handler(Looper.myLooper());
+            mScheduler = RebindScheduler.getInstance();
+        }
+    }
+
+    /**
+     * Makes the bindings created on the calling thread wait for
+     * {@link #attachDeferredBindings(ArrayList)} instead of using the scheduler of the thread.
+     */
+    static void startDeferredBindings() {
+        sDeferredBindings.set(new ArrayList<ViewDataBinding>());
+    }
+
+    /**
+     * Stops deferring the bindings created on the calling thread.
+     *
+     * @return The bindings created since {@link #startDeferredBindings()}, in creation order.
+     */
+    static ArrayList<ViewDataBinding> endDeferredBindings() {
+        final ArrayList<ViewDataBinding> bindings = sDeferredBindings.get();
+        sDeferredBindings.remove();
+        return bindings;
+    }
+
+    /**
+     * Gives bindings the scheduler of the calling Looper thread and enqueues the rebinds they
+     * requested while they were created. Bindings are created before the bindings of the layouts
+     * they include, so containing bindings are enqueued first.
+     */
+    static void attachDeferredBindings(ArrayList<ViewDataBinding> bindings) {
+        final RebindScheduler scheduler = RebindScheduler.getInstance();
+        final int size = bindings.size();
+        for (int i = 0; i < size; i++) {
+            bindings.get(i).mScheduler = scheduler;
+        }
+        for (int i = 0; i < size; i++) {
+            final ViewDataBinding binding = bindings.get(i);
+            if (binding.mPendingRebind != 0) {
+                scheduler.enqueue(binding);
+            }
         }
     }
 
@@ -270,6 +419,93 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     }
 
+    /**
+     * Marks binding as the binding of a layout included in this one. Included bindings are
+     * executed after their containing binding when rebinds are batched.
+     *
+     * @hide
+     */
+    protected void setContainedBinding(ViewDataBinding binding) {
+        if (binding != null) {
+            binding.mContainingBinding = this;
+            // the rebind requested by its constructor was not propagated
+            if (binding.hasPendingBindings()) {
+                binding.markPendingInContainers();
+            }
+        }
+    }
+
+    /**
+     * Tells the bindings that contain this one that it has pending bindings, so that they
+     * execute it and report it in {@link #hasPendingBindings()} without checking each
+     * contained binding.
+     */
+    private void markPendingInContainers() {
+        ViewDataBinding containing = mContainingBinding;
+        while (containing != null) {
+            containing.mHasPendingChildren = true;
+            containing = containing.mContainingBinding;
+        }
+    }
+
+    /**
+     * Returns whether a binding of an included layout or of an inflated ViewStub has pending
+     * bindings. Only the contained bindings of a binding that was marked by one of them are
+     * checked.
+     *
+     * @hide
+     */
+    protected boolean hasPendingChildren() {
+        if (!mHasPendingChildren) {
+            return false;
+        }
+        // Contained bindings may have executed by themselves since they marked this binding.
+        // Clear the mark before checking them so that a concurrent mark is not lost.
+        mHasPendingChildren = false;
+        if (hasPendingContainedBindings()) {
+            mHasPendingChildren = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether any binding of an included layout or of an inflated ViewStub has pending
+     * bindings. Overridden by generated bindings that contain other bindings.
+     *
+     * @hide
+     */
+    protected boolean hasPendingContainedBindings() {
+        return false;
+    }
+
+    /**
+     * Clears and returns whether a contained binding has requested a rebind. Called before
+     * executing the contained bindings.
+     *
+     * @hide
+     */
+    protected boolean takePendingChildren() {
+        if (!mHasPendingChildren) {
+            return false;
+        }
+        mHasPendingChildren = false;
+        return true;
+    }
+
+    /**
+     * Returns the number of containing bindings above this one.
+     */
+    int getDepth() {
+        int depth = 0;
+        ViewDataBinding containing = mContainingBinding;
+        while (containing != null) {
+            depth++;
+            containing = containing.mContainingBinding;
+        }
+        return depth;
+    }
+
     /**
      * @hide
      */
@@ -279,7 +515,7 @@ public abstract class ViewDataBinding extends BaseObservable {
 
     /**
      * Called when an observed object changes. Sets the appropriate dirty flag if applicable.
-     * @param localFieldId The index into mLocalFieldObservers that this Object resides in.
+     * @param localFieldId The index of the observed expression that this Object resides in.
      * @param object The object that has changed.
      * @param fieldId The BR ID of the field being changed or _all if
      *                no specific field is being notified.
@@ -305,6 +541,38 @@ public abstract class ViewDataBinding extends BaseObservable {
      */
     public abstract boolean setVariable(int variableId, Object value);
 
+    /**
+     * Sets several variables at once. Generated bindings assign all of them, update their dirty
+     * flags under a single lock, notify a single property change and request a single rebind,
+     * which is cheaper than calling a setter for each variable.
+     *
+     * @param variableIds the BR ids of the variables to be set.
+     * @param values The new values of the variables, in the same order as variableIds.
+     * @return <code>true</code> if all the variables are declared or used in the binding or
+     * <code>false</code> otherwise.
+     * @throws IllegalArgumentException if variableIds and values have different lengths.
+     */
+    public boolean setVariables(int[] variableIds, Object[] values) {
+        checkVariables(variableIds, values);
+        boolean allVariables = true;
+        for (int i = 0; i < variableIds.length; i++) {
+            if (!setVariable(variableIds[i], values[i])) {
+                allVariables = false;
+            }
+        }
+        return allVariables;
+    }
+
+    /**
+     * @hide
+     */
+    protected static void checkVariables(int[] variableIds, Object[] values) {
+        if (variableIds.length != values.length) {
+            throw new IllegalArgumentException("Got " + variableIds.length + " variable ids and "
+                    + values.length + " values");
+        }
+    }
+
     /**
      * Add a listener to be called when reevaluating dirty fields. This also allows automatic
      * updates to be halted, but does not stop explicit calls to {@link #executePendingBindings()}.
@@ -329,6 +597,133 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     }
 
+    /**
+     * Stops scheduling rebinds for this binding and the bindings of the layouts it includes,
+     * for instance while its screen is in the back stack. Changes to variables and observed
+     * objects are still recorded, but no frame is requested for them until {@link #resume()}
+     * is called, which binds all of them at once. A binding is also suspended in the same way
+     * while its root is detached from its window. Explicit calls to
+     * {@link #executePendingBindings()} still execute the bindings.
+     */
+    public void pause() {
+        mIsPaused = true;
+    }
+
+    /**
+     * Resumes the rebinds stopped by {@link #pause()} and schedules a single rebind for the
+     * changes received while paused.
+     */
+    public void resume() {
+        mIsPaused = false;
+        if (!isSuspended() && hasPendingBindings()) {
+            requestRebind();
+        }
+    }
+
+    /**
+     * Ties the observation of this binding to the lifecycle of its owner. While the lifecycle is
+     * not started, the binding removes its listeners from the observables it uses, so that
+     * observables shared with other screens do not notify it, and it is not rebound. When the
+     * lifecycle is started again, the listeners are added back and all expressions are
+     * evaluated in a single rebind, as the observables may have changed in between. The
+     * bindings of included layouts are not rebound while this binding is stopped, but keep
+     * their own listeners unless they are given the lifecycle too.
+     * <p>
+     * The binding is only weakly referenced by the lifecycle.
+     *
+     * @param lifecycle The lifecycle of the owner or <code>null</code> to always observe.
+     */
+    public void setLifecycle(BindingLifecycle lifecycle) {
+        final BindingLifecycle current = getLifecycle();
+        if (current == lifecycle) {
+            return;
+        }
+        if (current != null) {
+            current.removeObserver(mLifecycleObserver);
+        }
+        if (lifecycle != null) {
+            if (mLifecycleObserver == null) {
+                mLifecycleObserver = new LifecycleObserver(this);
+            }
+            mLifecycleObserver.mLifecycle = lifecycle;
+            lifecycle.addObserver(mLifecycleObserver);
+            onLifecycleChanged(lifecycle.isStarted());
+        } else {
+            mLifecycleObserver.mLifecycle = null;
+            onLifecycleChanged(true);
+        }
+    }
+
+    /**
+     * Returns the lifecycle set in {@link #setLifecycle(BindingLifecycle)}.
+     *
+     * @return the lifecycle of the owner or <code>null</code> if there is none.
+     */
+    public BindingLifecycle getLifecycle() {
+        final LifecycleObserver observer = mLifecycleObserver;
+        return observer == null ? null : observer.mLifecycle;
+    }
+
+    private void onLifecycleChanged(boolean started) {
+        if (started == !mIsObservationStopped) {
+            return;
+        }
+        final BindingReference reference = mReference;
+        if (!started) {
+            mIsObservationStopped = true;
+            if (reference != null) {
+                for (WeakListener weakListener : reference.mListeners) {
+                    if (weakListener != null) {
+                        weakListener.stopListening();
+                    }
+                }
+            }
+        } else {
+            mIsObservationStopped = false;
+            if (reference != null) {
+                for (WeakListener weakListener : reference.mListeners) {
+                    if (weakListener != null) {
+                        weakListener.startListening();
+                    }
+                }
+            }
+            // changes were missed while stopped.
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Returns whether rebinds are paused by {@link #pause()} on this binding or on a binding
+     * that includes it.
+     *
+     * @return whether rebinds are paused for this binding.
+     */
+    public boolean isPaused() {
+        ViewDataBinding binding = this;
+        do {
+            if (binding.mIsPaused) {
+                return true;
+            }
+            binding = binding.mContainingBinding;
+        } while (binding != null);
+        return false;
+    }
+
+    /**
+     * Returns whether rebinds must not be scheduled, because this binding or a binding that
+     * includes it is paused, has a detached root or has a stopped lifecycle.
+     */
+    private boolean isSuspended() {
+        ViewDataBinding binding = this;
+        do {
+            if (binding.mIsPaused || binding.mIsDetached || binding.mIsObservationStopped) {
+                return true;
+            }
+            binding = binding.mContainingBinding;
+        } while (binding != null);
+        return false;
+    }
+
     /**
      * Evaluates the pending bindings, updating any Views that have expressions bound to
      * modified variables. This <b>must</b> be run on the UI thread.
@@ -338,11 +733,16 @@ public abstract class ViewDataBinding extends BaseObservable {
             requestRebind();
             return;
         }
+        // Release the listeners of collected bindings even when nothing registers new ones.
+        processReferenceQueue();
         if (!hasPendingBindings()) {
             return;
         }
         mIsExecutingPendingBindings = true;
         mRebindHalted = false;
+        final BindingProfiler profiler = BindingProfiler.sActive;
+        final BindingProfiler.Stats stats = profiler == null ? null : profiler.getStats(getClass());
+        long start = stats == null ? 0 : System.nanoTime();
         if (mRebindCallbacks != null) {
             mRebindCallbacks.notifyCallbacks(this, REBIND, null);
 
@@ -350,20 +750,228 @@ public abstract class ViewDataBinding extends BaseObservable {
             if (mRebindHalted) {
                 mRebindCallbacks.notifyCallbacks(this, HALTED, null);
             }
+            if (stats != null) {
+                final long now = System.nanoTime();
+                stats.mCallbackNanos.add(now - start);
+                start = now;
+            }
         }
         if (!mRebindHalted) {
             executeBindings();
+            if (stats != null) {
+                final long now = System.nanoTime();
+                stats.recordExecute(now - start);
+                start = now;
+            }
             if (mRebindCallbacks != null) {
                 mRebindCallbacks.notifyCallbacks(this, REBOUND, null);
+                if (stats != null) {
+                    stats.mCallbackNanos.add(System.nanoTime() - start);
+                }
+            }
+        }
+        mIsExecutingPendingBindings = false;
+    }
+
+    /**
+     * Evaluates the pending bindings on the compute Executor and applies the result on the UI
+     * thread. Only one snapshot is computed at a time. When the binding becomes dirty again
+     * before the snapshot is applied, the snapshot is dropped, its dirty flags are restored and
+     * a new one is computed.
+     */
+    private void computePendingBindings() {
+        if (mIsComputing || mIsExecutingPendingBindings || !hasPendingBindings()) {
+            // A running computation checks for new changes when it completes.
+            return;
+        }
+        mRebindHalted = false;
+        if (mRebindCallbacks != null) {
+            mRebindCallbacks.notifyCallbacks(this, REBIND, null);
+
+            // The onRebindListeners will change mPendingHalted
+            if (mRebindHalted) {
+                mRebindCallbacks.notifyCallbacks(this, HALTED, null);
+                return;
             }
         }
+        mIsComputing = true;
+        sComputeExecutor.execute(new ComputeTask(this));
+    }
+
+    private void onSnapshotComputed(BindingSnapshot snapshot, RuntimeException error) {
+        mIsComputing = false;
+        if (error != null) {
+            throw error;
+        }
+        if (snapshot == null) {
+            // nothing was computed, evaluate on this thread instead
+            executePendingBindings();
+            return;
+        }
+        // Contained bindings are executed by applyBindings, so only changes to this binding
+        // make the snapshot stale. A change made while computing did not get a computation of
+        // its own, so it is picked up here even when contained bindings are pending.
+        final boolean isChanged = hasPendingOwnBindings();
+        if (mIsExecutingPendingBindings || !consumeSnapshot(snapshot) || isChanged) {
+            restoreBindings(snapshot);
+            requestRebind();
+            return;
+        }
+        mIsExecutingPendingBindings = true;
+        applyBindings(snapshot);
+        if (mRebindCallbacks != null) {
+            mRebindCallbacks.notifyCallbacks(this, REBOUND, null);
+        }
         mIsExecutingPendingBindings = false;
     }
 
+    /**
+     * Invalidates the expressions that must be evaluated to initialize the binding of a ViewStub
+     * that has just been inflated. Generated bindings only invalidate the expressions bound on
+     * viewStub.
+     *
+     * @hide
+     */
+    protected void invalidateViewStub(ViewStubProxy viewStub) {
+        invalidateAll();
+    }
+
     void forceExecuteBindings() {
         executeBindings();
     }
 
+    /**
+     * Sets the Executor used to evaluate the binding expressions of layouts that were compiled
+     * with separate compute and apply phases (the <code>android.databinding.splitComputeApply</code>
+     * annotation processor option). Expressions are then evaluated on the Executor and only the
+     * View setters run on the UI thread, so the getters used in those layouts must be safe to
+     * call from the Executor's threads. Explicit calls to {@link #executePendingBindings()}
+     * still evaluate the expressions on the calling thread.
+     * <p>
+     * Layouts that read observables, Views, resources or the Context, or that create listeners,
+     * are always evaluated on the UI thread so that listeners are only registered there.
+     *
+     * @param executor The Executor to evaluate expressions on or <code>null</code> to evaluate
+     *                 them on the UI thread, which is the default.
+     */
+    public static void setComputeExecutor(Executor executor) {
+        sComputeExecutor = executor;
+    }
+
+    /**
+     * Sets the number of listeners of each kind (Observable, ObservableList and ObservableMap)
+     * kept for reuse once the binding that used them has been garbage collected. New bindings
+     * then take their listeners from the pool instead of allocating them. Listeners of a live
+     * binding are always reused when a variable changes, so the pool only helps applications
+     * that keep creating and discarding bindings, such as list items and dialogs.
+     *
+     * @param size The maximum number of listeners of each kind to keep or 0 to not keep any,
+     *             which is the default.
+     */
+    public static void setListenerPoolSize(int size) {
+        sListenerPoolSize = size;
+    }
+
+    /**
+     * Returns the number of observable listeners that have been allocated by all bindings.
+     *
+     * @return the number of observable listeners that have been allocated.
+     * @see #setListenerPoolSize(int)
+     */
+    public static int getCreatedListenerCount() {
+        return sCreatedListenerCount.get();
+    }
+
+    /**
+     * Returns the number of observable listeners that have been taken from the pool instead of
+     * being allocated.
+     *
+     * @return the number of observable listeners taken from the pool.
+     * @see #setListenerPoolSize(int)
+     */
+    public static int getReusedListenerCount() {
+        return sReusedListenerCount.get();
+    }
+
+    /**
+     * Returns whether this binding was generated with {@link #computeBindings()} and
+     * {@link #applyBindings(BindingSnapshot)}. Only layouts compiled with the
+     * <code>android.databinding.splitComputeApply</code> option whose expressions neither
+     * observe anything nor read Views are.
+     *
+     * @hide
+     */
+    protected boolean hasBindingSnapshots() {
+        return false;
+    }
+
+    /**
+     * Returns whether the dirty flags of this binding are set, without checking the bindings
+     * it contains. Overridden by bindings that return true from {@link #hasBindingSnapshots()}.
+     *
+     * @hide
+     */
+    protected boolean hasPendingOwnBindings() {
+        return hasPendingBindings();
+    }
+
+    /**
+     * Takes the dirty flags and evaluates the dirty expressions without touching any View or
+     * observable. May be called on any thread.
+     * <p>
+     * Bindings that return false from {@link #hasBindingSnapshots()} evaluate their expressions
+     * in {@link #executeBindings()} and return null.
+     *
+     * @return The evaluated values or null when the binding has no snapshots.
+     * @hide
+     */
+    protected BindingSnapshot computeBindings() {
+        return null;
+    }
+
+    /**
+     * Calls the View setters with the values of a snapshot returned by
+     * {@link #computeBindings()}. Must be called on the UI thread. Does nothing for bindings
+     * that return false from {@link #hasBindingSnapshots()}.
+     *
+     * @hide
+     */
+    protected void applyBindings(BindingSnapshot snapshot) {
+    }
+
+    /**
+     * Sets the dirty flags taken by {@link #computeBindings()} again when its snapshot is
+     * dropped. Does nothing for bindings that return false from {@link #hasBindingSnapshots()}.
+     *
+     * @hide
+     */
+    protected void restoreBindings(BindingSnapshot snapshot) {
+    }
+
+    /**
+     * Marks the start of the computation of snapshot. Must be called before the dirty flags are
+     * taken.
+     *
+     * @hide
+     */
+    protected final synchronized void startSnapshot(BindingSnapshot snapshot) {
+        snapshot.mGeneration = mSnapshotGeneration;
+    }
+
+    /**
+     * Returns true if no other snapshot was applied since snapshot was started. Snapshots
+     * started before this call become stale.
+     *
+     * @hide
+     */
+    protected final synchronized boolean consumeSnapshot(BindingSnapshot snapshot) {
+        if (snapshot.mGeneration != mSnapshotGeneration) {
+            return false;
+        }
+        mSnapshotGeneration++;
+        return true;
+    }
+
     /**
      * @hide
      */
@@ -385,16 +993,67 @@ public abstract class ViewDataBinding extends BaseObservable {
      * Removes binding listeners to expression variables.
      */
     public void unbind() {
-        for (WeakListener weakListener : mLocalFieldObservers) {
+        final BindingReference reference = mReference;
+        if (reference == null) {
+            return;
+        }
+        for (WeakListener weakListener : reference.mListeners) {
             if (weakListener != null) {
                 weakListener.unregister();
             }
         }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
+    /**
+     * Prepares this binding to be reused for other data, for instance when it is put back in a
+     * {@link BindingPool}. All observables are unregistered, but the listener objects are kept
+     * so that binding new observables does not allocate, and all expressions are invalidated.
+     * Bindings of included layouts and inflated ViewStubs are recycled as well.
+     */
+    public void recycle() {
+        recycleContainedBindings();
         unbind();
+        invalidateAll();
+    }
+
+    /**
+     * Recycles the bindings of included layouts and inflated ViewStubs. Called by
+     * {@link #recycle()}.
+     *
+     * @hide
+     */
+    protected void recycleContainedBindings() {
+    }
+
+    /**
+     * Sets a variable of a recycled binding and evaluates the bindings immediately, as is needed
+     * when binding a list item.
+     *
+     * @param variableId the BR id of the variable to be set.
+     * @param value The new value of the variable.
+     * @return <code>true</code> if the variable is declared or used in the binding or
+     * <code>false</code> otherwise.
+     * @see #recycle()
+     */
+    public boolean rebind(int variableId, Object value) {
+        final boolean isVariable = setVariable(variableId, value);
+        executePendingBindings();
+        return isVariable;
+    }
+
+    /**
+     * Unregisters the listeners of bindings that have been garbage collected and returns them
+     * to their pool. This replaces unbinding from finalize(), which kept every binding and its
+     * Views alive for an extra garbage collection and ran all cleanup on the finalizer thread.
+     * It is called on the UI thread whenever a binding executes or registers a new listener.
+     */
+    private static void processReferenceQueue() {
+        Reference<? extends ViewDataBinding> ref;
+        while ((ref = sReferenceQueue.poll()) != null) {
+            if (ref instanceof BindingReference) {
+                ((BindingReference) ref).releaseListeners();
+            }
+        }
     }
 
     static ViewDataBinding getBinding(View v) {
@@ -423,6 +1082,10 @@ public abstract class ViewDataBinding extends BaseObservable {
 
     private void handleFieldChange(int mLocalFieldId, Object object, int fieldId) {
         boolean result = onFieldChange(mLocalFieldId, object, fieldId);
+        final BindingProfiler profiler = BindingProfiler.sActive;
+        if (profiler != null) {
+            profiler.getStats(getClass()).recordFieldChange(result);
+        }
         if (result) {
             requestRebind();
         }
@@ -432,36 +1095,59 @@ public abstract class ViewDataBinding extends BaseObservable {
      * @hide
      */
     protected boolean unregisterFrom(int localFieldId) {
-        WeakListener listener = mLocalFieldObservers[localFieldId];
+        WeakListener listener = getListener(localFieldId);
         if (listener != null) {
             return listener.unregister();
         }
         return false;
     }
 
+    private WeakListener getListener(int localFieldId) {
+        final BindingReference reference = mReference;
+        return reference == null ? null : reference.mListeners[localFieldId];
+    }
+
     /**
      * @hide
      */
     protected void requestRebind() {
-        synchronized (this) {
-            if (mPendingRebind) {
-                return;
-            }
-            mPendingRebind = true;
+        final BindingProfiler profiler = BindingProfiler.sActive;
+        if (profiler != null) {
+            profiler.getStats(getClass()).mRebindRequests.increment();
         }
-        if (USE_CHOREOGRAPHER) {
-            mChoreographer.postFrameCallback(mFrameCallback);
-        } else {
-            mUIThreadHandler.post(mRebindRunnable);
+        markPendingInContainers();
+        if (isSuspended()) {
+            // the dirty flags are bound on resume() or when the root is attached again
+            return;
         }
+        if (PENDING_REBIND_UPDATER.compareAndSet(this, 0, 1)) {
+            final RebindScheduler scheduler = mScheduler;
+            if (scheduler != null) {
+                scheduler.enqueue(this);
+            }
+        }
+    }
 
+    /**
+     * Sets the bits of mask in the bucket index of flags. Used by bindings generated with the
+     * <code>android.databinding.atomicDirtyFlags</code> option instead of synchronizing.
+     *
+     * @hide
+     */
+    protected static void orDirtyFlags(AtomicLongArray flags, int index, long mask) {
+        // Always write, even when the bits are already set, so that the variable written before
+        // this call is visible to the thread that takes the flags.
+        long current;
+        do {
+            current = flags.get(index);
+        } while (!flags.compareAndSet(index, current, current | mask));
     }
 
     /**
      * @hide
      */
     protected Object getObservedField(int localFieldId) {
-        WeakListener listener = mLocalFieldObservers[localFieldId];
+        WeakListener listener = getListener(localFieldId);
         if (listener == null) {
             return null;
         }
@@ -473,7 +1159,7 @@ public abstract class ViewDataBinding extends BaseObservable {
         if (observable == null) {
             return unregisterFrom(localFieldId);
         }
-        WeakListener listener = mLocalFieldObservers[localFieldId];
+        WeakListener listener = getListener(localFieldId);
         if (listener == null) {
             registerTo(localFieldId, observable, listenerCreator);
             return true;
@@ -481,8 +1167,12 @@ public abstract class ViewDataBinding extends BaseObservable {
         if (listener.getTarget() == observable) {
             return false;//nothing to do, same object
         }
-        unregisterFrom(localFieldId);
-        registerTo(localFieldId, observable, listenerCreator);
+        final BindingProfiler profiler = BindingProfiler.sActive;
+        if (profiler != null) {
+            profiler.getStats(getClass()).mRegistrationChanges.increment();
+        }
+        // the listener of the slot moves to the new observable
+        listener.setTarget(observable, !mIsObservationStopped);
         return true;
     }
 
@@ -531,12 +1221,19 @@ public abstract class ViewDataBinding extends BaseObservable {
         if (observable == null) {
             return;
         }
-        WeakListener listener = mLocalFieldObservers[localFieldId];
+        BindingReference reference = mReference;
+        if (reference == null) {
+            reference = new BindingReference(this, new WeakListener[mLocalFieldCount]);
+            mReference = reference;
+        }
+        WeakListener listener = reference.mListeners[localFieldId];
         if (listener == null) {
-            listener = listenerCreator.create(this, localFieldId);
-            mLocalFieldObservers[localFieldId] = listener;
+            processReferenceQueue();
+            listener = listenerCreator.obtain();
+            listener.attach(reference, localFieldId);
+            reference.mListeners[localFieldId] = listener;
         }
-        listener.setTarget(observable);
+        listener.setTarget(observable, !mIsObservationStopped);
     }
 
     /**
@@ -569,6 +1266,59 @@ public abstract class ViewDataBinding extends BaseObservable {
         return bindings;
     }
 
+    /**
+     * Finds the Views of a layout through the child indexes computed at compile time. When
+     * the inflated hierarchy does not match them, for instance because a View added or
+     * reordered its children, this falls back to walking the whole hierarchy.
+     *
+     * @param bindingComponent The binding component to use with this binding.
+     * @param root The root of the view hierarchy.
+     * @param numBindings The total number of ID'd views, views with expressions, and includes
+     * @param includes The include layout information, indexed by their container's index.
+     * @param viewsWithIds Indexes of views that don't have tags, but have IDs.
+     * @param childPaths The child indexes of each binding and the tag or id it must have.
+     * @return An array of size numBindings containing all Views in the hierarchy that have IDs
+     * (with elements in viewsWithIds), are tagged containing expressions, or the bindings for
+     * included layouts.
+     * @hide
+     */
+    protected static Object[] mapBindings(DataBindingComponent bindingComponent, View root,
+            int numBindings, IncludedLayouts includes, SparseIntArray viewsWithIds,
+            ChildPaths childPaths) {
+        Object[] bindings = findChildPaths(root, numBindings, childPaths);
+        if (bindings == null) {
+            bindings = mapBindings(bindingComponent, root, numBindings, includes, viewsWithIds);
+        }
+        return bindings;
+    }
+
+    private static Object[] findChildPaths(View root, int numBindings, ChildPaths childPaths) {
+        final Object[] bindings = new Object[numBindings];
+        for (int i = 0; i < numBindings; i++) {
+            final int[] path = childPaths.paths[i];
+            if (path == null) {
+                continue;
+            }
+            View view = root;
+            for (int childIndex : path) {
+                if (!(view instanceof ViewGroup)) {
+                    return null;
+                }
+                final ViewGroup viewGroup = (ViewGroup) view;
+                if (childIndex >= viewGroup.getChildCount()) {
+                    return null;
+                }
+                view = viewGroup.getChildAt(childIndex);
+            }
+            final String tag = childPaths.tags[i];
+            if (tag != null ? !tag.equals(view.getTag()) : view.getId() != childPaths.ids[i]) {
+                return null;
+            }
+            bindings[i] = view;
+        }
+        return bindings;
+    }
+
     /** @hide */
     protected static boolean parse(String str, boolean fallback) {
         if (str == null) {
@@ -666,6 +1416,35 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     }
 
+    /**
+     * Returns the color resource resourceId, resolved once per Context and configuration.
+     *
+     * @hide
+     */
+    protected int getCachedColor(View view, int resourceId) {
+        return ResourceCache.get(view.getContext()).getColor(view, resourceId);
+    }
+
+    /**
+     * Returns the ColorStateList resource resourceId, resolved once per Context and
+     * configuration.
+     *
+     * @hide
+     */
+    protected ColorStateList getCachedColorStateList(View view, int resourceId) {
+        return ResourceCache.get(view.getContext()).getColorStateList(view, resourceId);
+    }
+
+    /**
+     * Returns a new Drawable of the drawable resource resourceId, sharing the state loaded
+     * once per Context and configuration.
+     *
+     * @hide
+     */
+    protected Drawable getCachedDrawable(View view, int resourceId) {
+        return ResourceCache.get(view.getContext()).getDrawable(view, resourceId);
+    }
+
     /** @hide */
     protected static <T> T getFromArray(T[] arr, int index) {
         if (arr == null || index < 0 || index >= arr.length) {
@@ -1145,42 +1924,95 @@ public abstract class ViewDataBinding extends BaseObservable {
         void removeListener(T target);
     }
 
-    private static class WeakListener<T> extends WeakReference<ViewDataBinding> {
+    /**
+     * The weak reference to a binding shared by its listeners. It is enqueued in
+     * {@link #sReferenceQueue} when the binding is collected.
+     */
+    private static class BindingReference extends WeakReference<ViewDataBinding> {
+        final WeakListener[] mListeners;
+
+        public BindingReference(ViewDataBinding binder, WeakListener[] listeners) {
+            super(binder, sReferenceQueue);
+            mListeners = listeners;
+        }
+
+        public void releaseListeners() {
+            for (int i = 0; i < mListeners.length; i++) {
+                final WeakListener listener = mListeners[i];
+                if (listener != null) {
+                    mListeners[i] = null;
+                    listener.unregister();
+                    listener.release();
+                }
+            }
+        }
+    }
+
+    private static class WeakListener<T> {
         private final ObservableReference<T> mObservable;
-        protected final int mLocalFieldId;
+        private final CreateWeakListener mCreator;
+        private BindingReference mBinder;
+        protected int mLocalFieldId;
         private T mTarget;
+        private boolean mIsListening;
 
-        public WeakListener(ViewDataBinding binder, int localFieldId,
-                ObservableReference<T> observable) {
-            super(binder);
-            mLocalFieldId = localFieldId;
+        public WeakListener(ObservableReference<T> observable, CreateWeakListener creator) {
             mObservable = observable;
+            mCreator = creator;
+        }
+
+        public void attach(BindingReference binder, int localFieldId) {
+            mBinder = binder;
+            mLocalFieldId = localFieldId;
         }
 
-        public void setTarget(T object) {
+        public void release() {
+            mBinder = null;
+            mCreator.release(this);
+        }
+
+        public void setTarget(T object, boolean listen) {
             unregister();
             mTarget = object;
-            if (mTarget != null) {
-                mObservable.addListener(mTarget);
+            if (listen) {
+                startListening();
             }
         }
 
         public boolean unregister() {
             boolean unregistered = false;
             if (mTarget != null) {
-                mObservable.removeListener(mTarget);
+                stopListening();
                 unregistered = true;
             }
             mTarget = null;
             return unregistered;
         }
 
+        /**
+         * Removes the listener from the target but keeps the target.
+         */
+        public void stopListening() {
+            if (mIsListening) {
+                mObservable.removeListener(mTarget);
+                mIsListening = false;
+            }
+        }
+
+        public void startListening() {
+            if (mTarget != null && !mIsListening) {
+                mObservable.addListener(mTarget);
+                mIsListening = true;
+            }
+        }
+
         public T getTarget() {
             return mTarget;
         }
 
         protected ViewDataBinding getBinder() {
-            ViewDataBinding binder = get();
+            final BindingReference reference = mBinder;
+            ViewDataBinding binder = reference == null ? null : reference.get();
             if (binder == null) {
                 unregister(); // The binder is dead
             }
@@ -1192,8 +2024,8 @@ public abstract class ViewDataBinding extends BaseObservable {
             implements ObservableReference<Observable> {
         final WeakListener<Observable> mListener;
 
-        public WeakPropertyListener(ViewDataBinding binder, int localFieldId) {
-            mListener = new WeakListener<Observable>(binder, localFieldId, this);
+        public WeakPropertyListener(CreateWeakListener creator) {
+            mListener = new WeakListener<Observable>(this, creator);
         }
 
         @Override
@@ -1229,8 +2061,8 @@ public abstract class ViewDataBinding extends BaseObservable {
             implements ObservableReference<ObservableList> {
         final WeakListener<ObservableList> mListener;
 
-        public WeakListListener(ViewDataBinding binder, int localFieldId) {
-            mListener = new WeakListener<ObservableList>(binder, localFieldId, this);
+        public WeakListListener(CreateWeakListener creator) {
+            mListener = new WeakListener<ObservableList>(this, creator);
         }
 
         @Override
@@ -1287,8 +2119,8 @@ public abstract class ViewDataBinding extends BaseObservable {
             implements ObservableReference<ObservableMap> {
         final WeakListener<ObservableMap> mListener;
 
-        public WeakMapListener(ViewDataBinding binder, int localFieldId) {
-            mListener = new WeakListener<ObservableMap>(binder, localFieldId, this);
+        public WeakMapListener(CreateWeakListener creator) {
+            mListener = new WeakListener<ObservableMap>(this, creator);
         }
 
         @Override
@@ -1316,8 +2148,56 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     }
 
-    private interface CreateWeakListener {
-        WeakListener create(ViewDataBinding viewDataBinding, int localFieldId);
+    /**
+     * Forwards the changes of a {@link BindingLifecycle} to a binding without keeping it alive.
+     */
+    private static class LifecycleObserver extends WeakReference<ViewDataBinding>
+            implements BindingLifecycle.Observer {
+        BindingLifecycle mLifecycle;
+
+        public LifecycleObserver(ViewDataBinding binding) {
+            super(binding);
+        }
+
+        @Override
+        public void onStartedChanged(BindingLifecycle lifecycle, boolean started) {
+            final ViewDataBinding binding = get();
+            if (binding == null) {
+                lifecycle.removeObserver(this);
+            } else {
+                binding.onLifecycleChanged(started);
+            }
+        }
+    }
+
+    /**
+     * Creates the listeners of one kind of observable and keeps the released ones for reuse.
+     */
+    private static abstract class CreateWeakListener {
+        // Guarded by this.
+        private final ArrayList<WeakListener> mPool = new ArrayList<WeakListener>();
+
+        abstract WeakListener create();
+
+        final WeakListener obtain() {
+            synchronized (this) {
+                final int size = mPool.size();
+                if (size > 0) {
+                    sReusedListenerCount.incrementAndGet();
+                    return mPool.remove(size - 1);
+                }
+            }
+            sCreatedListenerCount.incrementAndGet();
+            return create();
+        }
+
+        final void release(WeakListener listener) {
+            synchronized (this) {
+                if (mPool.size() < sListenerPoolSize) {
+                    mPool.add(listener);
+                }
+            }
+        }
     }
 
     /**
@@ -1344,6 +2224,69 @@ public abstract class ViewDataBinding extends BaseObservable {
         }
     }
 
+    /**
+     * The values of the binding expressions evaluated by {@link #computeBindings()}. Generated
+     * subclasses add a field for each expression and for the dirty flags they were computed from.
+     * @hide
+     */
+    protected static abstract class BindingSnapshot {
+        int mGeneration;
+    }
+
+    /**
+     * Computes a snapshot on the compute Executor and then applies it on the thread of the
+     * binding.
+     */
+    private static class ComputeTask implements Runnable {
+        private final ViewDataBinding mBinding;
+        private boolean mIsComputed;
+        private BindingSnapshot mSnapshot;
+        private RuntimeException mError;
+
+        ComputeTask(ViewDataBinding binding) {
+            mBinding = binding;
+        }
+
+        @Override
+        public void run() {
+            if (mIsComputed) {
+                mBinding.onSnapshotComputed(mSnapshot, mError);
+                return;
+            }
+            try {
+                mSnapshot = mBinding.computeBindings();
+            } catch (RuntimeException e) {
+                mError = e;
+            }
+            mIsComputed = true;
+            mBinding.mScheduler.post(this);
+        }
+    }
+
+    /**
+     * This class is used by generated subclasses of {@link ViewDataBinding} to find the bound
+     * Views by their child indexes instead of walking the hierarchy. Each View is checked
+     * against its expected tag or, when it has no tag, its id.
+     * @hide
+     */
+    protected static class ChildPaths {
+        public final int[][] paths;
+        public final String[] tags;
+        public final int[] ids;
+
+        public ChildPaths(int bindingCount) {
+            paths = new int[bindingCount][];
+            tags = new String[bindingCount];
+            ids = new int[bindingCount];
+        }
+
+        public void setPath(int index, int[] path, String tag, int id) {
+            this.paths[index] = path;
+            this.tags[index] = tag;
+            this.ids[index] = id;
+        }
+    }
+
     /**
      * This class is used by generated subclasses of {@link ViewDataBinding} to listen for
      * changes on variables of Bindings. This is important for two-way data binding on variables
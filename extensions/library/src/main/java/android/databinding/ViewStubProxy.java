@@ -38,13 +38,15 @@ public class ViewStubProxy {
             mRoot = inflated;
             mViewDataBinding = DataBindingUtil.bind(mContainingBinding.mBindingComponent,
                     inflated, stub.getLayoutResource());
+            mContainingBinding.setContainedBinding(mViewDataBinding);
             mViewStub = null;
 
             if (mOnInflateListener != null) {
                 mOnInflateListener.onInflate(stub, inflated);
                 mOnInflateListener = null;
             }
-            mContainingBinding.invalidateAll();
+            // only the expressions passed to the new binding need to be evaluated
+            mContainingBinding.invalidateViewStub(ViewStubProxy.this);
             mContainingBinding.forceExecuteBindings();
         }
     };
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BindingLifecycleRegistryTest {
+    private final List<Boolean> mChanges = new ArrayList<Boolean>();
+
+    private final BindingLifecycle.Observer mObserver = new BindingLifecycle.Observer() {
+        @Override
+        public void onStartedChanged(BindingLifecycle lifecycle, boolean started) {
+            mChanges.add(started);
+        }
+    };
+
+    @Test
+    public void testInitialState() {
+        assertFalse(new BindingLifecycleRegistry().isStarted());
+        assertTrue(new BindingLifecycleRegistry(true).isStarted());
+    }
+
+    @Test
+    public void testNotifiesChanges() {
+        BindingLifecycleRegistry lifecycle = new BindingLifecycleRegistry();
+        lifecycle.addObserver(mObserver);
+        lifecycle.setStarted(true);
+        lifecycle.setStarted(true);
+        assertTrue(lifecycle.isStarted());
+        lifecycle.setStarted(false);
+        assertEquals(Arrays.asList(true, false), mChanges);
+
+        lifecycle.removeObserver(mObserver);
+        lifecycle.setStarted(true);
+        assertEquals(2, mChanges.size());
+    }
+
+    @Test
+    public void testObserverRemovesItself() {
+        final BindingLifecycleRegistry lifecycle = new BindingLifecycleRegistry();
+        final BindingLifecycle[] sender = new BindingLifecycle[1];
+        lifecycle.addObserver(new BindingLifecycle.Observer() {
+            @Override
+            public void onStartedChanged(BindingLifecycle changed, boolean started) {
+                sender[0] = changed;
+                changed.removeObserver(this);
+            }
+        });
+        lifecycle.addObserver(mObserver);
+        lifecycle.setStarted(true);
+        lifecycle.setStarted(false);
+        assertSame(lifecycle, sender[0]);
+        assertEquals(Arrays.asList(true, false), mChanges);
+    }
+}
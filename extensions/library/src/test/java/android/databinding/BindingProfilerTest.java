@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BindingProfilerTest {
+    @After
+    public void tearDown() {
+        BindingProfiler.stop();
+    }
+
+    @Test
+    public void testStartStop() {
+        assertNull(BindingProfiler.getActive());
+        BindingProfiler profiler = BindingProfiler.start();
+        assertSame(profiler, BindingProfiler.getActive());
+        BindingProfiler.stop();
+        assertNull(BindingProfiler.getActive());
+    }
+
+    @Test
+    public void testStripedCounterAcrossThreads() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter();
+        final int threadCount = 16;
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        counter.increment();
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+        done.await();
+        assertEquals(threadCount * 1000, counter.get());
+        counter.reset();
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testStatsPerClass() {
+        BindingProfiler profiler = BindingProfiler.start();
+        BindingProfiler.Stats stats = profiler.getStats(String.class);
+        assertSame(stats, profiler.getStats(String.class));
+        stats.recordExecute(3000);
+        stats.recordExecute(1000);
+        stats.recordFieldChange(true);
+        stats.recordFieldChange(false);
+        profiler.getStats(Integer.class).recordExecute(10000);
+
+        assertEquals(2, stats.mRebinds.get());
+        assertEquals(4000, stats.mExecuteNanos.get());
+        assertEquals(3000, stats.mMaxExecuteNanos.get());
+        assertEquals(2, stats.mFieldChanges.get());
+        assertEquals(1, stats.mDirtyingFieldChanges.get());
+
+        String text = profiler.dumpText();
+        assertTrue(text, text.startsWith("java.lang.Integer: rebinds=1 executeTotalUs=10"));
+        assertTrue(text, text.contains("java.lang.String: rebinds=2 executeTotalUs=4 "
+                + "executeMaxUs=3 "));
+        String json = profiler.dumpJson();
+        assertTrue(json, json.startsWith("[{\"binding\":\"java.lang.Integer\",\"rebinds\":1,"));
+        assertTrue(json, json.contains("{\"binding\":\"java.lang.String\",\"rebinds\":2,"
+                + "\"executeTotalUs\":4,\"executeMaxUs\":3,\"callbackUs\":0,"
+                + "\"rebindRequests\":0,\"fieldChanges\":2,\"dirtyingFieldChanges\":1,"
+                + "\"registrationChanges\":0}"));
+        assertTrue(json, json.endsWith("}]"));
+
+        profiler.reset();
+        assertEquals(0, stats.mRebinds.get());
+        assertEquals(0, stats.mMaxExecuteNanos.get());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RebindQueueTest {
+    private FakeClock mClock;
+    private TestQueue mQueue;
+
+    @Before
+    public void setUp() {
+        mClock = new FakeClock();
+        mQueue = new TestQueue(mClock);
+    }
+
+    @Test
+    public void testSingleFramePost() {
+        mQueue.enqueue(new Item("a", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("b", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("c", 0, RebindQueue.PRIORITY_VISIBLE));
+        assertEquals(1, mQueue.posts);
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("a", "b", "c"), mQueue.executed);
+        assertEquals(3, mQueue.mLastFrameRequestCount);
+        assertEquals(3, mQueue.mLastFrameExecuteCount);
+        assertEquals(0, mQueue.mLastFrameDeferredCount);
+    }
+
+    @Test
+    public void testParentsBeforeChildren() {
+        mQueue.enqueue(new Item("grandChild", 2, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("child", 1, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("parent", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("parent", "child", "grandChild"), mQueue.executed);
+    }
+
+    @Test
+    public void testCleanItemsAreNotCounted() {
+        Item clean = new Item("clean", 1, RebindQueue.PRIORITY_VISIBLE);
+        clean.pending = false;
+        mQueue.enqueue(clean);
+        mQueue.enqueue(new Item("dirty", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(2, mQueue.mLastFrameRequestCount);
+        assertEquals(1, mQueue.mLastFrameExecuteCount);
+    }
+
+    @Test
+    public void testPriorityIgnoredWithoutBudget() {
+        mQueue.enqueue(new Item("detached", 0, RebindQueue.PRIORITY_DETACHED));
+        mQueue.enqueue(new Item("visible", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("detached", "visible"), mQueue.executed);
+    }
+
+    @Test
+    public void testPriorityOrderWithBudget() {
+        mQueue.setFrameBudgetNanos(1000);
+        mQueue.enqueue(new Item("detached", 0, RebindQueue.PRIORITY_DETACHED));
+        mQueue.enqueue(new Item("hidden", 0, RebindQueue.PRIORITY_HIDDEN));
+        mQueue.enqueue(new Item("visibleChild", 1, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("visible", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("visible", "visibleChild", "hidden", "detached"),
+                mQueue.executed);
+    }
+
+    @Test
+    public void testBudgetCarriesOver() {
+        mQueue.setFrameBudgetNanos(250);
+        mQueue.cost = 100;
+        mQueue.enqueue(new Item("a", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("b", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("c", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("d", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("e", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("a", "b", "c"), mQueue.executed);
+        assertEquals(2, mQueue.mLastFrameDeferredCount);
+        assertEquals(2, mQueue.posts);
+
+        // items enqueued after the carry over run after the deferred ones
+        mQueue.enqueue(new Item("f", 0, RebindQueue.PRIORITY_VISIBLE));
+        assertEquals(2, mQueue.posts);
+        mQueue.executed.clear();
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("d", "e", "f"), mQueue.executed);
+        assertEquals(0, mQueue.mLastFrameDeferredCount);
+    }
+
+    @Test
+    public void testAtLeastOneItemPerFrame() {
+        mQueue.setFrameBudgetNanos(10);
+        mQueue.cost = 100;
+        mQueue.enqueue(new Item("a", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.enqueue(new Item("b", 0, RebindQueue.PRIORITY_VISIBLE));
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("a"), mQueue.executed);
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("a", "b"), mQueue.executed);
+        mQueue.executeFrame();
+        assertEquals(0, mQueue.mLastFrameRequestCount);
+    }
+
+    @Test
+    public void testEnqueueWhileExecuting() {
+        final Item later = new Item("later", 0, RebindQueue.PRIORITY_VISIBLE);
+        Item first = new Item("first", 0, RebindQueue.PRIORITY_VISIBLE) {
+            @Override
+            void run() {
+                mQueue.enqueue(later);
+            }
+        };
+        mQueue.enqueue(first);
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("first"), mQueue.executed);
+        assertEquals(2, mQueue.posts);
+        mQueue.executeFrame();
+        assertEquals(Arrays.asList("first", "later"), mQueue.executed);
+    }
+
+    @Test
+    public void testManyItems() {
+        for (int i = 0; i < 300; i++) {
+            mQueue.enqueue(new Item("item" + i, i % 3, RebindQueue.PRIORITY_VISIBLE));
+        }
+        mQueue.executeFrame();
+        assertEquals(300, mQueue.executed.size());
+        int lastDepth = 0;
+        for (String name : mQueue.executed) {
+            int depth = Integer.parseInt(name.substring(4)) % 3;
+            assertTrue(depth >= lastDepth);
+            lastDepth = depth;
+        }
+    }
+
+    private static class FakeClock implements RebindQueue.Clock {
+        long time;
+
+        @Override
+        public long nanoTime() {
+            return time;
+        }
+    }
+
+    private static class Item {
+        final String name;
+        final int depth;
+        final int priority;
+        boolean pending = true;
+        Item next;
+
+        Item(String name, int depth, int priority) {
+            this.name = name;
+            this.depth = depth;
+            this.priority = priority;
+        }
+
+        void run() {
+        }
+    }
+
+    private static class TestQueue extends RebindQueue<Item> {
+        final FakeClock clock;
+        final List<String> executed = new ArrayList<String>();
+        int posts;
+        long cost;
+
+        TestQueue(FakeClock clock) {
+            super(clock);
+            this.clock = clock;
+        }
+
+        @Override
+        Item getNext(Item item) {
+            return item.next;
+        }
+
+        @Override
+        void setNext(Item item, Item next) {
+            item.next = next;
+        }
+
+        @Override
+        int getDepth(Item item) {
+            return item.depth;
+        }
+
+        @Override
+        int getPriority(Item item) {
+            return item.priority;
+        }
+
+        @Override
+        boolean hasPendingBindings(Item item) {
+            return item.pending;
+        }
+
+        @Override
+        void execute(Item item) {
+            executed.add(item.name);
+            clock.time += cost;
+            item.run();
+        }
+
+        @Override
+        void postFrame() {
+            posts++;
+        }
+    }
+}
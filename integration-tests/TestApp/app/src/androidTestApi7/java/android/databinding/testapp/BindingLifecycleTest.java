@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.BindingLifecycleRegistry;
+import android.databinding.OnRebindCallback;
+import android.databinding.ViewDataBinding;
+import android.databinding.testapp.databinding.BindableObservablesBinding;
+import android.databinding.testapp.vo.ViewModel;
+
+public class BindingLifecycleTest extends BaseDataBinderTest<BindableObservablesBinding> {
+    private final ViewModel mModel = new ViewModel();
+    private final BindingLifecycleRegistry mLifecycle = new BindingLifecycleRegistry(true);
+    private int mPreBindCount;
+
+    public BindingLifecycleTest() {
+        super(BindableObservablesBinding.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        initBinder(new Runnable() {
+            @Override
+            public void run() {
+                mBinder.setLifecycle(mLifecycle);
+                mBinder.setModel(mModel);
+                mBinder.executePendingBindings();
+                mBinder.addOnRebindCallback(new OnRebindCallback() {
+                    @Override
+                    public boolean onPreBind(ViewDataBinding binding) {
+                        mPreBindCount++;
+                        return true;
+                    }
+                });
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+    }
+
+    public void testStoppedBindingDoesNotObserve() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertSame(mLifecycle, mBinder.getLifecycle());
+                mLifecycle.setStarted(false);
+                mModel.getFieldObservable().set("a");
+                mModel.getFieldObservable().set("b");
+                // the listener was removed, so the change is not even recorded
+                assertFalse(mBinder.hasPendingBindings());
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(0, mPreBindCount);
+                mLifecycle.setStarted(true);
+                assertTrue(mBinder.hasPendingBindings());
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(1, mPreBindCount);
+                assertEquals("b", mBinder.view2.getText().toString());
+
+                // observing again
+                mModel.getFieldObservable().set("c");
+                mBinder.executePendingBindings();
+                assertEquals("c", mBinder.view2.getText().toString());
+            }
+        });
+    }
+
+    public void testObservableSetWhileStopped() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mLifecycle.setStarted(false);
+                ViewModel model = new ViewModel();
+                mBinder.setModel(model);
+                mBinder.executePendingBindings();
+                model.getFieldObservable().set("d");
+                assertFalse(mBinder.hasPendingBindings());
+                mLifecycle.setStarted(true);
+                mBinder.executePendingBindings();
+                assertEquals("d", mBinder.view2.getText().toString());
+            }
+        });
+    }
+}
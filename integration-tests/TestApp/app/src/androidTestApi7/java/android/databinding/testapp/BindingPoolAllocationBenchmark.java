@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.testapp;
+
+import android.databinding.BindingPool;
+import android.databinding.testapp.databinding.ListItemBinding;
+import android.databinding.testapp.vo.ListItem;
+import android.graphics.drawable.Drawable;
+import android.os.Debug;
+import android.test.ActivityInstrumentationTestCase2;
+import android.util.Log;
+import android.view.LayoutInflater;
+
+/**
+ * Simulates scrolling a list of rows with a title and an icon, once by acquiring, rebinding and
+ * releasing pooled bindings and once by inflating a new binding for every row, and compares
+ * the objects allocated and the time spent once the pool is warm.
+ */
+public class BindingPoolAllocationBenchmark extends ActivityInstrumentationTestCase2<TestActivity> {
+    private static final String TAG = "BindingPoolBenchmark";
+    private static final int ITEMS = 50;
+    private static final int VISIBLE = 5;
+    private static final int PASSES = 10;
+
+    private final ListItem[] mItems = new ListItem[ITEMS];
+    private final ListItemBinding[] mVisible = new ListItemBinding[VISIBLE];
+
+    public BindingPoolAllocationBenchmark() {
+        super(TestActivity.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        // two instances, so that rebinding a row changes its icon
+        final Drawable[] icons = {
+                getActivity().getResources().getDrawable(R.drawable.ic_launcher),
+                getActivity().getResources().getDrawable(R.drawable.ic_launcher)
+        };
+        for (int i = 0; i < ITEMS; i++) {
+            mItems[i] = new ListItem("Item " + i, icons[i % icons.length]);
+        }
+    }
+
+    public void testPoolAllocatesLessThanInflating() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                final LayoutInflater inflater = getActivity().getLayoutInflater();
+                final BindingPool pool = new BindingPool();
+                scroll(pool, inflater);
+                inflate(inflater);
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                long start = System.nanoTime();
+                for (int i = 0; i < PASSES; i++) {
+                    scroll(pool, inflater);
+                }
+                final long pooledNanos = System.nanoTime() - start;
+                final int pooledAllocations = Debug.getThreadAllocCount();
+                assertSame(mItems[ITEMS - 1], mVisible[(ITEMS - 1) % VISIBLE].getItem());
+
+                Debug.resetThreadAllocCount();
+                start = System.nanoTime();
+                for (int i = 0; i < PASSES; i++) {
+                    inflate(inflater);
+                }
+                final long inflatedNanos = System.nanoTime() - start;
+                final int inflatedAllocations = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+
+                Log.i(TAG, (PASSES * ITEMS) + " rows: pooled " + pooledAllocations
+                        + " allocations, " + (pooledNanos / PASSES / ITEMS) + "ns per row;"
+                        + " inflated " + inflatedAllocations + " allocations, "
+                        + (inflatedNanos / PASSES / ITEMS) + "ns per row");
+                assertTrue(pooledAllocations < inflatedAllocations);
+            }
+        });
+    }
+
+    private void scroll(BindingPool pool, LayoutInflater inflater) {
+        for (int i = 0; i < ITEMS; i++) {
+            final int slot = i % VISIBLE;
+            if (mVisible[slot] != null) {
+                pool.release(R.layout.list_item, mVisible[slot]);
+            }
+            final ListItemBinding binding = pool.acquire(inflater, R.layout.list_item, null);
+            binding.rebind(BR.item, mItems[i]);
+            mVisible[slot] = binding;
+        }
+    }
+
+    private void inflate(LayoutInflater inflater) {
+        for (int i = 0; i < ITEMS; i++) {
+            final ListItemBinding binding = ListItemBinding.inflate(inflater);
+            binding.setItem(mItems[i]);
+            binding.executePendingBindings();
+        }
+    }
+}
@@ -74,4 +74,31 @@ public class IncludeTagTest extends BaseDataBinderTest<LayoutWithIncludeBinding>
         assertEquals("a 2 third 5b", merge2.innerTextView1.getText().toString());
         assertEquals("b 2 third 5b", merge2.innerTextView2.getText().toString());
     }
+
+    @UiThreadTest
+    public void testIncludedBindingMarksContainer() {
+        initBinder();
+        NotBindableVo vo = new NotBindableVo(3, "a");
+        mBinder.setOuterObject(vo);
+        mBinder.executePendingBindings();
+        assertFalse(mBinder.hasPendingBindings());
+        assertFalse(mBinder.includedLayout.hasPendingBindings());
+
+        // a change in the included binding makes the container pending
+        mBinder.includedLayout.setInnerValue("inner ");
+        assertTrue(mBinder.includedLayout.hasPendingBindings());
+        assertTrue(mBinder.hasPendingBindings());
+        mBinder.executePendingBindings();
+        assertFalse(mBinder.includedLayout.hasPendingBindings());
+        assertFalse(mBinder.hasPendingBindings());
+        final TextView innerText = (TextView) mBinder.getRoot().findViewById(R.id.innerTextView);
+        assertEquals("inner a", innerText.getText().toString());
+
+        // a change in the container only leaves the included bindings clean
+        mBinder.setOuterObject(new NotBindableVo(4, "b"));
+        assertFalse(mBinder.includedLayout.hasPendingBindings());
+        mBinder.executePendingBindings();
+        assertEquals("modified 4b", innerText.getText().toString());
+        assertFalse(mBinder.hasPendingBindings());
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.DataBindingUtil;
+import android.databinding.DataBindingUtil.OnInflateFinishedListener;
+import android.databinding.testapp.databinding.LayoutWithIncludeBinding;
+import android.databinding.testapp.vo.NotBindableVo;
+import android.os.Looper;
+import android.test.ActivityInstrumentationTestCase2;
+import android.widget.TextView;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class InflateAsyncTest extends ActivityInstrumentationTestCase2<TestActivity> {
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch mLatch = new CountDownLatch(1);
+    private LayoutWithIncludeBinding mBinding;
+    private Thread mListenerThread;
+
+    public InflateAsyncTest() {
+        super(TestActivity.class);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mExecutor.shutdown();
+        super.tearDown();
+    }
+
+    public void testInflateAsync() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                DataBindingUtil.inflateAsync(getActivity().getLayoutInflater(),
+                        R.layout.layout_with_include, null, mExecutor,
+                        new OnInflateFinishedListener<LayoutWithIncludeBinding>() {
+                            @Override
+                            public void onInflateFinished(LayoutWithIncludeBinding binding) {
+                                mBinding = binding;
+                                mListenerThread = Thread.currentThread();
+                                mLatch.countDown();
+                            }
+                        });
+            }
+        });
+        assertTrue(mLatch.await(5, TimeUnit.SECONDS));
+        assertSame(Looper.getMainLooper().getThread(), mListenerThread);
+        assertNotNull(mBinding);
+        assertNotNull(mBinding.includedLayout);
+        assertNotNull(mBinding.secondMerge);
+
+        // the rebinds requested on the executor are scheduled on the UI thread
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertFalse(mBinding.hasPendingBindings());
+                mBinding.setOuterObject(new NotBindableVo(3, "a"));
+                mBinding.executePendingBindings();
+                TextView innerText = (TextView) mBinding.getRoot()
+                        .findViewById(R.id.innerTextView);
+                assertEquals("modified 3a", innerText.getText().toString());
+            }
+        });
+    }
+
+    public void testNotLooperThread() throws Throwable {
+        final Throwable[] error = new Throwable[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    DataBindingUtil.inflateAsync(getActivity().getLayoutInflater(),
+                            R.layout.layout_with_include, null, mExecutor, null);
+                } catch (IllegalStateException e) {
+                    error[0] = e;
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        assertNotNull(error[0]);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.ViewDataBinding;
+import android.databinding.testapp.databinding.BindableObservablesBinding;
+import android.databinding.testapp.vo.ViewModel;
+import android.test.ActivityInstrumentationTestCase2;
+
+import java.lang.ref.WeakReference;
+
+public class ListenerPoolTest extends ActivityInstrumentationTestCase2<TestActivity> {
+    private final ViewModel mModel = new ViewModel();
+    private WeakReference<BindableObservablesBinding> mWeakReference;
+    private int mCreated;
+    private int mReused;
+
+    public ListenerPoolTest() {
+        super(TestActivity.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ViewDataBinding.setListenerPoolSize(16);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ViewDataBinding.setListenerPoolSize(0);
+        super.tearDown();
+    }
+
+    public void testListenersOfCollectedBindingAreReused() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mWeakReference = new WeakReference<BindableObservablesBinding>(bindModel());
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        for (int i = 0; i < 10 && mWeakReference.get() != null; i++) {
+            Runtime.getRuntime().gc();
+            Thread.sleep(100);
+        }
+        assertNull(mWeakReference.get());
+
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mCreated = ViewDataBinding.getCreatedListenerCount();
+                mReused = ViewDataBinding.getReusedListenerCount();
+                BindableObservablesBinding binding = bindModel();
+                assertTrue(ViewDataBinding.getReusedListenerCount() > mReused);
+                assertEquals(mCreated, ViewDataBinding.getCreatedListenerCount());
+
+                // the reused listeners notify the new binding
+                mModel.getFieldObservable().set("changed");
+                binding.executePendingBindings();
+                assertEquals("changed", binding.view2.getText().toString());
+            }
+        });
+    }
+
+    private BindableObservablesBinding bindModel() {
+        BindableObservablesBinding binding = BindableObservablesBinding.inflate(
+                getActivity().getLayoutInflater());
+        binding.setModel(mModel);
+        binding.executePendingBindings();
+        return binding;
+    }
+}
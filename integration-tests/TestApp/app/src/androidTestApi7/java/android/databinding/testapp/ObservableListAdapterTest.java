@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.databinding.testapp;
+
+import android.databinding.DataBindingUtil;
+import android.databinding.ObservableArrayList;
+import android.databinding.adapters.AbsSpinnerBindingAdapter;
+import android.databinding.testapp.databinding.BasicBindingBinding;
+import android.databinding.testapp.databinding.BoundTextItemBinding;
+import android.test.UiThreadTest;
+import android.widget.BaseAdapter;
+import android.widget.Spinner;
+import android.widget.TextView;
+
+public class ObservableListAdapterTest extends BaseDataBinderTest<BasicBindingBinding> {
+    private ObservableArrayList<String> mList;
+
+    public ObservableListAdapterTest() {
+        super(BasicBindingBinding.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mList = new ObservableArrayList<>();
+        mList.add("a");
+        mList.add("b");
+    }
+
+    @UiThreadTest
+    public void testSameItemIsNotSetAgain() {
+        Spinner spinner = new Spinner(getActivity());
+        AbsSpinnerBindingAdapter.setEntries(spinner, mList);
+        BaseAdapter adapter = (BaseAdapter) spinner.getAdapter();
+
+        TextView view = (TextView) adapter.getView(0, null, spinner);
+        assertEquals("a", view.getText().toString());
+        view.setText("changed");
+        assertSame(view, adapter.getView(0, view, spinner));
+        assertEquals("changed", view.getText().toString());
+
+        adapter.getView(1, view, spinner);
+        assertEquals("b", view.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testDataSetChangeSetsItemsAgain() {
+        Spinner spinner = new Spinner(getActivity());
+        AbsSpinnerBindingAdapter.setEntries(spinner, mList);
+        BaseAdapter adapter = (BaseAdapter) spinner.getAdapter();
+
+        TextView view = (TextView) adapter.getView(0, null, spinner);
+        view.setText("changed");
+        adapter.notifyDataSetChanged();
+        adapter.getView(0, view, spinner);
+        assertEquals("a", view.getText().toString());
+
+        view.setText("changed");
+        mList.add("c");
+        adapter.getView(0, view, spinner);
+        assertEquals("a", view.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testHolderIsKeptByItsView() {
+        Spinner spinner = new Spinner(getActivity());
+        AbsSpinnerBindingAdapter.setEntries(spinner, mList);
+        BaseAdapter adapter = (BaseAdapter) spinner.getAdapter();
+
+        TextView view = (TextView) adapter.getView(0, null, spinner);
+        for (int i = 0; i < 3; i++) {
+            Runtime.getRuntime().gc();
+            Runtime.getRuntime().runFinalization();
+        }
+        view.setText("changed");
+        adapter.getView(0, view, spinner);
+        assertEquals("changed", view.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testBoundItems() {
+        Spinner spinner = new Spinner(getActivity());
+        AbsSpinnerBindingAdapter.setEntries(spinner, mList, R.layout.bound_text_item, BR.item);
+        BaseAdapter adapter = (BaseAdapter) spinner.getAdapter();
+
+        TextView view = (TextView) adapter.getView(0, null, spinner);
+        BoundTextItemBinding binding = DataBindingUtil.getBinding(view);
+        assertNotNull(binding);
+        assertEquals("a", view.getText().toString());
+
+        view.setText("changed");
+        assertSame(view, adapter.getView(0, view, spinner));
+        assertEquals("changed", view.getText().toString());
+
+        adapter.getView(1, view, spinner);
+        assertEquals("b", view.getText().toString());
+
+        view.setText("changed");
+        adapter.notifyDataSetChanged();
+        adapter.getView(1, view, spinner);
+        assertEquals("b", view.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testItemVariableWithoutBoundLayout() {
+        Spinner spinner = new Spinner(getActivity());
+        AbsSpinnerBindingAdapter.setEntries(spinner, mList, android.R.layout.simple_spinner_item,
+                BR.item);
+        BaseAdapter adapter = (BaseAdapter) spinner.getAdapter();
+        try {
+            adapter.getView(0, null, spinner);
+            fail("the layout cannot set the item variable");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            adapter.getView(0, new TextView(getActivity()), spinner);
+            fail("the recycled view cannot set the item variable");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
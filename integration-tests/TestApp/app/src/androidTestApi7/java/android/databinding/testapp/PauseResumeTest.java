@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.OnRebindCallback;
+import android.databinding.ViewDataBinding;
+import android.databinding.testapp.databinding.BindableObservablesBinding;
+import android.databinding.testapp.vo.ViewModel;
+
+public class PauseResumeTest extends BaseDataBinderTest<BindableObservablesBinding> {
+    private final ViewModel mModel = new ViewModel();
+    private int mPreBindCount;
+
+    public PauseResumeTest() {
+        super(BindableObservablesBinding.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        initBinder(new Runnable() {
+            @Override
+            public void run() {
+                mBinder.setModel(mModel);
+                mBinder.executePendingBindings();
+                mBinder.addOnRebindCallback(new OnRebindCallback() {
+                    @Override
+                    public boolean onPreBind(ViewDataBinding binding) {
+                        mPreBindCount++;
+                        return true;
+                    }
+                });
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+    }
+
+    public void testPausedChangesAreBoundOnceOnResume() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mBinder.pause();
+                assertTrue(mBinder.isPaused());
+                mModel.getFieldObservable().set("a");
+                mModel.getFieldObservable().set("b");
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(0, mPreBindCount);
+                assertTrue(mBinder.hasPendingBindings());
+                assertFalse("b".equals(mBinder.view2.getText().toString()));
+                mBinder.resume();
+                assertFalse(mBinder.isPaused());
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(1, mPreBindCount);
+                assertFalse(mBinder.hasPendingBindings());
+                assertEquals("b", mBinder.view2.getText().toString());
+            }
+        });
+    }
+
+    public void testExecutePendingBindingsWhilePaused() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mBinder.pause();
+                mModel.getFieldObservable().set("c");
+                mBinder.executePendingBindings();
+                assertEquals("c", mBinder.view2.getText().toString());
+                mBinder.resume();
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.databinding.testapp;
+
+import android.databinding.RebindScheduler;
+import android.databinding.testapp.databinding.LayoutWithIncludeBinding;
+import android.databinding.testapp.vo.NotBindableVo;
+import android.widget.TextView;
+
+public class RebindSchedulerTest extends BaseDataBinderTest<LayoutWithIncludeBinding> {
+
+    public RebindSchedulerTest() {
+        super(LayoutWithIncludeBinding.class);
+    }
+
+    public void testIncludesExecutedOnceWithParent() throws Throwable {
+        initBinder();
+        final NotBindableVo vo = new NotBindableVo(3, "a");
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mBinder.setOuterObject(vo);
+                mBinder.executePendingBindings();
+                vo.setIntValue(5);
+                vo.setStringValue("b");
+                // dirties the included bindings before the containing binding
+                mBinder.invalidateAll();
+            }
+        });
+        Thread.sleep(500);
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                RebindScheduler scheduler = RebindScheduler.getInstance();
+                assertTrue(scheduler.getLastFrameRequestCount() > 1);
+                assertEquals(1, scheduler.getLastFrameExecuteCount());
+                final TextView innerText = (TextView) mBinder.getRoot()
+                        .findViewById(R.id.innerTextView);
+                assertEquals("modified 5b", innerText.getText().toString());
+                assertEquals("a goodbye 5b",
+                        mBinder.secondMerge.innerTextView1.getText().toString());
+            }
+        });
+    }
+}
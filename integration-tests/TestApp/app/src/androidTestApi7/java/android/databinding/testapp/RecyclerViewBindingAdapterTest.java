@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.databinding.testapp;
+
+import android.databinding.ListChangeRegistry;
+import android.databinding.ObservableArrayList;
+import android.databinding.ObservableList;
+import android.databinding.adapters.ObservableListRecyclerAdapter;
+import android.databinding.adapters.ObservableListRecyclerAdapter.BindingHolder;
+import android.databinding.adapters.RecyclerViewBindingAdapter;
+import android.databinding.testapp.databinding.BasicBindingBinding;
+import android.databinding.testapp.databinding.BoundTextItemBinding;
+import android.support.v7.widget.RecyclerView;
+import android.test.UiThreadTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RecyclerViewBindingAdapterTest extends BaseDataBinderTest<BasicBindingBinding> {
+    private static final ObservableListRecyclerAdapter.ItemIds<String> ITEM_IDS =
+            new ObservableListRecyclerAdapter.ItemIds<String>() {
+                @Override
+                public long getItemId(int position, String item) {
+                    return item.hashCode();
+                }
+            };
+
+    private CountingList mList;
+    private ObservableListRecyclerAdapter<String> mAdapter;
+    private RecordingObserver mObserver;
+
+    public RecyclerViewBindingAdapterTest() {
+        super(BasicBindingBinding.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mList = new CountingList("a", "b", "c", "d", "e");
+        mAdapter = new ObservableListRecyclerAdapter<String>(mList, R.layout.bound_text_item,
+                BR.item, null);
+        mObserver = new RecordingObserver(mList);
+        mAdapter.registerAdapterDataObserver(mObserver);
+    }
+
+    @UiThreadTest
+    public void testRangeChanges() {
+        attach(mAdapter);
+
+        mList.add("f");
+        mList.set(1, "B");
+        mList.addAll(2, Arrays.asList("x", "y"));
+        mList.subList(1, 3).clear();
+
+        assertEquals(Arrays.asList("inserted 5 1", "changed 1 1", "inserted 2 2",
+                "removed 1 2"), mObserver.events);
+    }
+
+    @UiThreadTest
+    public void testMoveForward() {
+        MovableList list = new MovableList("a", "b", "c", "d", "e");
+        mAdapter.setItems(list);
+        attach(mAdapter);
+        mObserver.shown.clear();
+        mObserver.shown.addAll(list);
+
+        list.move(0, 2, 2);
+
+        assertEquals(Arrays.asList("c", "d", "a", "b", "e"), list);
+        assertEquals(list, mObserver.shown);
+        assertEquals(Arrays.asList("changed", "moved 0 3", "moved 0 3"), mObserver.events);
+    }
+
+    @UiThreadTest
+    public void testMoveBackward() {
+        MovableList list = new MovableList("a", "b", "c", "d", "e");
+        mAdapter.setItems(list);
+        attach(mAdapter);
+        mObserver.shown.clear();
+        mObserver.shown.addAll(list);
+
+        list.move(3, 1, 2);
+
+        assertEquals(Arrays.asList("a", "d", "e", "b", "c"), list);
+        assertEquals(list, mObserver.shown);
+        assertEquals(Arrays.asList("changed", "moved 3 1", "moved 4 2"), mObserver.events);
+    }
+
+    @UiThreadTest
+    public void testObservesOnlyWhileAttached() {
+        mList.add("f");
+        assertTrue(mObserver.events.isEmpty());
+
+        RecyclerView view = attach(mAdapter);
+        RecyclerView other = attach(mAdapter);
+        assertEquals(1, mList.callbacks);
+
+        // still attached to the other RecyclerView
+        view.setAdapter(null);
+        mList.remove(0);
+        assertEquals(Arrays.asList("removed 0 1"), mObserver.events);
+
+        other.setAdapter(null);
+        assertEquals(0, mList.callbacks);
+        mList.remove(0);
+        assertEquals(1, mObserver.events.size());
+    }
+
+    @UiThreadTest
+    public void testSetItemsWhileAttached() {
+        attach(mAdapter);
+        CountingList items = new CountingList("x");
+
+        mAdapter.setItems(items);
+        assertEquals(Arrays.asList("changed"), mObserver.events);
+        assertEquals(0, mList.callbacks);
+        assertEquals(1, items.callbacks);
+        assertEquals(1, mAdapter.getItemCount());
+
+        mList.add("f");
+        items.add("y");
+        assertEquals(Arrays.asList("changed", "inserted 1 1"), mObserver.events);
+    }
+
+    @UiThreadTest
+    public void testSetItemsWhileDetached() {
+        CountingList items = new CountingList("x");
+
+        mAdapter.setItems(items);
+        assertEquals(0, mList.callbacks);
+        assertEquals(0, items.callbacks);
+
+        attach(mAdapter);
+        assertEquals(0, mList.callbacks);
+        assertEquals(1, items.callbacks);
+    }
+
+    @UiThreadTest
+    public void testBindItem() {
+        BindingHolder holder = mAdapter.onCreateViewHolder(new RecyclerView(getActivity()), 0);
+        mAdapter.onBindViewHolder(holder, 2);
+
+        BoundTextItemBinding binding = (BoundTextItemBinding) holder.getBinding();
+        assertEquals("c", binding.textView.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testReuseAdapter() {
+        RecyclerView view = new RecyclerView(getActivity());
+        RecyclerViewBindingAdapter.setItems(view, mList, R.layout.bound_text_item, BR.item,
+                null);
+        RecyclerView.Adapter adapter = view.getAdapter();
+        assertEquals(1, mList.callbacks);
+
+        CountingList items = new CountingList("x");
+        RecyclerViewBindingAdapter.setItems(view, items, R.layout.bound_text_item, BR.item,
+                null);
+        assertSame(adapter, view.getAdapter());
+        assertSame(items, ((ObservableListRecyclerAdapter) adapter).getItems());
+        assertEquals(0, mList.callbacks);
+        assertEquals(1, items.callbacks);
+
+        RecyclerViewBindingAdapter.setItems(view, items, R.layout.bound_text_item, BR.item,
+                ITEM_IDS);
+        assertNotSame(adapter, view.getAdapter());
+        assertTrue(view.getAdapter().hasStableIds());
+        assertEquals(1, items.callbacks);
+
+        adapter = view.getAdapter();
+        RecyclerViewBindingAdapter.setItems(view, items, R.layout.recycled_item, BR.item,
+                ITEM_IDS);
+        assertNotSame(adapter, view.getAdapter());
+    }
+
+    @UiThreadTest
+    public void testMissingItemLayout() {
+        try {
+            RecyclerViewBindingAdapter.setItems(new RecyclerView(getActivity()), mList, 0,
+                    BR.item, null);
+            fail("the item layout is required");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private RecyclerView attach(RecyclerView.Adapter adapter) {
+        RecyclerView view = new RecyclerView(getActivity());
+        view.setAdapter(adapter);
+        return view;
+    }
+
+    /**
+     * Records the notifications of an adapter and applies its moves to a copy of the items.
+     */
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+        final List<String> events = new ArrayList<>();
+        final List<String> shown;
+
+        RecordingObserver(List<String> items) {
+            shown = new ArrayList<>(items);
+        }
+
+        @Override
+        public void onChanged() {
+            events.add("changed");
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            events.add("changed " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            events.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events.add("removed " + positionStart + " " + itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            assertEquals(1, itemCount);
+            events.add("moved " + fromPosition + " " + toPosition);
+            shown.add(toPosition, shown.remove(fromPosition));
+        }
+    }
+
+    /**
+     * Counts the callbacks that are added to the list.
+     */
+    private static class CountingList extends ObservableArrayList<String> {
+        int callbacks;
+
+        CountingList(String... items) {
+            addAll(Arrays.asList(items));
+        }
+
+        @Override
+        public void addOnListChangedCallback(OnListChangedCallback listener) {
+            super.addOnListChangedCallback(listener);
+            callbacks++;
+        }
+
+        @Override
+        public void removeOnListChangedCallback(OnListChangedCallback listener) {
+            super.removeOnListChangedCallback(listener);
+            callbacks--;
+        }
+    }
+
+    /**
+     * ObservableArrayList never reports moves. This list only reports moves of ranges.
+     */
+    private static class MovableList extends ArrayList<String> implements ObservableList<String> {
+        private final ListChangeRegistry mCallbacks = new ListChangeRegistry();
+
+        MovableList(String... items) {
+            super(Arrays.asList(items));
+        }
+
+        @Override
+        public void addOnListChangedCallback(
+                OnListChangedCallback<? extends ObservableList<String>> callback) {
+            mCallbacks.add(callback);
+        }
+
+        @Override
+        public void removeOnListChangedCallback(
+                OnListChangedCallback<? extends ObservableList<String>> callback) {
+            mCallbacks.remove(callback);
+        }
+
+        /**
+         * Moves count items from fromPosition so that the first one ends up at toPosition.
+         */
+        void move(int fromPosition, int toPosition, int count) {
+            List<String> range = subList(fromPosition, fromPosition + count);
+            List<String> moved = new ArrayList<>(range);
+            range.clear();
+            addAll(toPosition, moved);
+            mCallbacks.notifyMoved(this, fromPosition, toPosition, count);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.testapp.databinding.MultiArgAdapterTestBinding;
+import android.test.UiThreadTest;
+
+import static android.databinding.testapp.adapter.MultiArgTestAdapter.MultiBindingClass1;
+import static android.databinding.testapp.adapter.MultiArgTestAdapter.MultiBindingClass2;
+import static android.databinding.testapp.adapter.MultiArgTestAdapter.join;
+
+public class SetVariablesTest extends BaseDataBinderTest<MultiArgAdapterTestBinding> {
+
+    public SetVariablesTest() {
+        super(MultiArgAdapterTestBinding.class);
+    }
+
+    @UiThreadTest
+    public void testSetVariables() {
+        initBinder();
+        mBinder.executePendingBindings();
+        MultiBindingClass1 obj1 = new MultiBindingClass1();
+        MultiBindingClass2 obj2 = new MultiBindingClass2();
+        MultiBindingClass1 obj3 = new MultiBindingClass1();
+        MultiBindingClass2 obj4 = new MultiBindingClass2();
+        obj1.setValue("a", false);
+        obj2.setValue("b", false);
+        obj3.setValue("c", false);
+        obj4.setValue("d", false);
+        assertTrue(mBinder.setVariables(new int[] {BR.obj1, BR.obj2, BR.obj3, BR.obj4},
+                new Object[] {obj1, obj2, obj3, obj4}));
+        assertSame(obj1, mBinder.getObj1());
+        assertSame(obj4, mBinder.getObj4());
+        assertTrue(mBinder.hasPendingBindings());
+        mBinder.executePendingBindings();
+
+        assertEquals(join(obj1, obj2), mBinder.merged.getText().toString());
+        assertEquals(join(obj2), mBinder.view2.getText().toString());
+        assertEquals(join(obj3), mBinder.view3.getText().toString());
+        assertEquals(join(obj4), mBinder.view4.getText().toString());
+    }
+
+    @UiThreadTest
+    public void testUnknownVariable() {
+        initBinder();
+        MultiBindingClass1 obj1 = new MultiBindingClass1();
+        assertFalse(mBinder.setVariables(new int[] {BR.obj1, BR.fieldObservable},
+                new Object[] {obj1, null}));
+        assertSame(obj1, mBinder.getObj1());
+    }
+
+    @UiThreadTest
+    public void testLengthMismatch() {
+        initBinder();
+        try {
+            mBinder.setVariables(new int[] {BR.obj1, BR.obj2}, new Object[1]);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
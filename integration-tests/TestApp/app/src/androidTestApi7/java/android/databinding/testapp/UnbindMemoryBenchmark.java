@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.testapp;
+
+import android.databinding.testapp.databinding.BindableObservablesBinding;
+import android.databinding.testapp.vo.ViewModel;
+import android.test.ActivityInstrumentationTestCase2;
+import android.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+
+/**
+ * Measures how many discarded bindings, and their Views, are reclaimed by a single garbage
+ * collection. A binding with a finalizer is only reclaimed by the collection that follows
+ * its finalization, so it is retained long enough to be promoted to the old generation.
+ */
+public class UnbindMemoryBenchmark extends ActivityInstrumentationTestCase2<TestActivity> {
+    private static final String TAG = "UnbindMemoryBenchmark";
+    private static final int COUNT = 1000;
+    private static final int MAX_COLLECTIONS = 10;
+
+    private final ViewModel mModel = new ViewModel();
+    private final ReferenceQueue<Object> mQueue = new ReferenceQueue<Object>();
+    private final ArrayList<PhantomReference<Object>> mReferences =
+            new ArrayList<PhantomReference<Object>>();
+
+    public UnbindMemoryBenchmark() {
+        super(TestActivity.class);
+    }
+
+    public void testBindingsReclaimedByFirstCollection() throws Throwable {
+        final long baseline = usedMemory();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < COUNT; i++) {
+                    BindableObservablesBinding binding = BindableObservablesBinding.inflate(
+                            getActivity().getLayoutInflater());
+                    binding.setModel(mModel);
+                    binding.executePendingBindings();
+                    mReferences.add(new PhantomReference<Object>(binding, mQueue));
+                }
+            }
+        });
+        // let the rebind scheduler release the bindings queued by their constructors
+        Thread.sleep(500);
+        getInstrumentation().waitForIdleSync();
+
+        int collections = 0;
+        int reclaimed = 0;
+        int reclaimedByFirst = 0;
+        long retainedAfterFirst = 0;
+        while (reclaimed < COUNT && collections < MAX_COLLECTIONS) {
+            Runtime.getRuntime().gc();
+            collections++;
+            while (mQueue.remove(100) != null) {
+                reclaimed++;
+            }
+            if (collections == 1) {
+                reclaimedByFirst = reclaimed;
+                retainedAfterFirst = usedMemory() - baseline;
+            }
+        }
+        Log.i(TAG, COUNT + " bindings: " + reclaimedByFirst + " reclaimed by the first"
+                + " collection, " + (retainedAfterFirst / 1024) + "KB retained after it; all"
+                + " reclaimed after " + collections + " collections");
+
+        // the listeners of the collected bindings are removed when new listeners are created
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                BindableObservablesBinding binding = BindableObservablesBinding.inflate(
+                        getActivity().getLayoutInflater());
+                binding.setModel(mModel);
+                mModel.getFieldObservable().set("hello");
+                binding.executePendingBindings();
+                assertEquals("hello", binding.view2.getText().toString());
+            }
+        });
+        assertEquals(COUNT, reclaimed);
+        assertTrue(reclaimedByFirst > 0);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
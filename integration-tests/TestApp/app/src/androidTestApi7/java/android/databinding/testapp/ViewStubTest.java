@@ -78,4 +78,18 @@ public class ViewStubTest extends BaseDataBinderTest<ViewStubBinding> {
         mBinder.executePendingBindings();
         assertEquals("Goodbye", contentsBinding.firstNameContents.getText().toString());
     }
+
+    @UiThreadTest
+    public void testInflationWithPendingChange() throws Throwable {
+        ViewStubProxy viewStubProxy = mBinder.viewStub;
+        mBinder.setViewStubVisibility(View.VISIBLE);
+        mBinder.setLastName("There");
+        mBinder.executePendingBindings();
+        ViewStubContentsBinding contentsBinding = (ViewStubContentsBinding)
+                viewStubProxy.getBinding();
+        assertFalse(mBinder.hasPendingBindings());
+        assertFalse(contentsBinding.hasPendingBindings());
+        assertEquals("Hello", contentsBinding.firstNameContents.getText().toString());
+        assertEquals("There", contentsBinding.lastNameContents.getText().toString());
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.databinding.testapp.vo;
+
+import android.graphics.drawable.Drawable;
+
+/**
+ * A list row with a title and an icon.
+ */
+public class ListItem {
+    private final String mTitle;
+    private final Drawable mIcon;
+
+    public ListItem(String title, Drawable icon) {
+        mTitle = title;
+        mIcon = icon;
+    }
+
+    public String getTitle() {
+        return mTitle;
+    }
+
+    public Drawable getIcon() {
+        return mIcon;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.app;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.Window;
+
+/**
+ * Stand-in for the framework Activity. It only owns a {@link Window}, which is attached from the
+ * start as if the Activity was resumed.
+ */
+public class Activity extends Context {
+    private final Window mWindow;
+
+    public Activity(Context base) {
+        super(base.getResources());
+        mWindow = new Window(this);
+        mWindow.setAttached(true);
+    }
+
+    public Window getWindow() {
+        return mWindow;
+    }
+
+    public LayoutInflater getLayoutInflater() {
+        return mWindow.getLayoutInflater();
+    }
+
+    public View findViewById(int id) {
+        return mWindow.findViewById(id);
+    }
+
+    public void setContentView(int layoutResID) {
+        mWindow.setContentView(layoutResID);
+    }
+
+    public void setContentView(View view) {
+        mWindow.setContentView(view);
+    }
+}
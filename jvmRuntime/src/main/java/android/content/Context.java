@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.content;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.view.LayoutInflater;
+
+/**
+ * Stand-in for the framework Context. It only gives access to {@link Resources} and to a
+ * {@link LayoutInflater} that inflates the layouts of those Resources.
+ */
+public class Context {
+    public static final String LAYOUT_INFLATER_SERVICE = "layout_inflater";
+
+    private final Resources mResources;
+
+    private LayoutInflater mInflater;
+
+    private Resources.Theme mTheme;
+
+    public Context(Resources resources) {
+        mResources = resources;
+    }
+
+    public Resources getResources() {
+        return mResources;
+    }
+
+    public synchronized Resources.Theme getTheme() {
+        if (mTheme == null) {
+            mTheme = mResources.newTheme();
+        }
+        return mTheme;
+    }
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public ClassLoader getClassLoader() {
+        return getClass().getClassLoader();
+    }
+
+    public Object getSystemService(String name) {
+        if (LAYOUT_INFLATER_SERVICE.equals(name)) {
+            synchronized (this) {
+                if (mInflater == null) {
+                    mInflater = new LayoutInflater(this);
+                }
+                return mInflater;
+            }
+        }
+        return null;
+    }
+
+    public final CharSequence getText(int resId) {
+        return mResources.getText(resId);
+    }
+
+    public final String getString(int resId) {
+        return mResources.getString(resId);
+    }
+
+    public final int getColor(int id) {
+        return mResources.getColor(id);
+    }
+
+    public final ColorStateList getColorStateList(int id) {
+        return mResources.getColorStateList(id);
+    }
+
+    public final Drawable getDrawable(int id) {
+        return mResources.getDrawable(id);
+    }
+}
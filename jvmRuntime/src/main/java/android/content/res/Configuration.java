@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.content.res;
+
+import java.util.Locale;
+
+/**
+ * Stand-in for the framework Configuration with the fields that commonly change at runtime.
+ */
+public class Configuration {
+    public static final int ORIENTATION_UNDEFINED = 0;
+    public static final int ORIENTATION_PORTRAIT = 1;
+    public static final int ORIENTATION_LANDSCAPE = 2;
+
+    public float fontScale;
+    public Locale locale;
+    public int orientation;
+    public int uiMode;
+    public int screenWidthDp;
+    public int screenHeightDp;
+    public int smallestScreenWidthDp;
+    public int densityDpi;
+
+    public Configuration() {
+    }
+
+    public Configuration(Configuration o) {
+        setTo(o);
+    }
+
+    public void setTo(Configuration o) {
+        fontScale = o.fontScale;
+        locale = o.locale;
+        orientation = o.orientation;
+        uiMode = o.uiMode;
+        screenWidthDp = o.screenWidthDp;
+        screenHeightDp = o.screenHeightDp;
+        smallestScreenWidthDp = o.smallestScreenWidthDp;
+        densityDpi = o.densityDpi;
+    }
+
+    public boolean equals(Configuration that) {
+        if (that == null) {
+            return false;
+        }
+        if (that == this) {
+            return true;
+        }
+        return Float.compare(fontScale, that.fontScale) == 0
+                && (locale == null ? that.locale == null : locale.equals(that.locale))
+                && orientation == that.orientation
+                && uiMode == that.uiMode
+                && screenWidthDp == that.screenWidthDp
+                && screenHeightDp == that.screenHeightDp
+                && smallestScreenWidthDp == that.smallestScreenWidthDp
+                && densityDpi == that.densityDpi;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof Configuration && equals((Configuration) that);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + Float.floatToIntBits(fontScale);
+        result = 31 * result + (locale == null ? 0 : locale.hashCode());
+        result = 31 * result + orientation;
+        result = 31 * result + uiMode;
+        result = 31 * result + screenWidthDp;
+        result = 31 * result + screenHeightDp;
+        result = 31 * result + smallestScreenWidthDp;
+        result = 31 * result + densityDpi;
+        return result;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.content.res;
+
+import android.graphics.drawable.Drawable;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.io.File;
+import java.util.HashMap;
+
+/**
+ * Stand-in for the framework Resources. The headless runtime only knows the resources that were
+ * added to it: the names of ids, the processed layout files written by the data binding
+ * compiler and optional string and color values.
+ */
+public class Resources {
+    private final HashMap<String, Integer> mIdentifiers = new HashMap<String, Integer>();
+    private final SparseArray<String> mEntryNames = new SparseArray<String>();
+    private final SparseArray<File> mLayouts = new SparseArray<File>();
+    private final SparseArray<CharSequence> mTexts = new SparseArray<CharSequence>();
+    private final SparseIntArray mColors = new SparseIntArray();
+    private final SparseArray<Drawable> mDrawables = new SparseArray<Drawable>();
+    private final Configuration mConfiguration = new Configuration();
+
+    /**
+     * Adds a resource name. This is not part of the framework API.
+     *
+     * @param id The resource id.
+     * @param type The resource type, such as "id" or "layout".
+     * @param name The name of the resource entry.
+     */
+    public void addIdentifier(int id, String type, String name) {
+        mIdentifiers.put(type + "/" + name, id);
+        mEntryNames.put(id, name);
+    }
+
+    /**
+     * Sets the processed layout file of a layout resource. This is not part of the framework
+     * API.
+     */
+    public void addLayout(int id, String name, File layoutFile) {
+        addIdentifier(id, "layout", name);
+        mLayouts.put(id, layoutFile);
+    }
+
+    /**
+     * Sets the value of a string resource. This is not part of the framework API.
+     */
+    public void addText(int id, CharSequence text) {
+        mTexts.put(id, text);
+    }
+
+    /**
+     * Sets the value of a color resource. This is not part of the framework API.
+     */
+    public void addColor(int id, int color) {
+        mColors.put(id, color);
+    }
+
+    /**
+     * Sets the value of a drawable resource. This is not part of the framework API.
+     */
+    public void addDrawable(int id, Drawable drawable) {
+        mDrawables.put(id, drawable);
+    }
+
+    /**
+     * Returns the processed layout file of a layout resource. This is not part of the
+     * framework API.
+     */
+    public File getLayoutFile(int id) throws NotFoundException {
+        final File file = mLayouts.get(id);
+        if (file == null) {
+            throw new NotFoundException("Resource ID #0x" + Integer.toHexString(id));
+        }
+        return file;
+    }
+
+    /**
+     * Returns the current Configuration. Its fields may be changed directly to simulate a
+     * configuration change.
+     */
+    public Configuration getConfiguration() {
+        return mConfiguration;
+    }
+
+    public int getIdentifier(String name, String defType, String defPackage) {
+        final Integer id = mIdentifiers.get(defType + "/" + name);
+        return id == null ? 0 : id;
+    }
+
+    public String getResourceEntryName(int resid) throws NotFoundException {
+        final String name = mEntryNames.get(resid);
+        if (name == null) {
+            throw new NotFoundException("Unable to find resource ID #0x"
+                    + Integer.toHexString(resid));
+        }
+        return name;
+    }
+
+    public CharSequence getText(int id) throws NotFoundException {
+        final CharSequence text = mTexts.get(id);
+        if (text == null) {
+            throw new NotFoundException("String resource ID #0x" + Integer.toHexString(id));
+        }
+        return text;
+    }
+
+    public String getString(int id) throws NotFoundException {
+        return getText(id).toString();
+    }
+
+    public int getColor(int id) throws NotFoundException {
+        final int index = mColors.indexOfKey(id);
+        if (index < 0) {
+            throw new NotFoundException("Color resource ID #0x" + Integer.toHexString(id));
+        }
+        return mColors.valueAt(index);
+    }
+
+    public ColorStateList getColorStateList(int id) throws NotFoundException {
+        return ColorStateList.valueOf(getColor(id));
+    }
+
+    public Drawable getDrawable(int id) throws NotFoundException {
+        final Drawable drawable = mDrawables.get(id);
+        if (drawable == null) {
+            throw new NotFoundException("Drawable resource ID #0x" + Integer.toHexString(id));
+        }
+        return drawable;
+    }
+
+    public final Theme newTheme() {
+        return new Theme();
+    }
+
+    /**
+     * Stand-in for the framework Theme. Headless themes hold no attributes, they are only
+     * passed along.
+     */
+    public final class Theme {
+        Theme() {
+        }
+
+        public Resources getResources() {
+            return Resources.this;
+        }
+    }
+
+    public static class NotFoundException extends RuntimeException {
+        public NotFoundException() {
+        }
+
+        public NotFoundException(String name) {
+            super(name);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.headless;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Looper;
+import android.view.View;
+import android.view.Window;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Entry points for running generated bindings on a plain JVM with the headless stand-ins of
+ * the Android classes that the data binding runtime uses.
+ * <p>
+ * A typical benchmark or test prepares the calling thread, creates a Context from the R class
+ * and the processed layouts of an application and then uses the generated bindings as on a
+ * device:
+ * <pre>
+ * HeadlessRuntime.prepareThread();
+ * Context context = HeadlessRuntime.createContext(R.class, layoutDirectory);
+ * MainBinding binding = MainBinding.inflate(LayoutInflater.from(context));
+ * HeadlessRuntime.attachToWindow(binding.getRoot());
+ * binding.setUser(user);
+ * binding.executePendingBindings();
+ * </pre>
+ * Rebinds requested by observable changes run in frames posted to the thread's Looper, which
+ * {@link #runUntilIdle()} executes.
+ */
+public final class HeadlessRuntime {
+    private HeadlessRuntime() {
+    }
+
+    /**
+     * Prepares a Looper for the calling thread, if it does not have one yet. Bindings must be
+     * created on a thread with a Looper.
+     *
+     * @return The Looper of the calling thread.
+     */
+    public static Looper prepareThread() {
+        if (Looper.myLooper() == null) {
+            Looper.prepare();
+        }
+        return Looper.myLooper();
+    }
+
+    /**
+     * Runs the messages of the calling thread's Looper, including the frames that execute the
+     * pending bindings, until there is nothing left to run.
+     *
+     * @return The number of messages that were run.
+     */
+    public static int runUntilIdle() {
+        final Looper looper = Looper.myLooper();
+        if (looper == null) {
+            throw new IllegalStateException("The calling thread does not have a Looper");
+        }
+        return looper.runUntilIdle();
+    }
+
+    /**
+     * Creates a Context with the resources declared in an R class. The layouts are read from
+     * layoutDirectory, which should contain the layout files written by the data binding
+     * compiler, named after their R.layout fields.
+     *
+     * @param rClass The R class generated for the application.
+     * @param layoutDirectory The directory containing the processed layout files.
+     * @return A Context for inflating the layouts and creating bindings.
+     */
+    public static Context createContext(Class<?> rClass, File layoutDirectory) {
+        final Resources resources = new Resources();
+        for (Class<?> typeClass : rClass.getClasses()) {
+            final String type = typeClass.getSimpleName();
+            for (Field field : typeClass.getFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || field.getType() != int.class) {
+                    continue;
+                }
+                final int id;
+                try {
+                    id = field.getInt(null);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot read " + field, e);
+                }
+                if ("layout".equals(type)) {
+                    resources.addLayout(id, field.getName(),
+                            new File(layoutDirectory, field.getName() + ".xml"));
+                } else {
+                    resources.addIdentifier(id, type, field.getName());
+                }
+            }
+        }
+        return new Context(resources);
+    }
+
+    /**
+     * Puts root in the content of a new attached Window. Bindings only execute their scheduled
+     * rebinds while their root is attached.
+     *
+     * @param root The root View of a binding. It must not have a parent.
+     * @return The Window, which may be detached with {@link Window#setAttached(boolean)}.
+     */
+    public static Window attachToWindow(View root) {
+        final Window window = new Window(root.getContext());
+        window.setContentView(root);
+        window.setAttached(true);
+        return window;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.graphics.drawable;
+
+import android.content.res.Resources;
+
+/**
+ * Stand-in for the framework Drawable. Headless Views only keep references to Drawables.
+ */
+public abstract class Drawable {
+    public ConstantState getConstantState() {
+        return null;
+    }
+
+    /**
+     * The state shared by the Drawables created from the same resource.
+     */
+    public static abstract class ConstantState {
+        public abstract Drawable newDrawable();
+
+        public Drawable newDrawable(Resources res) {
+            return newDrawable();
+        }
+
+        public Drawable newDrawable(Resources res, Resources.Theme theme) {
+            return newDrawable(res);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+/**
+ * Stand-in for the framework Build. {@link VERSION#SDK_INT} is read from the
+ * <code>android.databinding.headless.sdk</code> system property so that the version specific
+ * paths of the runtime and of generated bindings can be exercised. It defaults to
+ * {@link VERSION_CODES#M}.
+ */
+public class Build {
+    private Build() {
+    }
+
+    public static class VERSION {
+        public static final int SDK_INT = Integer.getInteger("android.databinding.headless.sdk",
+                VERSION_CODES.M);
+
+        public static final String RELEASE = "headless";
+
+        private VERSION() {
+        }
+    }
+
+    public static class VERSION_CODES {
+        public static final int BASE = 1;
+        public static final int ECLAIR_MR1 = 7;
+        public static final int FROYO = 8;
+        public static final int GINGERBREAD = 9;
+        public static final int HONEYCOMB = 11;
+        public static final int HONEYCOMB_MR1 = 12;
+        public static final int HONEYCOMB_MR2 = 13;
+        public static final int ICE_CREAM_SANDWICH = 14;
+        public static final int ICE_CREAM_SANDWICH_MR1 = 15;
+        public static final int JELLY_BEAN = 16;
+        public static final int JELLY_BEAN_MR1 = 17;
+        public static final int JELLY_BEAN_MR2 = 18;
+        public static final int KITKAT = 19;
+        public static final int KITKAT_WATCH = 20;
+        public static final int LOLLIPOP = 21;
+        public static final int LOLLIPOP_MR1 = 22;
+        public static final int M = 23;
+
+        private VERSION_CODES() {
+        }
+    }
+}
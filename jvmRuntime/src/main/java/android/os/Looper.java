@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework Looper. Runnables posted with a {@link Handler} are kept in a
+ * queue ordered by time. {@link #loop()} runs them like the framework does and
+ * {@link #runUntilIdle()} runs the ones that are due and returns, which lets a test or a
+ * benchmark drive the thread one step at a time.
+ */
+public final class Looper {
+    private static final ThreadLocal<Looper> sThreadLocal = new ThreadLocal<Looper>();
+
+    private static Looper sMainLooper;
+
+    private final Thread mThread;
+
+    /**
+     * The pending messages ordered by {@link Message#mWhen}. Guarded by itself.
+     */
+    private final ArrayList<Message> mQueue = new ArrayList<Message>();
+
+    /**
+     * Guarded by mQueue.
+     */
+    private boolean mQuitting;
+
+    private Looper() {
+        mThread = Thread.currentThread();
+    }
+
+    public static void prepare() {
+        if (sThreadLocal.get() != null) {
+            throw new RuntimeException("Only one Looper may be created per thread");
+        }
+        sThreadLocal.set(new Looper());
+    }
+
+    public static void prepareMainLooper() {
+        prepare();
+        synchronized (Looper.class) {
+            if (sMainLooper != null) {
+                throw new IllegalStateException("The main Looper has already been prepared.");
+            }
+            sMainLooper = myLooper();
+        }
+    }
+
+    public static Looper getMainLooper() {
+        synchronized (Looper.class) {
+            return sMainLooper;
+        }
+    }
+
+    public static Looper myLooper() {
+        return sThreadLocal.get();
+    }
+
+    /**
+     * Runs the messages of the calling thread's Looper until {@link #quit()} is called.
+     */
+    public static void loop() {
+        final Looper me = myLooper();
+        if (me == null) {
+            throw new RuntimeException("No Looper; Looper.prepare() wasn't called on this thread.");
+        }
+        while (true) {
+            final Message message;
+            synchronized (me.mQueue) {
+                while (true) {
+                    if (me.mQuitting) {
+                        return;
+                    }
+                    if (!me.mQueue.isEmpty()) {
+                        final long delay = me.mQueue.get(0).mWhen - SystemClock.uptimeMillis();
+                        if (delay <= 0) {
+                            message = me.mQueue.remove(0);
+                            break;
+                        }
+                        waitQuietly(me.mQueue, delay);
+                    } else {
+                        waitQuietly(me.mQueue, 0);
+                    }
+                }
+            }
+            message.mCallback.run();
+        }
+    }
+
+    /**
+     * Runs the messages that are due, including the ones posted while running, and returns
+     * when none is left. Messages posted with a delay that has not elapsed are kept. This is
+     * not part of the framework API.
+     *
+     * @return The number of messages that were run.
+     */
+    public int runUntilIdle() {
+        if (Thread.currentThread() != mThread) {
+            throw new IllegalStateException("runUntilIdle must be called on the Looper thread");
+        }
+        int count = 0;
+        while (true) {
+            final Message message;
+            synchronized (mQueue) {
+                if (mQueue.isEmpty() || mQueue.get(0).mWhen > SystemClock.uptimeMillis()) {
+                    return count;
+                }
+                message = mQueue.remove(0);
+            }
+            message.mCallback.run();
+            count++;
+        }
+    }
+
+    public void quit() {
+        synchronized (mQueue) {
+            mQuitting = true;
+            mQueue.clear();
+            mQueue.notifyAll();
+        }
+    }
+
+    public Thread getThread() {
+        return mThread;
+    }
+
+    public boolean isCurrentThread() {
+        return Thread.currentThread() == mThread;
+    }
+
+    boolean enqueue(Handler target, Runnable callback, long when) {
+        synchronized (mQueue) {
+            if (mQuitting) {
+                return false;
+            }
+            int index = mQueue.size();
+            while (index > 0 && mQueue.get(index - 1).mWhen > when) {
+                index--;
+            }
+            mQueue.add(index, new Message(target, callback, when));
+            mQueue.notifyAll();
+            return true;
+        }
+    }
+
+    void remove(Handler target, Runnable callback) {
+        synchronized (mQueue) {
+            for (int i = mQueue.size() - 1; i >= 0; i--) {
+                final Message message = mQueue.get(i);
+                if (message.mTarget == target && message.mCallback == callback) {
+                    mQueue.remove(i);
+                }
+            }
+        }
+    }
+
+    private static void waitQuietly(Object lock, long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Message {
+        final Handler mTarget;
+        final Runnable mCallback;
+        final long mWhen;
+
+        Message(Handler target, Runnable callback, long when) {
+            mTarget = target;
+            mCallback = callback;
+            mWhen = when;
+        }
+    }
+}
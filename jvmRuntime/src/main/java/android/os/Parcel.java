@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-memory stand-in for the framework Parcel. Every write appends one value that the
+ * matching read returns, so a Parcelable round trips as it does on a device. Positions count
+ * values instead of bytes and {@link #dataSize()} is an estimate of the size the framework
+ * would use.
+ */
+public final class Parcel {
+    private static final int VAL_NULL = -1;
+    private static final int VAL_PARCELABLE = 4;
+    private static final int VAL_OBJECT = 100;
+
+    private final ArrayList<Object> mValues = new ArrayList<Object>();
+    private int mPosition;
+    private int mDataSize;
+
+    private Parcel() {
+    }
+
+    public static Parcel obtain() {
+        return new Parcel();
+    }
+
+    public void recycle() {
+        mValues.clear();
+        mPosition = 0;
+        mDataSize = 0;
+    }
+
+    public int dataSize() {
+        return mDataSize;
+    }
+
+    public int dataPosition() {
+        return mPosition;
+    }
+
+    public void setDataPosition(int pos) {
+        if (pos < 0 || pos > mValues.size()) {
+            throw new IllegalArgumentException("Invalid position " + pos);
+        }
+        mPosition = pos;
+    }
+
+    public void writeInt(int val) {
+        append(val, 4);
+    }
+
+    public void writeLong(long val) {
+        append(val, 8);
+    }
+
+    public void writeFloat(float val) {
+        append(val, 4);
+    }
+
+    public void writeDouble(double val) {
+        append(val, 8);
+    }
+
+    public void writeByte(byte val) {
+        append(val, 4);
+    }
+
+    public void writeString(String val) {
+        append(val, val == null ? 4 : 4 + (((val.length() + 1) * 2 + 3) & ~3));
+    }
+
+    public void writeIntArray(int[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 4));
+    }
+
+    public void writeLongArray(long[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 8));
+    }
+
+    public void writeFloatArray(float[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 4));
+    }
+
+    public void writeDoubleArray(double[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 8));
+    }
+
+    public void writeBooleanArray(boolean[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 4));
+    }
+
+    public void writeByteArray(byte[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : (val.length + 3) & ~3));
+    }
+
+    public void writeCharArray(char[] val) {
+        append(val == null ? null : val.clone(), 4 + (val == null ? 0 : val.length * 4));
+    }
+
+    public void writeStringList(List<String> val) {
+        if (val == null) {
+            writeInt(-1);
+            return;
+        }
+        final int size = val.size();
+        writeInt(size);
+        for (int i = 0; i < size; i++) {
+            writeString(val.get(i));
+        }
+    }
+
+    public <T extends Parcelable> void writeTypedList(List<T> val) {
+        if (val == null) {
+            writeInt(-1);
+            return;
+        }
+        final int size = val.size();
+        writeInt(size);
+        for (int i = 0; i < size; i++) {
+            final T item = val.get(i);
+            if (item == null) {
+                writeInt(0);
+            } else {
+                writeInt(1);
+                item.writeToParcel(this, 0);
+            }
+        }
+    }
+
+    public void writeParcelable(Parcelable p, int parcelableFlags) {
+        if (p == null) {
+            writeString(null);
+            return;
+        }
+        writeString(p.getClass().getName());
+        p.writeToParcel(this, parcelableFlags);
+    }
+
+    /**
+     * Writes Parcelables as {@link #writeParcelable(Parcelable, int)} does and keeps any other
+     * value by reference.
+     */
+    public void writeValue(Object v) {
+        if (v == null) {
+            writeInt(VAL_NULL);
+        } else if (v instanceof Parcelable) {
+            writeInt(VAL_PARCELABLE);
+            writeParcelable((Parcelable) v, 0);
+        } else {
+            writeInt(VAL_OBJECT);
+            append(v, 8);
+        }
+    }
+
+    public int readInt() {
+        return (Integer) next();
+    }
+
+    public long readLong() {
+        return (Long) next();
+    }
+
+    public float readFloat() {
+        return (Float) next();
+    }
+
+    public double readDouble() {
+        return (Double) next();
+    }
+
+    public byte readByte() {
+        return (Byte) next();
+    }
+
+    public String readString() {
+        return (String) next();
+    }
+
+    public int[] createIntArray() {
+        return (int[]) next();
+    }
+
+    public long[] createLongArray() {
+        return (long[]) next();
+    }
+
+    public float[] createFloatArray() {
+        return (float[]) next();
+    }
+
+    public double[] createDoubleArray() {
+        return (double[]) next();
+    }
+
+    public boolean[] createBooleanArray() {
+        return (boolean[]) next();
+    }
+
+    public byte[] createByteArray() {
+        return (byte[]) next();
+    }
+
+    public char[] createCharArray() {
+        return (char[]) next();
+    }
+
+    public ArrayList<String> createStringArrayList() {
+        final int size = readInt();
+        if (size < 0) {
+            return null;
+        }
+        ArrayList<String> list = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString());
+        }
+        return list;
+    }
+
+    public <T> ArrayList<T> createTypedArrayList(Parcelable.Creator<T> c) {
+        final int size = readInt();
+        if (size < 0) {
+            return null;
+        }
+        ArrayList<T> list = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readInt() == 0 ? null : c.createFromParcel(this));
+        }
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Parcelable> T readParcelable(ClassLoader loader) {
+        final String name = readString();
+        if (name == null) {
+            return null;
+        }
+        final Parcelable.Creator<?> creator = getCreator(name, loader);
+        if (creator instanceof Parcelable.ClassLoaderCreator) {
+            return (T) ((Parcelable.ClassLoaderCreator<?>) creator).createFromParcel(this, loader);
+        }
+        return (T) creator.createFromParcel(this);
+    }
+
+    public Object readValue(ClassLoader loader) {
+        final int type = readInt();
+        switch (type) {
+            case VAL_NULL:
+                return null;
+            case VAL_PARCELABLE:
+                return readParcelable(loader);
+            case VAL_OBJECT:
+                return next();
+            default:
+                throw new RuntimeException("Parcel " + this + ": Unmarshalling unknown type code "
+                        + type + " at offset " + (mPosition - 1));
+        }
+    }
+
+    private void append(Object value, int size) {
+        if (mPosition == mValues.size()) {
+            mValues.add(value);
+        } else {
+            mValues.set(mPosition, value);
+        }
+        mPosition++;
+        mDataSize += size;
+    }
+
+    private Object next() {
+        if (mPosition >= mValues.size()) {
+            throw new BadParcelableException("Read past the end of the Parcel");
+        }
+        return mValues.get(mPosition++);
+    }
+
+    private static Parcelable.Creator<?> getCreator(String name, ClassLoader loader) {
+        try {
+            Class<?> c = Class.forName(name, true,
+                    loader == null ? Parcel.class.getClassLoader() : loader);
+            Field field = c.getField("CREATOR");
+            return (Parcelable.Creator<?>) field.get(null);
+        } catch (ClassNotFoundException e) {
+            throw new BadParcelableException(e);
+        } catch (NoSuchFieldException e) {
+            throw new BadParcelableException(e);
+        } catch (IllegalAccessException e) {
+            throw new BadParcelableException(e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.support.v4.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Stand-in for the support library ArrayMap: a {@link SimpleArrayMap} that implements
+ * {@link Map}. The collection views are backed by the map.
+ */
+public class ArrayMap<K, V> extends SimpleArrayMap<K, V> implements Map<K, V> {
+    public ArrayMap() {
+        super();
+    }
+
+    public ArrayMap(int capacity) {
+        super(capacity);
+    }
+
+    public boolean containsAll(Collection<?> collection) {
+        for (Object key : collection) {
+            if (!containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        ensureCapacity(size() + map.size());
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public boolean removeAll(Collection<?> collection) {
+        boolean removed = false;
+        for (Object key : collection) {
+            final int index = indexOfKey(key);
+            if (index >= 0) {
+                removeAt(index);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    public boolean retainAll(Collection<?> collection) {
+        boolean removed = false;
+        for (int i = size() - 1; i >= 0; i--) {
+            if (!collection.contains(keyAt(i))) {
+                removeAt(i);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new ArrayIterator<Map.Entry<K, V>>() {
+                    @Override
+                    Map.Entry<K, V> get(final int index) {
+                        return new Map.Entry<K, V>() {
+                            @Override
+                            public K getKey() {
+                                return keyAt(index);
+                            }
+
+                            @Override
+                            public V getValue() {
+                                return valueAt(index);
+                            }
+
+                            @Override
+                            public V setValue(V value) {
+                                return setValueAt(index, value);
+                            }
+                        };
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new ArrayIterator<K>() {
+                    @Override
+                    K get(int index) {
+                        return keyAt(index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ArrayIterator<V>() {
+                    @Override
+                    V get(int index) {
+                        return valueAt(index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size();
+            }
+        };
+    }
+
+    private abstract class ArrayIterator<T> implements Iterator<T> {
+        private int mIndex;
+
+        private boolean mCanRemove;
+
+        abstract T get(int index);
+
+        @Override
+        public boolean hasNext() {
+            return mIndex < size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            mCanRemove = true;
+            return get(mIndex++);
+        }
+
+        @Override
+        public void remove() {
+            if (!mCanRemove) {
+                throw new IllegalStateException();
+            }
+            mCanRemove = false;
+            removeAt(--mIndex);
+        }
+    }
+}
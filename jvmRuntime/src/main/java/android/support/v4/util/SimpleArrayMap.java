@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.support.v4.util;
+
+import java.util.Map;
+
+/**
+ * Stand-in for the support library SimpleArrayMap. Entries are kept in insertion order in two
+ * parallel arrays and looked up linearly, which is enough for the small maps of headless tests.
+ * Every removal and replacement goes through {@link #removeAt(int)} and
+ * {@link #setValueAt(int, Object)} so that subclasses can observe them.
+ */
+public class SimpleArrayMap<K, V> {
+    private Object[] mKeys;
+
+    private Object[] mValues;
+
+    private int mSize;
+
+    public SimpleArrayMap() {
+        this(0);
+    }
+
+    public SimpleArrayMap(int capacity) {
+        mKeys = new Object[Math.max(capacity, 4)];
+        mValues = new Object[mKeys.length];
+    }
+
+    public void clear() {
+        for (int i = 0; i < mSize; i++) {
+            mKeys[i] = null;
+            mValues[i] = null;
+        }
+        mSize = 0;
+    }
+
+    public void ensureCapacity(int minimumCapacity) {
+        if (mKeys.length < minimumCapacity) {
+            Object[] keys = new Object[minimumCapacity];
+            Object[] values = new Object[minimumCapacity];
+            System.arraycopy(mKeys, 0, keys, 0, mSize);
+            System.arraycopy(mValues, 0, values, 0, mSize);
+            mKeys = keys;
+            mValues = values;
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    public int indexOfKey(Object key) {
+        for (int i = 0; i < mSize; i++) {
+            final Object k = mKeys[i];
+            if (k == null ? key == null : k.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsValue(Object value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    int indexOfValue(Object value) {
+        for (int i = 0; i < mSize; i++) {
+            final Object v = mValues[i];
+            if (v == null ? value == null : v.equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public V get(Object key) {
+        final int index = indexOfKey(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K keyAt(int index) {
+        return (K) mKeys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) mValues[index];
+    }
+
+    public V setValueAt(int index, V value) {
+        final V old = valueAt(index);
+        mValues[index] = value;
+        return old;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    public V put(K key, V value) {
+        final int index = indexOfKey(key);
+        if (index >= 0) {
+            final V old = valueAt(index);
+            mValues[index] = value;
+            return old;
+        }
+        if (mSize == mKeys.length) {
+            ensureCapacity(mSize * 2);
+        }
+        mKeys[mSize] = key;
+        mValues[mSize] = value;
+        mSize++;
+        return null;
+    }
+
+    public void putAll(SimpleArrayMap<? extends K, ? extends V> array) {
+        for (int i = 0; i < array.size(); i++) {
+            put(array.keyAt(i), array.valueAt(i));
+        }
+    }
+
+    public V remove(Object key) {
+        final int index = indexOfKey(key);
+        return index >= 0 ? removeAt(index) : null;
+    }
+
+    public V removeAt(int index) {
+        final V old = valueAt(index);
+        System.arraycopy(mKeys, index + 1, mKeys, index, mSize - index - 1);
+        System.arraycopy(mValues, index + 1, mValues, index, mSize - index - 1);
+        mSize--;
+        mKeys[mSize] = null;
+        mValues[mSize] = null;
+        return old;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Map)) {
+            return false;
+        }
+        final Map<?, ?> map = (Map<?, ?>) object;
+        if (size() != map.size()) {
+            return false;
+        }
+        for (int i = 0; i < mSize; i++) {
+            final Object key = mKeys[i];
+            final Object value = mValues[i];
+            final Object theirs = map.get(key);
+            if (value == null ? theirs != null || !map.containsKey(key)
+                    : !value.equals(theirs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int i = 0; i < mSize; i++) {
+            final Object key = mKeys[i];
+            final Object value = mValues[i];
+            result += (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder("{");
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(mKeys[i]).append('=').append(mValues[i]);
+        }
+        return buffer.append('}').toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework Choreographer. There is no display: a frame is posted to the
+ * Looper of the Choreographer as soon as a callback is added, so frames run when the Looper
+ * runs its messages.
+ */
+public final class Choreographer {
+    private static final ThreadLocal<Choreographer> sThreadInstance =
+            new ThreadLocal<Choreographer>() {
+                @Override
+                protected Choreographer initialValue() {
+                    final Looper looper = Looper.myLooper();
+                    if (looper == null) {
+                        throw new IllegalStateException("The current thread must have a looper!");
+                    }
+                    return new Choreographer(looper);
+                }
+            };
+
+    private final Handler mHandler;
+
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame();
+        }
+    };
+
+    /**
+     * Guarded by itself.
+     */
+    private final ArrayList<FrameCallback> mCallbacks = new ArrayList<FrameCallback>();
+
+    /**
+     * Guarded by mCallbacks.
+     */
+    private boolean mFrameScheduled;
+
+    private Choreographer(Looper looper) {
+        mHandler = new Handler(looper);
+    }
+
+    public static Choreographer getInstance() {
+        return sThreadInstance.get();
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("callback must not be null");
+        }
+        synchronized (mCallbacks) {
+            mCallbacks.add(callback);
+            if (mFrameScheduled) {
+                return;
+            }
+            mFrameScheduled = true;
+        }
+        mHandler.post(mFrameRunnable);
+    }
+
+    public void removeFrameCallback(FrameCallback callback) {
+        synchronized (mCallbacks) {
+            mCallbacks.remove(callback);
+        }
+    }
+
+    private void doFrame() {
+        final FrameCallback[] callbacks;
+        synchronized (mCallbacks) {
+            mFrameScheduled = false;
+            callbacks = mCallbacks.toArray(new FrameCallback[mCallbacks.size()]);
+            mCallbacks.clear();
+        }
+        final long frameTimeNanos = System.nanoTime();
+        for (FrameCallback callback : callbacks) {
+            callback.doFrame(frameTimeNanos);
+        }
+    }
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Stand-in for the framework LayoutInflater. It reads the layout files of the {@link Resources}
+ * of its Context, which are the layouts processed by the data binding compiler, and creates the
+ * headless Views they name. &lt;include&gt;, &lt;merge&gt; and ViewStubs are supported. The
+ * attributes that identify Views (id and tag) and a few common literal attributes are applied;
+ * everything else, such as layout parameters, is ignored.
+ */
+public class LayoutInflater {
+    private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+
+    private static final String[] CLASS_PREFIXES = {
+            "android.widget.",
+            "android.view.",
+            "android.webkit."
+    };
+
+    private final Context mContext;
+
+    private final HashMap<String, Constructor<? extends View>> mConstructors =
+            new HashMap<String, Constructor<? extends View>>();
+
+    public LayoutInflater(Context context) {
+        mContext = context;
+    }
+
+    public static LayoutInflater from(Context context) {
+        LayoutInflater inflater =
+                (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        if (inflater == null) {
+            throw new AssertionError("LayoutInflater not found.");
+        }
+        return inflater;
+    }
+
+    public Context getContext() {
+        return mContext;
+    }
+
+    public View inflate(int resource, ViewGroup root) {
+        return inflate(resource, root, root != null);
+    }
+
+    public View inflate(int resource, ViewGroup root, boolean attachToRoot) {
+        final Element element = parse(resource);
+        if ("merge".equals(element.getTagName())) {
+            if (root == null || !attachToRoot) {
+                throw new InflateException("<merge /> can be used only with a valid "
+                        + "ViewGroup root and attachToRoot=true");
+            }
+            inflateChildren(element, root);
+            return root;
+        }
+        final View view = createViewTree(element);
+        if (root != null && attachToRoot) {
+            root.addView(view);
+            return root;
+        }
+        return view;
+    }
+
+    private View createViewTree(Element element) {
+        final View view = createView(element);
+        if (view instanceof ViewGroup) {
+            inflateChildren(element, (ViewGroup) view);
+        }
+        return view;
+    }
+
+    private void inflateChildren(Element parent, ViewGroup viewGroup) {
+        final NodeList children = parent.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            final Node node = children.item(i);
+            if (node.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            final Element child = (Element) node;
+            final String name = child.getTagName();
+            if ("requestFocus".equals(name)) {
+                continue;
+            } else if ("tag".equals(name)) {
+                viewGroup.setTag(resolveId(getAttribute(child, "id")),
+                        resolveText(getAttribute(child, "value")));
+            } else if ("include".equals(name)) {
+                inflateInclude(child, viewGroup);
+            } else if ("merge".equals(name)) {
+                throw new InflateException("<merge /> must be the root element");
+            } else {
+                viewGroup.addView(createViewTree(child));
+            }
+        }
+    }
+
+    private void inflateInclude(Element include, ViewGroup parent) {
+        final String layout = include.getAttribute("layout");
+        if (layout.length() == 0) {
+            throw new InflateException("You must specify a layout in the include tag: "
+                    + "<include layout=\"@layout/layoutID\" />");
+        }
+        final Element element = parse(resolveResource(layout, "layout"));
+        if ("merge".equals(element.getTagName())) {
+            inflateChildren(element, parent);
+            return;
+        }
+        final View view = createViewTree(element);
+        final String id = getAttribute(include, "id");
+        if (id != null) {
+            view.setId(resolveId(id));
+        }
+        final String visibility = getAttribute(include, "visibility");
+        if (visibility != null) {
+            view.setVisibility(parseVisibility(visibility));
+        }
+        parent.addView(view);
+    }
+
+    private View createView(Element element) {
+        String name = element.getTagName();
+        if ("view".equals(name)) {
+            name = element.getAttribute("class");
+        }
+        final View view;
+        try {
+            view = getConstructor(name).newInstance(mContext);
+        } catch (InstantiationException e) {
+            throw new InflateException("Error inflating class " + name, e);
+        } catch (IllegalAccessException e) {
+            throw new InflateException("Error inflating class " + name, e);
+        } catch (InvocationTargetException e) {
+            throw new InflateException("Error inflating class " + name, e.getCause());
+        }
+        applyAttributes(element, view);
+        return view;
+    }
+
+    private Constructor<? extends View> getConstructor(String name) {
+        Constructor<? extends View> constructor = mConstructors.get(name);
+        if (constructor != null) {
+            return constructor;
+        }
+        final ClassLoader classLoader = mContext.getClassLoader();
+        Class<?> viewClass = null;
+        if (name.indexOf('.') >= 0) {
+            viewClass = loadClass(classLoader, name);
+        } else {
+            for (String prefix : CLASS_PREFIXES) {
+                viewClass = loadClass(classLoader, prefix + name);
+                if (viewClass != null) {
+                    break;
+                }
+            }
+        }
+        if (viewClass == null || !View.class.isAssignableFrom(viewClass)) {
+            throw new InflateException("Error inflating class " + name
+                    + ": there is no headless View with that name");
+        }
+        try {
+            constructor = viewClass.asSubclass(View.class).getConstructor(Context.class);
+        } catch (NoSuchMethodException e) {
+            throw new InflateException("Error inflating class " + name, e);
+        }
+        mConstructors.put(name, constructor);
+        return constructor;
+    }
+
+    private void applyAttributes(Element element, View view) {
+        final String id = getAttribute(element, "id");
+        if (id != null) {
+            view.setId(resolveId(id));
+        }
+        final String tag = getAttribute(element, "tag");
+        if (tag != null) {
+            view.setTag(tag);
+        }
+        final String visibility = getAttribute(element, "visibility");
+        if (visibility != null) {
+            view.setVisibility(parseVisibility(visibility));
+        }
+        final String contentDescription = getAttribute(element, "contentDescription");
+        if (contentDescription != null) {
+            view.setContentDescription(resolveText(contentDescription));
+        }
+        final String enabled = getAttribute(element, "enabled");
+        if (enabled != null) {
+            view.setEnabled(Boolean.parseBoolean(enabled));
+        }
+        if (view instanceof TextView) {
+            final String text = getAttribute(element, "text");
+            if (text != null) {
+                ((TextView) view).setText(resolveText(text));
+            }
+            final String hint = getAttribute(element, "hint");
+            if (hint != null) {
+                ((TextView) view).setHint(resolveText(hint));
+            }
+        } else if (view instanceof LinearLayout) {
+            final String orientation = getAttribute(element, "orientation");
+            if (orientation != null) {
+                ((LinearLayout) view).setOrientation("vertical".equals(orientation)
+                        ? LinearLayout.VERTICAL : LinearLayout.HORIZONTAL);
+            }
+        } else if (view instanceof ViewStub) {
+            final ViewStub viewStub = (ViewStub) view;
+            final String layout = getAttribute(element, "layout");
+            if (layout != null) {
+                viewStub.setLayoutResource(resolveResource(layout, "layout"));
+            }
+            final String inflatedId = getAttribute(element, "inflatedId");
+            if (inflatedId != null) {
+                viewStub.setInflatedId(resolveId(inflatedId));
+            }
+        }
+    }
+
+    private Element parse(int resource) {
+        final File file = mContext.getResources().getLayoutFile(resource);
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(file);
+            return document.getDocumentElement();
+        } catch (Exception e) {
+            throw new InflateException("Unable to parse layout " + file, e);
+        }
+    }
+
+    private int resolveId(String reference) {
+        if (reference.startsWith("@android:id/")) {
+            if ("@android:id/content".equals(reference)) {
+                return android.R.id.content;
+            }
+            throw new InflateException("Unknown framework id " + reference);
+        }
+        if (reference.startsWith("@+id/")) {
+            reference = "@id/" + reference.substring(5);
+        }
+        return resolveResource(reference, "id");
+    }
+
+    private int resolveResource(String reference, String type) {
+        final String prefix = "@" + type + "/";
+        if (!reference.startsWith(prefix)) {
+            throw new InflateException("Expected a " + type + " reference: " + reference);
+        }
+        final String name = reference.substring(prefix.length());
+        final int id = mContext.getResources().getIdentifier(name, type, null);
+        if (id == 0) {
+            throw new InflateException("Unknown resource " + reference);
+        }
+        return id;
+    }
+
+    private CharSequence resolveText(String value) {
+        if (value.startsWith("@string/")) {
+            try {
+                return mContext.getResources().getText(resolveResource(value, "string"));
+            } catch (Resources.NotFoundException e) {
+                throw new InflateException("The value of " + value
+                        + " must be added with Resources.addText", e);
+            }
+        }
+        return value;
+    }
+
+    private static int parseVisibility(String value) {
+        if ("gone".equals(value)) {
+            return View.GONE;
+        } else if ("invisible".equals(value)) {
+            return View.INVISIBLE;
+        }
+        return View.VISIBLE;
+    }
+
+    private static String getAttribute(Element element, String name) {
+        return element.hasAttributeNS(ANDROID_NS, name)
+                ? element.getAttributeNS(ANDROID_NS, name) : null;
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String name) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
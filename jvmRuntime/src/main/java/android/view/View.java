@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.IBinder;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework View. It keeps the state that bindings set and read, its place in
+ * the View hierarchy and whether it is attached to a {@link Window}. Nothing is measured or
+ * drawn.
+ */
+public class View {
+    public static final int NO_ID = -1;
+
+    public static final int VISIBLE = 0x00000000;
+
+    public static final int INVISIBLE = 0x00000004;
+
+    public static final int GONE = 0x00000008;
+
+    private final Context mContext;
+
+    private int mId = NO_ID;
+
+    private Object mTag;
+
+    private SparseArray<Object> mKeyedTags;
+
+    ViewParent mParent;
+
+    private IBinder mWindowToken;
+
+    private ArrayList<OnAttachStateChangeListener> mOnAttachStateChangeListeners;
+
+    private int mVisibility = VISIBLE;
+
+    private CharSequence mContentDescription;
+
+    private boolean mEnabled = true;
+
+    private boolean mClickable;
+
+    private boolean mLongClickable;
+
+    private boolean mFocusable;
+
+    private boolean mSelected;
+
+    private boolean mActivated;
+
+    private float mAlpha = 1;
+
+    private Drawable mBackground;
+
+    private OnClickListener mOnClickListener;
+
+    private OnLongClickListener mOnLongClickListener;
+
+    public View(Context context) {
+        mContext = context;
+    }
+
+    public final Context getContext() {
+        return mContext;
+    }
+
+    public Resources getResources() {
+        return mContext.getResources();
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    public void setId(int id) {
+        mId = id;
+    }
+
+    public Object getTag() {
+        return mTag;
+    }
+
+    public void setTag(Object tag) {
+        mTag = tag;
+    }
+
+    public Object getTag(int key) {
+        return mKeyedTags == null ? null : mKeyedTags.get(key);
+    }
+
+    public void setTag(int key, Object tag) {
+        if (mKeyedTags == null) {
+            mKeyedTags = new SparseArray<Object>(2);
+        }
+        mKeyedTags.put(key, tag);
+    }
+
+    public final ViewParent getParent() {
+        return mParent;
+    }
+
+    public View getRootView() {
+        View root = this;
+        while (root.mParent instanceof View) {
+            root = (View) root.mParent;
+        }
+        return root;
+    }
+
+    public final View findViewById(int id) {
+        if (id < 0) {
+            return null;
+        }
+        return findViewTraversal(id);
+    }
+
+    public final View findViewWithTag(Object tag) {
+        if (tag == null) {
+            return null;
+        }
+        return findViewWithTagTraversal(tag);
+    }
+
+    View findViewTraversal(int id) {
+        return id == mId ? this : null;
+    }
+
+    View findViewWithTagTraversal(Object tag) {
+        return tag.equals(mTag) ? this : null;
+    }
+
+    public int getVisibility() {
+        return mVisibility;
+    }
+
+    public void setVisibility(int visibility) {
+        mVisibility = visibility;
+    }
+
+    /**
+     * Returns true when this View and all of its ancestors are visible and it is attached to a
+     * window.
+     */
+    public boolean isShown() {
+        View current = this;
+        while (true) {
+            if (current.mVisibility != VISIBLE) {
+                return false;
+            }
+            final ViewParent parent = current.mParent;
+            if (!(parent instanceof View)) {
+                return current.mWindowToken != null;
+            }
+            current = (View) parent;
+        }
+    }
+
+    public boolean isAttachedToWindow() {
+        return mWindowToken != null;
+    }
+
+    public IBinder getWindowToken() {
+        return mWindowToken;
+    }
+
+    public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        if (mOnAttachStateChangeListeners == null) {
+            mOnAttachStateChangeListeners = new ArrayList<OnAttachStateChangeListener>();
+        }
+        mOnAttachStateChangeListeners.add(listener);
+    }
+
+    public void removeOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        if (mOnAttachStateChangeListeners != null) {
+            mOnAttachStateChangeListeners.remove(listener);
+        }
+    }
+
+    void dispatchAttachedToWindow(IBinder windowToken) {
+        mWindowToken = windowToken;
+        if (mOnAttachStateChangeListeners != null) {
+            final ArrayList<OnAttachStateChangeListener> listeners =
+                    new ArrayList<OnAttachStateChangeListener>(mOnAttachStateChangeListeners);
+            for (OnAttachStateChangeListener listener : listeners) {
+                listener.onViewAttachedToWindow(this);
+            }
+        }
+    }
+
+    void dispatchDetachedFromWindow() {
+        if (mOnAttachStateChangeListeners != null) {
+            final ArrayList<OnAttachStateChangeListener> listeners =
+                    new ArrayList<OnAttachStateChangeListener>(mOnAttachStateChangeListeners);
+            for (OnAttachStateChangeListener listener : listeners) {
+                listener.onViewDetachedFromWindow(this);
+            }
+        }
+        mWindowToken = null;
+    }
+
+    public CharSequence getContentDescription() {
+        return mContentDescription;
+    }
+
+    public void setContentDescription(CharSequence contentDescription) {
+        mContentDescription = contentDescription;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public boolean isClickable() {
+        return mClickable;
+    }
+
+    public void setClickable(boolean clickable) {
+        mClickable = clickable;
+    }
+
+    public boolean isLongClickable() {
+        return mLongClickable;
+    }
+
+    public void setLongClickable(boolean longClickable) {
+        mLongClickable = longClickable;
+    }
+
+    public boolean isFocusable() {
+        return mFocusable;
+    }
+
+    public void setFocusable(boolean focusable) {
+        mFocusable = focusable;
+    }
+
+    public boolean isSelected() {
+        return mSelected;
+    }
+
+    public void setSelected(boolean selected) {
+        mSelected = selected;
+    }
+
+    public boolean isActivated() {
+        return mActivated;
+    }
+
+    public void setActivated(boolean activated) {
+        mActivated = activated;
+    }
+
+    public float getAlpha() {
+        return mAlpha;
+    }
+
+    public void setAlpha(float alpha) {
+        mAlpha = alpha;
+    }
+
+    public Drawable getBackground() {
+        return mBackground;
+    }
+
+    public void setBackground(Drawable background) {
+        mBackground = background;
+    }
+
+    public void setOnClickListener(OnClickListener l) {
+        if (l != null) {
+            mClickable = true;
+        }
+        mOnClickListener = l;
+    }
+
+    public void setOnLongClickListener(OnLongClickListener l) {
+        if (l != null) {
+            mLongClickable = true;
+        }
+        mOnLongClickListener = l;
+    }
+
+    public boolean performClick() {
+        if (mOnClickListener == null) {
+            return false;
+        }
+        mOnClickListener.onClick(this);
+        return true;
+    }
+
+    public boolean performLongClick() {
+        return mOnLongClickListener != null && mOnLongClickListener.onLongClick(this);
+    }
+
+    public void requestLayout() {
+    }
+
+    public void invalidate() {
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder(getClass().getName());
+        out.append('{').append(Integer.toHexString(System.identityHashCode(this)));
+        if (mId != NO_ID) {
+            out.append(" #").append(Integer.toHexString(mId));
+        }
+        return out.append('}').toString();
+    }
+
+    public interface OnClickListener {
+        void onClick(View v);
+    }
+
+    public interface OnLongClickListener {
+        boolean onLongClick(View v);
+    }
+
+    public interface OnAttachStateChangeListener {
+        void onViewAttachedToWindow(View v);
+
+        void onViewDetachedFromWindow(View v);
+    }
+}
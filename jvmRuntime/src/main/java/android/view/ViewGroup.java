@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.os.IBinder;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in for the framework ViewGroup. Children added to an attached ViewGroup are attached
+ * to its window and removed children are detached.
+ */
+public abstract class ViewGroup extends View implements ViewParent {
+    private final ArrayList<View> mChildren = new ArrayList<View>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public int getChildCount() {
+        return mChildren.size();
+    }
+
+    public View getChildAt(int index) {
+        if (index < 0 || index >= mChildren.size()) {
+            return null;
+        }
+        return mChildren.get(index);
+    }
+
+    public int indexOfChild(View child) {
+        return mChildren.indexOf(child);
+    }
+
+    public void addView(View child) {
+        addView(child, -1);
+    }
+
+    public void addView(View child, int index) {
+        if (child == null) {
+            throw new IllegalArgumentException("Cannot add a null child view to a ViewGroup");
+        }
+        if (child.mParent != null) {
+            throw new IllegalStateException("The specified child already has a parent. "
+                    + "You must call removeView() on the child's parent first.");
+        }
+        if (index < 0) {
+            index = mChildren.size();
+        }
+        mChildren.add(index, child);
+        child.mParent = this;
+        if (isAttachedToWindow()) {
+            child.dispatchAttachedToWindow(getWindowToken());
+        }
+    }
+
+    public void removeView(View view) {
+        final int index = indexOfChild(view);
+        if (index >= 0) {
+            removeViewAt(index);
+        }
+    }
+
+    public void removeViewAt(int index) {
+        final View child = mChildren.remove(index);
+        if (child.isAttachedToWindow()) {
+            child.dispatchDetachedFromWindow();
+        }
+        child.mParent = null;
+    }
+
+    public void removeAllViews() {
+        for (int i = mChildren.size() - 1; i >= 0; i--) {
+            removeViewAt(i);
+        }
+    }
+
+    @Override
+    View findViewTraversal(int id) {
+        if (id == getId()) {
+            return this;
+        }
+        for (int i = 0; i < mChildren.size(); i++) {
+            final View view = mChildren.get(i).findViewTraversal(id);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    View findViewWithTagTraversal(Object tag) {
+        if (tag.equals(getTag())) {
+            return this;
+        }
+        for (int i = 0; i < mChildren.size(); i++) {
+            final View view = mChildren.get(i).findViewWithTagTraversal(tag);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    void dispatchAttachedToWindow(IBinder windowToken) {
+        super.dispatchAttachedToWindow(windowToken);
+        for (int i = 0; i < mChildren.size(); i++) {
+            mChildren.get(i).dispatchAttachedToWindow(windowToken);
+        }
+    }
+
+    @Override
+    void dispatchDetachedFromWindow() {
+        for (int i = 0; i < mChildren.size(); i++) {
+            mChildren.get(i).dispatchDetachedFromWindow();
+        }
+        super.dispatchDetachedFromWindow();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Stand-in for the framework ViewStub. Making it visible or calling {@link #inflate()}
+ * replaces it with its layout in its parent.
+ */
+public final class ViewStub extends View {
+    private int mLayoutResource;
+
+    private int mInflatedId = NO_ID;
+
+    private View mInflatedView;
+
+    private OnInflateListener mInflateListener;
+
+    public ViewStub(Context context) {
+        super(context);
+        super.setVisibility(GONE);
+    }
+
+    public int getLayoutResource() {
+        return mLayoutResource;
+    }
+
+    public void setLayoutResource(int layoutResource) {
+        mLayoutResource = layoutResource;
+    }
+
+    public int getInflatedId() {
+        return mInflatedId;
+    }
+
+    public void setInflatedId(int inflatedId) {
+        mInflatedId = inflatedId;
+    }
+
+    public void setOnInflateListener(OnInflateListener inflateListener) {
+        mInflateListener = inflateListener;
+    }
+
+    @Override
+    public void setVisibility(int visibility) {
+        if (mInflatedView != null) {
+            mInflatedView.setVisibility(visibility);
+            return;
+        }
+        super.setVisibility(visibility);
+        if (visibility == VISIBLE || visibility == INVISIBLE) {
+            inflate();
+        }
+    }
+
+    public View inflate() {
+        final ViewParent viewParent = getParent();
+        if (!(viewParent instanceof ViewGroup)) {
+            throw new IllegalStateException("ViewStub must have a non-null ViewGroup viewParent");
+        }
+        if (mLayoutResource == 0) {
+            throw new IllegalArgumentException("ViewStub must have a valid layoutResource");
+        }
+        final ViewGroup parent = (ViewGroup) viewParent;
+        final View view = LayoutInflater.from(getContext()).inflate(mLayoutResource, parent,
+                false);
+        if (mInflatedId != NO_ID) {
+            view.setId(mInflatedId);
+        }
+        final int index = parent.indexOfChild(this);
+        parent.removeViewAt(index);
+        parent.addView(view, index);
+        mInflatedView = view;
+        if (mInflateListener != null) {
+            mInflateListener.onInflate(this, view);
+        }
+        return view;
+    }
+
+    public interface OnInflateListener {
+        void onInflate(ViewStub stub, View inflated);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.view;
+
+import android.content.Context;
+import android.os.Binder;
+import android.widget.FrameLayout;
+
+/**
+ * Stand-in for the framework Window: a decor View holding a content FrameLayout with the id
+ * {@link android.R.id#content}. The decor and its content are attached while the Window is
+ * attached.
+ */
+public class Window {
+    private final Context mContext;
+
+    private final FrameLayout mDecor;
+
+    private final FrameLayout mContentParent;
+
+    private boolean mIsAttached;
+
+    public Window(Context context) {
+        mContext = context;
+        mDecor = new FrameLayout(context);
+        mContentParent = new FrameLayout(context);
+        mContentParent.setId(android.R.id.content);
+        mDecor.addView(mContentParent);
+    }
+
+    public final Context getContext() {
+        return mContext;
+    }
+
+    public View getDecorView() {
+        return mDecor;
+    }
+
+    public LayoutInflater getLayoutInflater() {
+        return LayoutInflater.from(mContext);
+    }
+
+    public View findViewById(int id) {
+        return mDecor.findViewById(id);
+    }
+
+    public void setContentView(int layoutResID) {
+        mContentParent.removeAllViews();
+        getLayoutInflater().inflate(layoutResID, mContentParent);
+    }
+
+    public void setContentView(View view) {
+        mContentParent.removeAllViews();
+        mContentParent.addView(view);
+    }
+
+    /**
+     * Attaches or detaches the decor View and its descendants, which is what the window
+     * manager does on a device. This is not part of the framework API.
+     *
+     * @param attached Whether the Window should be attached.
+     */
+    public void setAttached(boolean attached) {
+        if (attached == mIsAttached) {
+            return;
+        }
+        mIsAttached = attached;
+        if (attached) {
+            ((ViewGroup) mDecor).dispatchAttachedToWindow(new Binder());
+        } else {
+            ((ViewGroup) mDecor).dispatchDetachedFromWindow();
+        }
+    }
+
+    /**
+     * Returns whether the Window is attached. This is not part of the framework API.
+     */
+    public boolean isAttached() {
+        return mIsAttached;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+/**
+ * Stand-in for the framework ImageView.
+ */
+public class ImageView extends View {
+    private Drawable mDrawable;
+
+    public ImageView(Context context) {
+        super(context);
+    }
+
+    public Drawable getDrawable() {
+        return mDrawable;
+    }
+
+    public void setImageDrawable(Drawable drawable) {
+        mDrawable = drawable;
+    }
+
+    public void setImageResource(int resId) {
+        setImageDrawable(getResources().getDrawable(resId));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.widget;
+
+import android.content.Context;
+import android.view.View;
+
+/**
+ * Stand-in for the framework TextView. It keeps the text state that bindings set.
+ */
+public class TextView extends View {
+    private CharSequence mText = "";
+
+    private CharSequence mHint;
+
+    private int mTextColor = 0xFF000000;
+
+    private float mTextSize = 14;
+
+    public TextView(Context context) {
+        super(context);
+    }
+
+    public CharSequence getText() {
+        return mText;
+    }
+
+    public final void setText(CharSequence text) {
+        mText = text == null ? "" : text;
+    }
+
+    public final void setText(int resid) {
+        setText(getContext().getText(resid));
+    }
+
+    public CharSequence getHint() {
+        return mHint;
+    }
+
+    public final void setHint(CharSequence hint) {
+        mHint = hint;
+    }
+
+    public final void setHint(int resid) {
+        setHint(getContext().getText(resid));
+    }
+
+    public final int getCurrentTextColor() {
+        return mTextColor;
+    }
+
+    public void setTextColor(int color) {
+        mTextColor = color;
+    }
+
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    public void setTextSize(float size) {
+        mTextSize = size;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.databinding.library;
+
+/**
+ * The resources of the data binding library. On a device they are merged into the resources of
+ * the application, so the values only have to be distinct from the ids used as View tag keys.
+ */
+public final class R {
+    private R() {
+    }
+
+    public static final class id {
+        public static final int dataBinding = 0x7f7f0001;
+
+        private id() {
+        }
+    }
+}
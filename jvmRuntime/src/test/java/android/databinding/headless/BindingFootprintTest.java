@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.headless;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.databinding.Observable;
+import android.databinding.ObservableInt;
+import android.databinding.ViewDataBinding;
+import android.view.View;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the heap owned by binding instances, excluding their Views, the observables they
+ * observe and anything shared with other bindings. Sizes are computed from the fields of the
+ * reachable objects with the layout of a 64 bit JVM using compressed references, so the results
+ * do not depend on the JVM running the test or on garbage collection. The bounds catch fields
+ * or objects added to every binding by mistake.
+ */
+public class BindingFootprintTest {
+    private static final int HEADER_BYTES = 12;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int REFERENCE_BYTES = 4;
+
+    private static final int ALIGNMENT = 8;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        HeadlessRuntime.prepareThread();
+        mContext = new Context(new Resources());
+    }
+
+    @Test
+    public void testBindingWithoutObservables() throws Exception {
+        final long bytes = measure(0, false);
+        assertTrue("binding without observables uses " + bytes + " bytes", bytes <= 80);
+    }
+
+    @Test
+    public void testBindingWithUnsetObservables() throws Exception {
+        final long bytes = measure(4, false);
+        assertTrue("binding with 4 unset observables uses " + bytes + " bytes", bytes <= 80);
+    }
+
+    @Test
+    public void testBindingWithObservable() throws Exception {
+        final long bytes = measure(4, true);
+        assertTrue("binding with 1 of 4 observables set uses " + bytes + " bytes", bytes <= 200);
+    }
+
+    /**
+     * Returns the number of bytes owned by a binding with localFieldCount observable slots,
+     * with one of them registered when observe is true.
+     */
+    private long measure(int localFieldCount, boolean observe) throws Exception {
+        final ObservableInt observable = new ObservableInt();
+        final FootprintBinding binding = new FootprintBinding(new View(mContext),
+                localFieldCount);
+        final FootprintBinding other = new FootprintBinding(new View(mContext),
+                localFieldCount);
+        if (observe) {
+            binding.observe(observable);
+            other.observe(observable);
+        }
+        final Set<Object> shared = reachable(other);
+        long bytes = 0;
+        for (Object object : reachable(binding)) {
+            if (!shared.contains(object)) {
+                bytes += sizeOf(object);
+            }
+        }
+        binding.unbind();
+        other.unbind();
+        return bytes;
+    }
+
+    /**
+     * Returns the objects reachable from binding without going through Views, Contexts,
+     * observables, weakly referenced objects or classes of the JDK.
+     */
+    private static Set<Object> reachable(ViewDataBinding binding) throws Exception {
+        final Set<Object> objects =
+                Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        final ArrayDeque<Object> pending = new ArrayDeque<Object>();
+        objects.add(binding);
+        pending.add(binding);
+        while (!pending.isEmpty()) {
+            final Object object = pending.poll();
+            final Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(object); i++) {
+                        visit(Array.get(object, i), objects, pending);
+                    }
+                }
+                continue;
+            }
+            for (Class<?> c = type; c != null && !isJdkClass(c); c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())
+                            && !field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        visit(field.get(object), objects, pending);
+                    }
+                }
+            }
+        }
+        return objects;
+    }
+
+    private static void visit(Object object, Set<Object> objects, ArrayDeque<Object> pending) {
+        if (object == null || object instanceof View || object instanceof Context
+                || object instanceof Observable || object instanceof Class) {
+            return;
+        }
+        if (objects.add(object) && !isJdkClass(object.getClass())) {
+            pending.add(object);
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        final String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                || name.startsWith("jdk.");
+    }
+
+    private static long sizeOf(Object object) {
+        final Class<?> type = object.getClass();
+        long size;
+        if (type.isArray()) {
+            size = ARRAY_HEADER_BYTES
+                    + (long) Array.getLength(object) * sizeOfType(type.getComponentType());
+        } else {
+            size = HEADER_BYTES;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += sizeOfType(field.getType());
+                    }
+                }
+            }
+        }
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static int sizeOfType(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    /**
+     * A binding without expressions, as generated for a layout that only declares observable
+     * variables.
+     */
+    static class FootprintBinding extends ViewDataBinding {
+        FootprintBinding(View root, int localFieldCount) {
+            super(null, root, localFieldCount);
+            setRootTag(root);
+        }
+
+        void observe(ObservableInt observable) {
+            updateRegistration(0, observable);
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+
+        @Override
+        public boolean hasPendingBindings() {
+            return false;
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            return false;
+        }
+
+        @Override
+        protected boolean onFieldChange(int localFieldId, Object object, int fieldId) {
+            return false;
+        }
+
+        @Override
+        protected void executeBindings() {
+        }
+    }
+}
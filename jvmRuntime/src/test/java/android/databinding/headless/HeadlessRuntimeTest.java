@@ -0,0 +1,596 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.headless;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.Context;
+import android.databinding.DataBindingComponent;
+import android.databinding.ObservableInt;
+import android.databinding.ViewDataBinding;
+import android.os.Parcel;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.Window;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HeadlessRuntimeTest {
+    private File mLayoutDirectory;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() throws IOException {
+        mLayoutDirectory = File.createTempFile("layout", "");
+        assertTrue(mLayoutDirectory.delete());
+        assertTrue(mLayoutDirectory.mkdirs());
+        writeLayout("counter",
+                "<LinearLayout xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+                + "    android:orientation=\"vertical\" android:tag=\"layout/counter_0\">\n"
+                + "    <TextView android:id=\"@+id/count\" android:tag=\"binding_1\"\n"
+                + "        android:text=\"initial\"/>\n"
+                + "    <ViewStub android:id=\"@+id/stub\" android:layout=\"@layout/stub\"\n"
+                + "        android:inflatedId=\"@+id/stubContents\"/>\n"
+                + "</LinearLayout>");
+        writeLayout("stub",
+                "<TextView xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+                + "    android:text=\"inflated\"/>");
+        HeadlessRuntime.prepareThread();
+        mContext = HeadlessRuntime.createContext(R.class, mLayoutDirectory);
+    }
+
+    @After
+    public void tearDown() {
+        HeadlessRuntime.runUntilIdle();
+        for (File file : mLayoutDirectory.listFiles()) {
+            file.delete();
+        }
+        mLayoutDirectory.delete();
+    }
+
+    @Test
+    public void testInflate() {
+        View root = LayoutInflater.from(mContext).inflate(R.layout.counter, null, false);
+        assertTrue(root instanceof LinearLayout);
+        assertEquals(LinearLayout.VERTICAL, ((LinearLayout) root).getOrientation());
+        assertEquals("layout/counter_0", root.getTag());
+        TextView count = (TextView) root.findViewById(R.id.count);
+        assertEquals("binding_1", count.getTag());
+        assertEquals("initial", count.getText().toString());
+        assertSame(root, count.getParent());
+    }
+
+    @Test
+    public void testViewStub() {
+        ViewGroup root = (ViewGroup) LayoutInflater.from(mContext).inflate(R.layout.counter, null,
+                false);
+        View stub = root.findViewById(R.id.stub);
+        assertEquals(View.GONE, stub.getVisibility());
+        stub.setVisibility(View.VISIBLE);
+        assertNull(root.findViewById(R.id.stub));
+        TextView contents = (TextView) root.findViewById(R.id.stubContents);
+        assertEquals("inflated", contents.getText().toString());
+        assertSame(contents, root.getChildAt(1));
+    }
+
+    @Test
+    public void testExecutePendingBindings() {
+        CounterBinding binding = CounterBinding.inflate(mContext);
+        ObservableInt count = new ObservableInt(3);
+        binding.setCount(count);
+        assertTrue(binding.hasPendingBindings());
+        binding.executePendingBindings();
+        assertFalse(binding.hasPendingBindings());
+        assertEquals("3", binding.mCountView.getContentDescription());
+    }
+
+    @Test
+    public void testFieldChangeRebindsInFrame() {
+        CounterBinding binding = CounterBinding.inflate(mContext);
+        HeadlessRuntime.attachToWindow(binding.getRoot());
+        ObservableInt count = new ObservableInt(1);
+        binding.setCount(count);
+        binding.executePendingBindings();
+
+        count.set(2);
+        assertTrue(binding.hasPendingBindings());
+        assertTrue(HeadlessRuntime.runUntilIdle() > 0);
+        assertFalse(binding.hasPendingBindings());
+        assertEquals("2", binding.mCountView.getContentDescription());
+    }
+
+    @Test
+    public void testDetachedRootWaitsForAttach() {
+        CounterBinding binding = CounterBinding.inflate(mContext);
+        Window window = HeadlessRuntime.attachToWindow(binding.getRoot());
+        ObservableInt count = new ObservableInt(1);
+        binding.setCount(count);
+        binding.executePendingBindings();
+        window.setAttached(false);
+
+        count.set(2);
+        HeadlessRuntime.runUntilIdle();
+        assertTrue(binding.hasPendingBindings());
+        assertEquals("1", binding.mCountView.getContentDescription());
+
+        window.setAttached(true);
+        assertFalse(binding.hasPendingBindings());
+        assertEquals("2", binding.mCountView.getContentDescription());
+    }
+
+    @Test
+    public void testChildExecutedByItself() {
+        CounterBinding counter = CounterBinding.inflate(mContext);
+        ContainerBinding container = new ContainerBinding(new LinearLayout(mContext), counter);
+        assertTrue(container.hasPendingBindings());
+        container.executePendingBindings();
+        assertFalse(container.hasPendingBindings());
+
+        counter.setCount(new ObservableInt(4));
+        assertTrue(container.hasPendingBindings());
+        counter.executePendingBindings();
+        assertFalse(counter.hasPendingBindings());
+        assertFalse(container.hasPendingBindings());
+    }
+
+    @Test
+    public void testChildPaths() {
+        ViewGroup root = (ViewGroup) LayoutInflater.from(mContext).inflate(R.layout.counter, null,
+                false);
+        Object[] bindings = CounterBinding.findViews(root);
+        assertSame(root, bindings[0]);
+        assertSame(root.getChildAt(0), bindings[1]);
+    }
+
+    @Test
+    public void testChildPathsFallBackToTags() {
+        ViewGroup root = (ViewGroup) LayoutInflater.from(mContext).inflate(R.layout.counter, null,
+                false);
+        View count = root.findViewById(R.id.count);
+        // moves the count to index 1, where its child path does not lead anymore
+        root.addView(new View(mContext), 0);
+        Object[] bindings = CounterBinding.findViews(root);
+        assertSame(root, bindings[0]);
+        assertSame(count, bindings[1]);
+    }
+
+    @Test
+    public void testCollectedBindingIsUnregistered() throws InterruptedException {
+        CountingObservableInt count = new CountingObservableInt();
+        bindAndDrop(count);
+        assertEquals(1, count.mAdded);
+        assertEquals(0, count.mRemoved);
+
+        CounterBinding other = CounterBinding.inflate(mContext);
+        other.executePendingBindings();
+        for (int i = 0; i < 100 && count.mRemoved == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            other.executePendingBindings();
+        }
+        assertEquals(1, count.mRemoved);
+    }
+
+    private void bindAndDrop(ObservableInt count) {
+        CounterBinding binding = CounterBinding.inflate(mContext);
+        binding.setCount(count);
+        binding.executePendingBindings();
+        HeadlessRuntime.runUntilIdle();
+    }
+
+    @Test
+    public void testChangeDuringComputeWithPendingChild() {
+        final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+        ViewDataBinding.setComputeExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        try {
+            final CounterBinding counter = CounterBinding.inflate(mContext);
+            final SnapshotBinding binding = SnapshotBinding.create(mContext, counter);
+            HeadlessRuntime.attachToWindow(binding.getRoot());
+            binding.setText("a");
+            HeadlessRuntime.runUntilIdle();
+            assertEquals(1, tasks.size());
+
+            // the next frame comes while the expressions are still being computed
+            binding.mOnCompute = new Runnable() {
+                @Override
+                public void run() {
+                    counter.setCount(new ObservableInt(5));
+                    binding.setText("b");
+                    HeadlessRuntime.runUntilIdle();
+                }
+            };
+            tasks.remove(0).run();
+            HeadlessRuntime.runUntilIdle();
+            assertEquals(1, tasks.size());
+
+            tasks.remove(0).run();
+            HeadlessRuntime.runUntilIdle();
+            assertTrue(tasks.isEmpty());
+            assertFalse(binding.hasPendingBindings());
+            assertEquals("b", binding.mTextView.getText().toString());
+            assertEquals("5", counter.mCountView.getContentDescription());
+        } finally {
+            ViewDataBinding.setComputeExecutor(null);
+        }
+    }
+
+    @Test
+    public void testParcel() {
+        Parcel parcel = Parcel.obtain();
+        parcel.writeParcelable(new ObservableInt(7), 0);
+        parcel.setDataPosition(0);
+        ObservableInt read = parcel.readParcelable(getClass().getClassLoader());
+        assertEquals(7, read.get());
+        parcel.recycle();
+    }
+
+    private static class CountingObservableInt extends ObservableInt {
+        int mAdded;
+
+        int mRemoved;
+
+        @Override
+        public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            mAdded++;
+            super.addOnPropertyChangedCallback(callback);
+        }
+
+        @Override
+        public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            mRemoved++;
+            super.removeOnPropertyChangedCallback(callback);
+        }
+    }
+
+    private void writeLayout(String name, String contents) throws IOException {
+        FileWriter writer = new FileWriter(new File(mLayoutDirectory, name + ".xml"));
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+
+    public static final class R {
+        public static final class id {
+            public static final int count = 0x7f020001;
+            public static final int stub = 0x7f020002;
+            public static final int stubContents = 0x7f020003;
+        }
+
+        public static final class layout {
+            public static final int counter = 0x7f030001;
+            public static final int stub = 0x7f030002;
+        }
+    }
+
+    /**
+     * A binding without expressions that contains a CounterBinding, as the binding of a layout
+     * including the counter layout.
+     */
+    static class ContainerBinding extends ViewDataBinding {
+        final CounterBinding mCounter;
+
+        private boolean mIsDirty = true;
+
+        ContainerBinding(View root, CounterBinding counter) {
+            super(null, root, 0);
+            mCounter = counter;
+            setContainedBinding(counter);
+        }
+
+        @Override
+        public void invalidateAll() {
+            synchronized (this) {
+                mIsDirty = true;
+            }
+            mCounter.invalidateAll();
+            requestRebind();
+        }
+
+        @Override
+        public boolean hasPendingBindings() {
+            synchronized (this) {
+                if (mIsDirty) {
+                    return true;
+                }
+            }
+            return hasPendingChildren();
+        }
+
+        @Override
+        protected boolean hasPendingContainedBindings() {
+            return mCounter.hasPendingBindings();
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            return false;
+        }
+
+        @Override
+        protected boolean onFieldChange(int localFieldId, Object object, int fieldId) {
+            return false;
+        }
+
+        @Override
+        protected void executeBindings() {
+            synchronized (this) {
+                mIsDirty = false;
+            }
+            if (takePendingChildren()) {
+                mCounter.executePendingBindings();
+            }
+        }
+    }
+
+    /**
+     * Written as the data binding compiler writes the binding of a layout with separate compute
+     * and apply phases. Its String variable is bound to the text of a TextView and it includes
+     * the counter layout.
+     */
+    static class SnapshotBinding extends ViewDataBinding {
+        final TextView mTextView;
+
+        final CounterBinding mCounter;
+
+        /**
+         * Run by computeBindings after it took the dirty flags.
+         */
+        Runnable mOnCompute;
+
+        private String mText;
+
+        private long mDirtyFlags = 0x1L;
+
+        SnapshotBinding(View root, TextView textView, CounterBinding counter) {
+            super(null, root, 0);
+            mTextView = textView;
+            mCounter = counter;
+            setContainedBinding(counter);
+        }
+
+        static SnapshotBinding create(Context context, CounterBinding counter) {
+            LinearLayout root = new LinearLayout(context);
+            TextView textView = new TextView(context);
+            root.addView(textView);
+            root.addView(counter.getRoot());
+            return new SnapshotBinding(root, textView, counter);
+        }
+
+        void setText(String text) {
+            synchronized (this) {
+                mText = text;
+                mDirtyFlags |= 0x1L;
+            }
+            requestRebind();
+        }
+
+        @Override
+        public void invalidateAll() {
+            synchronized (this) {
+                mDirtyFlags = 0x1L;
+            }
+            mCounter.invalidateAll();
+            requestRebind();
+        }
+
+        @Override
+        public boolean hasPendingBindings() {
+            synchronized (this) {
+                if (mDirtyFlags != 0) {
+                    return true;
+                }
+            }
+            return hasPendingChildren();
+        }
+
+        @Override
+        protected boolean hasPendingContainedBindings() {
+            return mCounter.hasPendingBindings();
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            return false;
+        }
+
+        @Override
+        protected boolean onFieldChange(int localFieldId, Object object, int fieldId) {
+            return false;
+        }
+
+        @Override
+        protected void executeBindings() {
+            final BindingSnapshot snapshot = computeBindings();
+            consumeSnapshot(snapshot);
+            applyBindings(snapshot);
+        }
+
+        @Override
+        protected boolean hasBindingSnapshots() {
+            return true;
+        }
+
+        @Override
+        protected boolean hasPendingOwnBindings() {
+            synchronized (this) {
+                if (mDirtyFlags != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected BindingSnapshot computeBindings() {
+            final Snapshot snapshot = new Snapshot();
+            startSnapshot(snapshot);
+            synchronized (this) {
+                snapshot.mDirtyFlags = mDirtyFlags;
+                mDirtyFlags = 0;
+            }
+            snapshot.mText = mText;
+            final Runnable onCompute = mOnCompute;
+            mOnCompute = null;
+            if (onCompute != null) {
+                onCompute.run();
+            }
+            return snapshot;
+        }
+
+        @Override
+        protected void applyBindings(BindingSnapshot bindingSnapshot) {
+            final Snapshot snapshot = (Snapshot) bindingSnapshot;
+            if ((snapshot.mDirtyFlags & 0x1L) != 0) {
+                mTextView.setText(snapshot.mText);
+            }
+            if (takePendingChildren()) {
+                mCounter.executePendingBindings();
+            }
+        }
+
+        @Override
+        protected void restoreBindings(BindingSnapshot bindingSnapshot) {
+            final Snapshot snapshot = (Snapshot) bindingSnapshot;
+            synchronized (this) {
+                mDirtyFlags |= snapshot.mDirtyFlags;
+            }
+        }
+
+        private static class Snapshot extends BindingSnapshot {
+            long mDirtyFlags;
+
+            String mText;
+        }
+    }
+
+    /**
+     * Written as the data binding compiler writes the binding of the counter layout with an
+     * ObservableInt variable bound to the content description of the TextView.
+     */
+    static class CounterBinding extends ViewDataBinding {
+        final LinearLayout mRootView;
+
+        final TextView mCountView;
+
+        private ObservableInt mCount;
+
+        private long mDirtyFlags = -1;
+
+        CounterBinding(DataBindingComponent bindingComponent, View root) {
+            super(bindingComponent, root, 1);
+            final Object[] bindings = mapBindings(bindingComponent, root, 2, null, null);
+            mRootView = (LinearLayout) bindings[0];
+            mRootView.setTag(null);
+            mCountView = (TextView) bindings[1];
+            mCountView.setTag(null);
+            setRootTag(root);
+            invalidateAll();
+        }
+
+        /**
+         * Finds the Views of the counter layout as a binding generated with the
+         * <code>android.databinding.childPaths</code> option does.
+         */
+        static Object[] findViews(View root) {
+            final ChildPaths childPaths = new ChildPaths(2);
+            childPaths.setPath(0, new int[0], "layout/counter_0", 0);
+            childPaths.setPath(1, new int[] {0}, "binding_1", 0);
+            return mapBindings(null, root, 2, null, null, childPaths);
+        }
+
+        static CounterBinding inflate(Context context) {
+            return new CounterBinding(null,
+                    LayoutInflater.from(context).inflate(R.layout.counter, null, false));
+        }
+
+        @Override
+        public void invalidateAll() {
+            synchronized (this) {
+                mDirtyFlags = 0x2L;
+            }
+            requestRebind();
+        }
+
+        @Override
+        public boolean hasPendingBindings() {
+            synchronized (this) {
+                return mDirtyFlags != 0;
+            }
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            return false;
+        }
+
+        void setCount(ObservableInt count) {
+            updateRegistration(0, count);
+            synchronized (this) {
+                mCount = count;
+                mDirtyFlags |= 0x1L;
+            }
+            super.requestRebind();
+        }
+
+        @Override
+        protected boolean onFieldChange(int localFieldId, Object object, int fieldId) {
+            if (localFieldId == 0) {
+                synchronized (this) {
+                    mDirtyFlags |= 0x1L;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected void executeBindings() {
+            long dirtyFlags;
+            synchronized (this) {
+                dirtyFlags = mDirtyFlags;
+                mDirtyFlags = 0;
+            }
+            final ObservableInt count = mCount;
+            if ((dirtyFlags & 0x3L) != 0) {
+                mCountView.setContentDescription(String.valueOf(count == null ? 0 : count.get()));
+            }
+        }
+    }
+}
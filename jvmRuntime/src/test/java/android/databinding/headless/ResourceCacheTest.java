@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.databinding.headless;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.databinding.ViewDataBinding;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ResourceCacheTest {
+    private static final int COLOR = 0x7f050001;
+    private static final int OTHER_COLOR = 0x7f050002;
+    private static final int DRAWABLE = 0x7f020001;
+
+    private CountingResources mResources;
+    private ResourceBinding mBinding;
+
+    @Before
+    public void setUp() {
+        HeadlessRuntime.prepareThread();
+        mResources = new CountingResources();
+        mResources.addColor(COLOR, 0xff00ff00);
+        mResources.addColor(OTHER_COLOR, 0xff0000ff);
+        mResources.addDrawable(DRAWABLE, new SharedDrawable(new SharedState()));
+        mBinding = new ResourceBinding(new View(new Context(mResources)));
+    }
+
+    @Test
+    public void testColorResolvedOnce() {
+        final View root = mBinding.getRoot();
+        assertEquals(0xff00ff00, mBinding.color(root, COLOR));
+        assertEquals(0xff00ff00, mBinding.color(root, COLOR));
+        assertEquals(0xff0000ff, mBinding.color(root, OTHER_COLOR));
+        assertEquals(0xff0000ff, mBinding.color(root, OTHER_COLOR));
+        assertEquals(2, mResources.mColorLookups);
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidates() {
+        final View root = mBinding.getRoot();
+        mBinding.color(root, COLOR);
+        mBinding.drawable(root, DRAWABLE);
+        mResources.getConfiguration().orientation = Configuration.ORIENTATION_LANDSCAPE;
+        mResources.addColor(COLOR, 0xffff0000);
+        assertEquals(0xffff0000, mBinding.color(root, COLOR));
+        mBinding.drawable(root, DRAWABLE);
+        assertEquals(2, mResources.mColorLookups);
+        assertEquals(2, mResources.mDrawableLookups);
+    }
+
+    @Test
+    public void testDrawableSharesConstantState() {
+        final View root = mBinding.getRoot();
+        final Drawable first = mBinding.drawable(root, DRAWABLE);
+        final Drawable second = mBinding.drawable(root, DRAWABLE);
+        assertNotSame(first, second);
+        assertSame(first.getConstantState(), second.getConstantState());
+        assertEquals(1, mResources.mDrawableLookups);
+    }
+
+    @Test
+    public void testDrawableCreatedWithTheme() {
+        final View root = mBinding.getRoot();
+        mBinding.drawable(root, DRAWABLE);
+        mBinding.drawable(root, DRAWABLE);
+        final SharedDrawable drawable = (SharedDrawable) mBinding.drawable(root, DRAWABLE);
+        assertSame(root.getContext().getTheme(), drawable.mTheme);
+    }
+
+    @Test
+    public void testBindingsOfContextShareCache() {
+        final ResourceBinding other = new ResourceBinding(
+                new View(mBinding.getRoot().getContext()));
+        mBinding.color(mBinding.getRoot(), COLOR);
+        other.color(other.getRoot(), COLOR);
+        assertEquals(1, mResources.mColorLookups);
+    }
+
+    @Test
+    public void testViewWithOwnContextCachedSeparately() {
+        final View themed = new View(new Context(mResources));
+        mBinding.color(mBinding.getRoot(), COLOR);
+        mBinding.color(themed, COLOR);
+        mBinding.color(themed, COLOR);
+        assertEquals(2, mResources.mColorLookups);
+    }
+
+    private static class CountingResources extends Resources {
+        int mColorLookups;
+        int mDrawableLookups;
+
+        @Override
+        public int getColor(int id) throws NotFoundException {
+            mColorLookups++;
+            return super.getColor(id);
+        }
+
+        @Override
+        public Drawable getDrawable(int id) throws NotFoundException {
+            mDrawableLookups++;
+            return super.getDrawable(id);
+        }
+    }
+
+    private static class SharedState extends Drawable.ConstantState {
+        @Override
+        public Drawable newDrawable() {
+            return new SharedDrawable(this);
+        }
+
+        @Override
+        public Drawable newDrawable(Resources res, Resources.Theme theme) {
+            final SharedDrawable drawable = new SharedDrawable(this);
+            drawable.mTheme = theme;
+            return drawable;
+        }
+    }
+
+    private static class SharedDrawable extends Drawable {
+        private final SharedState mState;
+        Resources.Theme mTheme;
+
+        SharedDrawable(SharedState state) {
+            mState = state;
+        }
+
+        @Override
+        public ConstantState getConstantState() {
+            return mState;
+        }
+    }
+
+    /**
+     * Exposes the resource lookups used by generated resource expressions.
+     */
+    static class ResourceBinding extends ViewDataBinding {
+        ResourceBinding(View root) {
+            super(null, root, 0);
+            setRootTag(root);
+        }
+
+        int color(View view, int resourceId) {
+            return getCachedColor(view, resourceId);
+        }
+
+        Drawable drawable(View view, int resourceId) {
+            return getCachedDrawable(view, resourceId);
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+
+        @Override
+        public boolean hasPendingBindings() {
+            return false;
+        }
+
+        @Override
+        public boolean setVariable(int variableId, Object value) {
+            return false;
+        }
+
+        @Override
+        protected boolean onFieldChange(int localFieldId, Object object, int fieldId) {
+            return false;
+        }
+
+        @Override
+        protected void executeBindings() {
+        }
+    }
+}